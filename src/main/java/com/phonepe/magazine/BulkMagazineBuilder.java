@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine;
+
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchWrite;
+import com.aerospike.client.Bin;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.github.rholder.retry.RetryException;
+import com.phonepe.magazine.common.Constants;
+import com.phonepe.magazine.core.BaseMagazineStorage;
+import com.phonepe.magazine.core.StorageType;
+import com.phonepe.magazine.exception.ErrorCode;
+import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.impl.aerospike.AerospikeStorage;
+import com.phonepe.magazine.ratelimit.MagazineRateLimiter;
+import com.phonepe.magazine.util.ErrorMessage;
+import com.phonepe.magazine.util.ThreadUtils;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds and registers many magazines at once. SHARDS records of Aerospike magazines are validated with one batch
+ * read per client, and the missing ones created with one batch write, instead of a read and a write per magazine.
+ * The active-shard state of every magazine is then loaded in parallel, so that first fires do not wait on it.
+ */
+public class BulkMagazineBuilder {
+
+    private final MagazineManager magazineManager;
+    private final List<Entry<?>> entries = new ArrayList<>();
+    private int warmUpParallelism = Constants.DEFAULT_WARM_UP_PARALLELISM;
+
+    BulkMagazineBuilder(final MagazineManager magazineManager) {
+        this.magazineManager = magazineManager;
+    }
+
+    public <T> BulkMagazineBuilder add(final String magazineIdentifier,
+            final BaseMagazineStorage<T> baseMagazineStorage) {
+        return add(magazineIdentifier, baseMagazineStorage, null);
+    }
+
+    public <T> BulkMagazineBuilder add(final String magazineIdentifier,
+            final BaseMagazineStorage<T> baseMagazineStorage,
+            final MagazineRateLimiter rateLimiter) {
+        entries.add(new Entry<>(magazineIdentifier, baseMagazineStorage, rateLimiter));
+        return this;
+    }
+
+    /**
+     * @param warmUpParallelism Number of magazines whose active-shard state is loaded at the same time.
+     * @return This builder.
+     */
+    public BulkMagazineBuilder warmUpParallelism(final int warmUpParallelism) {
+        this.warmUpParallelism = Math.max(1, warmUpParallelism);
+        return this;
+    }
+
+    /**
+     * Validate, build and warm up all added magazines, then register them with the manager.
+     *
+     * @return The magazines, in the order they were added.
+     */
+    public List<Magazine<?>> build() throws ExecutionException, RetryException, InterruptedException {
+        final Map<IAerospikeClient, List<Entry<?>>> aerospikeEntries = new IdentityHashMap<>();
+        for (Entry<?> entry : entries) {
+            if (entry.baseMagazineStorage.getType() == StorageType.AEROSPIKE) {
+                aerospikeEntries.computeIfAbsent(entry.aerospikeStorage().getAerospikeClient(),
+                        client -> new ArrayList<>()).add(entry);
+            }
+        }
+        for (List<Entry<?>> clientEntries : aerospikeEntries.values()) {
+            validateShardsRecords(clientEntries);
+        }
+
+        final List<Magazine<?>> magazines = new ArrayList<>(entries.size());
+        for (Entry<?> entry : entries) {
+            magazines.add(entry.build(entry.baseMagazineStorage.getType() != StorageType.AEROSPIKE));
+        }
+        warmUp(magazines);
+        magazineManager.refresh(magazines);
+        return magazines;
+    }
+
+    private static void validateShardsRecords(final List<Entry<?>> clientEntries)
+            throws ExecutionException, RetryException {
+        final AerospikeStorage<?> anyStorage = clientEntries.get(0).aerospikeStorage();
+        final IAerospikeClient aerospikeClient = anyStorage.getAerospikeClient();
+        final Key[] keys = clientEntries.stream()
+                .map(entry -> Magazine.shardsKey(entry.aerospikeStorage(), entry.magazineIdentifier))
+                .toArray(Key[]::new);
+        final Record[] records = (Record[]) anyStorage.getRetryerFactory()
+                .getRetryer()
+                .call(() -> aerospikeClient.get(aerospikeClient.getBatchPolicyDefault(), keys));
+
+        final BatchWritePolicy writePolicy = new BatchWritePolicy(aerospikeClient.getBatchWritePolicyDefault());
+        writePolicy.expiration = Constants.SHARDS_DEFAULT_TTL;
+        final List<BatchRecord> writes = new ArrayList<>();
+        final List<String> created = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            final int shards = clientEntries.get(i).baseMagazineStorage.getShards();
+            if (records[i] == null) {
+                writes.add(new BatchWrite(writePolicy, keys[i], new Operation[]{
+                        Operation.put(new Bin(Constants.SHARDS_BIN, shards))}));
+                created.add(clientEntries.get(i).magazineIdentifier);
+            } else {
+                Magazine.validateShards(records[i].getInt(Constants.SHARDS_BIN), shards);
+            }
+        }
+        if (writes.isEmpty()) {
+            return;
+        }
+        anyStorage.getRetryerFactory()
+                .getRetryer()
+                .call(() -> aerospikeClient.operate(aerospikeClient.getBatchPolicyDefault(), writes));
+        for (int i = 0; i < writes.size(); i++) {
+            if (writes.get(i).resultCode != ResultCode.OK) {
+                throw MagazineException.builder()
+                        .errorCode(ErrorCode.MAGAZINE_UNPREPARED)
+                        .message(String.format(ErrorMessage.ERROR_CREATING_SHARDS_RECORD, created.get(i)))
+                        .build();
+            }
+        }
+    }
+
+    private void warmUp(final List<Magazine<?>> magazines) throws InterruptedException {
+        final List<Magazine<?>> aerospikeMagazines = magazines.stream()
+                .filter(magazine -> magazine.getBaseMagazineStorage().getType() == StorageType.AEROSPIKE)
+                .toList();
+        if (aerospikeMagazines.isEmpty()) {
+            return;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(warmUpParallelism, aerospikeMagazines.size()),
+                ThreadUtils.daemonThreadFactory("magazine-warm-up-"));
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<>(aerospikeMagazines.size());
+            for (Magazine<?> magazine : aerospikeMagazines) {
+                futures.add(executor.submit(magazine::hasDataToFire));
+            }
+            for (Future<Boolean> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw MagazineException.propagate(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class Entry<T> {
+
+        private final String magazineIdentifier;
+        private final BaseMagazineStorage<T> baseMagazineStorage;
+        private final MagazineRateLimiter rateLimiter;
+
+        private Entry(final String magazineIdentifier,
+                final BaseMagazineStorage<T> baseMagazineStorage,
+                final MagazineRateLimiter rateLimiter) {
+            this.magazineIdentifier = magazineIdentifier;
+            this.baseMagazineStorage = baseMagazineStorage;
+            this.rateLimiter = rateLimiter;
+        }
+
+        private AerospikeStorage<T> aerospikeStorage() {
+            return (AerospikeStorage<T>) baseMagazineStorage;
+        }
+
+        private Magazine<T> build(final boolean validate) throws ExecutionException, RetryException {
+            return new Magazine<>(baseMagazineStorage, magazineIdentifier, rateLimiter, validate);
+        }
+    }
+}
@@ -21,6 +21,9 @@ import com.aerospike.client.Key;
 import com.aerospike.client.Record;
 import com.aerospike.client.policy.WritePolicy;
 import com.github.rholder.retry.RetryException;
+import com.phonepe.magazine.bulk.BulkImportConfig;
+import com.phonepe.magazine.bulk.BulkImportReport;
+import com.phonepe.magazine.bulk.BulkImporter;
 import com.phonepe.magazine.common.Constants;
 import com.phonepe.magazine.common.MagazineData;
 import com.phonepe.magazine.common.MetaData;
@@ -29,24 +32,52 @@ import com.phonepe.magazine.core.StorageTypeVisitor;
 import com.phonepe.magazine.exception.ErrorCode;
 import com.phonepe.magazine.exception.MagazineException;
 import com.phonepe.magazine.impl.aerospike.AerospikeStorage;
+import com.phonepe.magazine.ratelimit.MagazineRateLimiter;
+import com.phonepe.magazine.ratelimit.RateLimitStats;
+import com.phonepe.magazine.ratelimit.RateLimitedOperation;
+import com.phonepe.magazine.reactive.MagazinePublisher;
+import com.phonepe.magazine.reactive.PublisherConfig;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
-public class Magazine<T> {
+public class Magazine<T> implements AutoCloseable {
 
     private final BaseMagazineStorage<T> baseMagazineStorage;
     private final String magazineIdentifier;
+    private final MagazineRateLimiter rateLimiter;
 
+    /**
+     * @param rateLimiter Optional limits on load, reload and fire. Use {@link MagazineManager#rateLimiter} for a
+     *                    limiter that also counts against the manager-wide limits.
+     */
     @Builder
     public Magazine(final BaseMagazineStorage<T> baseMagazineStorage,
-            final String magazineIdentifier) throws ExecutionException, RetryException {
+            final String magazineIdentifier,
+            final MagazineRateLimiter rateLimiter) throws ExecutionException, RetryException {
+        this(baseMagazineStorage, magazineIdentifier, rateLimiter, true);
+    }
+
+    // Storage validation is skipped when it has already been done in bulk, see BulkMagazineBuilder
+    Magazine(final BaseMagazineStorage<T> baseMagazineStorage,
+            final String magazineIdentifier,
+            final MagazineRateLimiter rateLimiter,
+            final boolean validate) throws ExecutionException, RetryException {
         this.magazineIdentifier = magazineIdentifier;
         this.baseMagazineStorage = baseMagazineStorage;
-        validateStorage(baseMagazineStorage);
+        this.rateLimiter = rateLimiter;
+        if (validate) {
+            validateStorage(baseMagazineStorage);
+        }
     }
 
     /**
@@ -56,9 +87,23 @@ public class Magazine<T> {
      * @return True if the data was successfully loaded, false otherwise.
      */
     public boolean load(final T data) {
+        acquire(RateLimitedOperation.LOAD);
         return baseMagazineStorage.load(magazineIdentifier, data);
     }
 
+    /**
+     * Load data into the specified magazine that must not be fired before the given time.
+     *
+     * @param data The data to be loaded.
+     * @param notBefore Earliest time the data may be fired, null to fire it right away.
+     * @return True if the data was successfully loaded, false otherwise.
+     */
+    public boolean load(final T data,
+            final Instant notBefore) {
+        acquire(RateLimitedOperation.LOAD);
+        return baseMagazineStorage.load(magazineIdentifier, data, notBefore);
+    }
+
     /**
      * Reload data into the specified magazine. This won't increase the load counter as the data was already loaded,
      * but load pointer will be incremented as the data will appended at the end.
@@ -67,6 +112,7 @@ public class Magazine<T> {
      * @return True if the data was successfully reloaded, false otherwise.
      */
     public boolean reload(final T data) {
+        acquire(RateLimitedOperation.RELOAD);
         return baseMagazineStorage.reload(magazineIdentifier, data);
     }
 
@@ -76,9 +122,19 @@ public class Magazine<T> {
      * @return The MagazineData containing the fired data.
      */
     public MagazineData<T> fire() {
+        acquire(RateLimitedOperation.FIRE);
         return baseMagazineStorage.fire(magazineIdentifier);
     }
 
+    /**
+     * Check whether the magazine has anything to fire, based on cached shard state.
+     *
+     * @return True if at least one shard of the magazine has unfired data, false otherwise.
+     */
+    public boolean hasDataToFire() {
+        return baseMagazineStorage.hasDataToFire(magazineIdentifier);
+    }
+
     /**
      * Delete the provided MagazineData from the magazine.
      *
@@ -97,6 +153,15 @@ public class Magazine<T> {
         return baseMagazineStorage.getMetaData(magazineIdentifier);
     }
 
+    /**
+     * Retrieve how many load, reload and fire calls were permitted, throttled and rejected by the rate limiter.
+     *
+     * @return Stats per limited operation, empty if the magazine is not rate limited.
+     */
+    public Map<RateLimitedOperation, RateLimitStats> getRateLimitStats() {
+        return Objects.isNull(rateLimiter) ? Map.of() : rateLimiter.getStats();
+    }
+
     /**
      * Peek data from specific shards and pointers within the magazine.
      *
@@ -107,6 +172,148 @@ public class Magazine<T> {
         return baseMagazineStorage.peek(magazineIdentifier, shardPointersMap);
     }
 
+    /**
+     * Peek data from a contiguous range of pointers of one shard within the magazine.
+     *
+     * @param shard The shard to peek from, null for an unsharded magazine.
+     * @param fromPointer First pointer of the range, inclusive.
+     * @param toPointer Last pointer of the range, inclusive.
+     * @return MagazineData present in the range, in pointer order.
+     */
+    public List<MagazineData<T>> peekRange(final Integer shard,
+            final long fromPointer,
+            final long toPointer) {
+        return baseMagazineStorage.peekRange(magazineIdentifier, shard, fromPointer, toPointer);
+    }
+
+    /**
+     * Iterate lazily over every unfired item of the magazine, fetching pages of the default size.
+     *
+     * @return An iterator over unfired MagazineData.
+     */
+    public Iterator<MagazineData<T>> unfiredIterator() {
+        return unfiredIterator(Constants.DEFAULT_PEEK_PAGE_SIZE);
+    }
+
+    /**
+     * Iterate lazily over every unfired item of the magazine, from each shard's fire pointer to its load pointer.
+     *
+     * @param pageSize Maximum number of pointers fetched in one batch.
+     * @return An iterator over unfired MagazineData.
+     */
+    public Iterator<MagazineData<T>> unfiredIterator(final int pageSize) {
+        return baseMagazineStorage.unfiredIterator(magazineIdentifier, pageSize);
+    }
+
+    /**
+     * Acknowledge fired data so that its lease is released. Without leases enabled on the storage this does nothing.
+     *
+     * @param magazineData The fired data.
+     */
+    public void ack(final MagazineData<T> magazineData) {
+        baseMagazineStorage.ack(magazineIdentifier, magazineData);
+    }
+
+    /**
+     * Fire up to maxItems data from one shard in a single claim.
+     *
+     * @param maxItems Maximum number of data to fire.
+     * @return The fired data, empty if there was nothing to fire.
+     */
+    public List<MagazineData<T>> fireBatch(final int maxItems) {
+        return baseMagazineStorage.fireBatch(magazineIdentifier, maxItems);
+    }
+
+    /**
+     * Publisher of fired data with default batching and backoff.
+     *
+     * @return A publisher that fires only as much as its subscribers request.
+     */
+    public Flow.Publisher<MagazineData<T>> subscribe() {
+        return subscribe(PublisherConfig.builder()
+                .build());
+    }
+
+    /**
+     * Publisher of fired data. Demand of each subscriber is served by batched claims of at most
+     * {@code maxBatchSize}, and an empty magazine is polled with exponential backoff between the configured bounds.
+     *
+     * @param config Batching and backoff settings.
+     * @return A publisher that fires only as much as its subscribers request.
+     */
+    public Flow.Publisher<MagazineData<T>> subscribe(final PublisherConfig config) {
+        return new MagazinePublisher<>(baseMagazineStorage, magazineIdentifier, config);
+    }
+
+    /**
+     * Bulk load a local NDJSON or CSV file, writing batches per shard with bounded parallelism. With a checkpoint file
+     * configured, an interrupted import resumes after the last fully written batch.
+     *
+     * @param config File, format, batching and checkpoint settings.
+     * @return Counts of read, imported, duplicate and failed records, and the throughput.
+     */
+    public BulkImportReport importFile(final BulkImportConfig config) {
+        return new BulkImporter<>(baseMagazineStorage, magazineIdentifier, config).run();
+    }
+
+    /**
+     * Stream every stored item of the magazine to the consumer, scanning with one worker per available processor.
+     *
+     * @param consumer Receives each MagazineData on the calling thread.
+     * @return Number of exported items.
+     */
+    public long export(final Consumer<MagazineData<T>> consumer) {
+        return export(consumer, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Stream every stored item of the magazine to the consumer, in no particular order.
+     *
+     * @param consumer Receives each MagazineData on the calling thread.
+     * @param parallelism Number of parallel scans over the storage.
+     * @return Number of exported items.
+     */
+    public long export(final Consumer<MagazineData<T>> consumer, final int parallelism) {
+        return baseMagazineStorage.export(magazineIdentifier, consumer, parallelism);
+    }
+
+    /**
+     * Close the underlying storage, writing out anything it buffers locally, such as accumulated counters.
+     */
+    @Override
+    public void close() {
+        baseMagazineStorage.close();
+    }
+
+    private void acquire(final RateLimitedOperation operation) {
+        if (Objects.nonNull(rateLimiter)) {
+            rateLimiter.acquire(magazineIdentifier, operation);
+        }
+    }
+
+    static Key shardsKey(final AerospikeStorage<?> storage,
+            final String magazineIdentifier) {
+        return new Key(storage.getNamespace(), storage.getMetaSetName(),
+                String.join(Constants.KEY_DELIMITER, magazineIdentifier, Constants.SHARDS_BIN));
+    }
+
+    // Shards may only grow, and an unsharded magazine stays unsharded
+    static void validateShards(final int storedShards,
+            final int shards) {
+        if (storedShards > shards) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.INVALID_SHARDS)
+                    .message("Cannot decrease shards of a magazine.")
+                    .build();
+        }
+        if (storedShards <= 1 && shards > 1) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.INVALID_SHARDS)
+                    .message("Cannot convert unsharded to sharded magazine.")
+                    .build();
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private void validateStorage(final BaseMagazineStorage<T> baseMagazineStorage)
             throws ExecutionException, RetryException {
@@ -122,10 +329,7 @@ public class Magazine<T> {
                                         storage.getAerospikeClient()
                                                 .get(storage.getAerospikeClient()
                                                                 .getReadPolicyDefault(),
-                                                        new Key(storage.getNamespace(),
-                                                                storage.getMetaSetName(),
-                                                                String.join(Constants.KEY_DELIMITER, magazineIdentifier,
-                                                                        Constants.SHARDS_BIN))));
+                                                        shardsKey(storage, magazineIdentifier)));
 
                         if (magazineRecord == null) {
                             final WritePolicy writePolicy = new WritePolicy(storage.getAerospikeClient()
@@ -136,29 +340,14 @@ public class Magazine<T> {
                                     .call(() -> {
                                         storage.getAerospikeClient()
                                                 .put(writePolicy,
-                                                        new Key(storage.getNamespace(),
-                                                                storage.getMetaSetName(),
-                                                                String.join(Constants.KEY_DELIMITER, magazineIdentifier,
-                                                                        Constants.SHARDS_BIN)),
+                                                        shardsKey(storage, magazineIdentifier),
                                                         new Bin(Constants.SHARDS_BIN, storage.getShards()));
                                         return null;
                                     });
                             return true;
                         }
 
-                        final int storedShards = magazineRecord.getInt(Constants.SHARDS_BIN);
-                        if (storedShards > storage.getShards()) {
-                            throw MagazineException.builder()
-                                    .errorCode(ErrorCode.INVALID_SHARDS)
-                                    .message("Cannot decrease shards of a magazine.")
-                                    .build();
-                        }
-                        if (storedShards <= 1 && storage.getShards() > 1) {
-                            throw MagazineException.builder()
-                                    .errorCode(ErrorCode.INVALID_SHARDS)
-                                    .message("Cannot convert unsharded to sharded magazine.")
-                                    .build();
-                        }
+                        validateShards(magazineRecord.getInt(Constants.SHARDS_BIN), storage.getShards());
 
                         return true;
                     }
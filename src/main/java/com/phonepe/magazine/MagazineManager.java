@@ -16,23 +16,60 @@
 
 package com.phonepe.magazine;
 
+import com.phonepe.magazine.common.MagazineData;
+import com.phonepe.magazine.core.DeficitRoundRobinScheduler;
 import com.phonepe.magazine.exception.ErrorCode;
 import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.ratelimit.MagazineRateLimiter;
+import com.phonepe.magazine.ratelimit.RateLimits;
 import lombok.Data;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Data
 public class MagazineManager {
 
     private final String clientId;
     private final Map<String, Magazine<?>> magazineMap = new HashMap<>();
+    private final DeficitRoundRobinScheduler fireScheduler = new DeficitRoundRobinScheduler();
+    private final MagazineRateLimiter sharedRateLimiter;
 
     public MagazineManager(final String clientId) {
+        this(clientId, null);
+    }
+
+    /**
+     * @param clientId   Client id.
+     * @param rateLimits Limits shared by every magazine built with a limiter from {@link #rateLimiter(RateLimits)}.
+     */
+    public MagazineManager(final String clientId, final RateLimits rateLimits) {
         this.clientId = clientId;
+        this.sharedRateLimiter = new MagazineRateLimiter(rateLimits);
+    }
+
+    /**
+     * Create a rate limiter for a magazine of this manager. Every permit is taken from both the magazine's own
+     * buckets and the manager-wide buckets, all refilled by the same clock.
+     *
+     * @param rateLimits Limits of the magazine, null to only be limited by the manager-wide limits.
+     * @return Limiter to pass to the magazine builder.
+     */
+    public MagazineRateLimiter rateLimiter(final RateLimits rateLimits) {
+        return sharedRateLimiter.child(rateLimits);
+    }
+
+    /**
+     * Builder registering many magazines at once, with batched storage validation and parallel cache warm-up.
+     *
+     * @return A new bulk builder for this manager.
+     */
+    public BulkMagazineBuilder bulkBuilder() {
+        return new BulkMagazineBuilder(this);
     }
 
     /**
@@ -62,4 +99,40 @@ public class MagazineManager {
         }
         return magazine;
     }
+
+    /**
+     * Fire from any one of the given magazines. Magazines that have nothing to fire, according to their cached
+     * active-shard state, are skipped; the rest are served by weighted deficit round-robin, so a magazine with weight
+     * 3 gets roughly three fires for every fire of a magazine with weight 1 while both have data.
+     *
+     * @param weights Map of magazine identifier to its positive weight. Magazines with non-positive weight are ignored.
+     * @return The MagazineData fired from the selected magazine.
+     */
+    public MagazineData<?> fireAny(final Map<String, Integer> weights) {
+        final List<String> candidates = weights.entrySet()
+                .stream()
+                .filter(entry -> Objects.nonNull(entry.getValue()) && entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .filter(magazineIdentifier -> getMagazine(magazineIdentifier).hasDataToFire())
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        while (!candidates.isEmpty()) {
+            final String magazineIdentifier = fireScheduler.next(candidates, weights);
+            try {
+                return getMagazine(magazineIdentifier).fire();
+            } catch (MagazineException e) {
+                if (e.getErrorCode() != ErrorCode.NOTHING_TO_FIRE) {
+                    throw e;
+                }
+                // Drained since the active-shard state was cached, move on to the next magazine
+                fireScheduler.reset(magazineIdentifier);
+                candidates.remove(magazineIdentifier);
+            }
+        }
+        throw MagazineException.builder()
+                .message(String.format("No data to fire in magazines %s", weights.keySet()))
+                .errorCode(ErrorCode.NOTHING_TO_FIRE)
+                .build();
+    }
 }
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.nio.file.Path;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportConfig {
+
+    @NotNull
+    private Path file;
+    @NotNull
+    @Builder.Default
+    private ImportFormat format = ImportFormat.NDJSON;
+    @Min(1)
+    @Builder.Default
+    private int batchSize = 500;
+    @Min(1)
+    @Builder.Default
+    private int maxInFlightBatches = 4;
+    // Progress is recorded here when set, and an existing checkpoint makes the import resume after it
+    private Path checkpointFile;
+    @Min(0)
+    private int csvColumn;
+    private boolean csvHeader;
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.bulk;
+
+import com.phonepe.magazine.core.BaseMagazineStorage;
+import com.phonepe.magazine.core.BatchLoadResult;
+import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.util.ErrorMessage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams a local file into a magazine. Lines are decoded on the calling thread and grouped into batches of
+ * consecutive lines, each bound to one shard in round-robin order. Every batch is written by the storage with a single
+ * pointer range reservation and one batch write, and at most {@code maxInFlightBatches} batches are outstanding, so
+ * reading overlaps writing without buffering the file.
+ *
+ * <p>The checkpoint is the last line of the longest prefix of completed batches. An interrupted import resumes after
+ * it, so batches that were in flight at the time may be loaded twice; enable dedupe on the magazine if that matters.
+ *
+ * @param <T> Payload type of the magazine.
+ */
+public class BulkImporter<T> {
+
+    private final BaseMagazineStorage<T> baseMagazineStorage;
+    private final String magazineIdentifier;
+    private final BulkImportConfig config;
+    private final RecordDecoder<T> decoder;
+
+    private final AtomicLong recordsImported = new AtomicLong();
+    private final AtomicLong duplicateRecords = new AtomicLong();
+    private final AtomicLong failedRecords = new AtomicLong();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private final TreeMap<Long, Long> completedBatches = new TreeMap<>();
+    private long nextBatchToCheckpoint;
+    private long checkpointedLine;
+
+    public BulkImporter(final BaseMagazineStorage<T> baseMagazineStorage,
+            final String magazineIdentifier,
+            final BulkImportConfig config) {
+        this.baseMagazineStorage = baseMagazineStorage;
+        this.magazineIdentifier = magazineIdentifier;
+        this.config = config;
+        this.decoder = new RecordDecoder<>(baseMagazineStorage.getClazz(), config.getFormat(), config.getCsvColumn());
+    }
+
+    public BulkImportReport run() {
+        final long startTime = System.nanoTime();
+        final long resumeAfterLine = readCheckpoint();
+        checkpointedLine = resumeAfterLine;
+
+        final int maxInFlightBatches = config.getMaxInFlightBatches();
+        final Semaphore inFlight = new Semaphore(maxInFlightBatches);
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(maxInFlightBatches, runnable -> {
+            final Thread thread = new Thread(runnable, "magazine-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long recordsRead = 0;
+        try (BufferedReader reader = Files.newBufferedReader(config.getFile(), StandardCharsets.UTF_8)) {
+            final int shards = baseMagazineStorage.getShards();
+            int shard = ThreadLocalRandom.current()
+                    .nextInt(shards);
+            long batchNumber = 0;
+            long lineNumber = 0;
+            List<T> batch = new ArrayList<>(config.getBatchSize());
+            String line;
+            while (Objects.isNull(failure.get()) && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= resumeAfterLine || (lineNumber == 1 && config.isCsvHeader()
+                        && config.getFormat() == ImportFormat.CSV) || line.isBlank()) {
+                    continue;
+                }
+                recordsRead++;
+                try {
+                    batch.add(decoder.decode(line));
+                } catch (IllegalArgumentException e) {
+                    failedRecords.incrementAndGet();
+                }
+                if (batch.size() >= config.getBatchSize()) {
+                    submit(executor, inFlight, batchNumber++, shard, batch, lineNumber);
+                    batch = new ArrayList<>(config.getBatchSize());
+                    shard = (shard + 1) % shards;
+                }
+            }
+            // Also flushes an empty batch, so lines of failed records after the last full batch are checkpointed
+            if (Objects.isNull(failure.get()) && lineNumber > resumeAfterLine) {
+                submit(executor, inFlight, batchNumber, shard, batch, lineNumber);
+            }
+            inFlight.acquire(maxInFlightBatches);
+        } catch (IOException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } finally {
+            executor.shutdown();
+        }
+        if (Objects.nonNull(failure.get())) {
+            throw MagazineException.propagate(String.format(ErrorMessage.ERROR_IMPORTING_DATA, magazineIdentifier),
+                    failure.get());
+        }
+
+        final long elapsedNanos = Math.max(1, System.nanoTime() - startTime);
+        return BulkImportReport.builder()
+                .recordsRead(recordsRead)
+                .recordsImported(recordsImported.get())
+                .duplicateRecords(duplicateRecords.get())
+                .failedRecords(failedRecords.get())
+                .resumedAfterLine(resumeAfterLine)
+                .checkpointedLine(getCheckpointedLine())
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .recordsPerSecond(recordsImported.get() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos)
+                .build();
+    }
+
+    private void submit(final ExecutorService executor,
+            final Semaphore inFlight,
+            final long batchNumber,
+            final int shard,
+            final List<T> batch,
+            final long lastLine) throws InterruptedException {
+        inFlight.acquire();
+        executor.execute(() -> {
+            try {
+                if (!batch.isEmpty()) {
+                    final BatchLoadResult result = baseMagazineStorage.loadBatch(magazineIdentifier, shard, batch);
+                    recordsImported.addAndGet(result.getLoaded());
+                    duplicateRecords.addAndGet(result.getDuplicates());
+                    failedRecords.addAndGet(result.getFailed());
+                }
+                batchCompleted(batchNumber, lastLine);
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    // Batches finish out of order, the checkpoint only moves over a gap-free prefix of them
+    private synchronized void batchCompleted(final long batchNumber,
+            final long lastLine) {
+        completedBatches.put(batchNumber, lastLine);
+        final long previousLine = checkpointedLine;
+        while (completedBatches.containsKey(nextBatchToCheckpoint)) {
+            checkpointedLine = completedBatches.remove(nextBatchToCheckpoint++);
+        }
+        if (checkpointedLine != previousLine) {
+            writeCheckpoint(checkpointedLine);
+        }
+    }
+
+    private synchronized long getCheckpointedLine() {
+        return checkpointedLine;
+    }
+
+    private long readCheckpoint() {
+        final Path checkpointFile = config.getCheckpointFile();
+        if (Objects.isNull(checkpointFile) || !Files.exists(checkpointFile)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8)
+                    .trim());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCheckpoint(final long line) {
+        final Path checkpointFile = config.getCheckpointFile();
+        if (Objects.isNull(checkpointFile)) {
+            return;
+        }
+        final Path temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try {
+            Files.writeString(temporaryFile, Long.toString(line), StandardCharsets.UTF_8);
+            Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.bulk;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public enum ImportFormat {
+    /**
+     * One JSON value per line, either the payload itself or an object carrying it in a {@code data} field.
+     */
+    NDJSON(ImportFormat.NDJSON_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitNdJson();
+        }
+    },
+    /**
+     * One record per line, the payload being one column. Fields may be quoted, but may not span lines.
+     */
+    CSV(ImportFormat.CSV_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitCsv();
+        }
+    };
+
+    public static final String NDJSON_TEXT = "NDJSON";
+    public static final String CSV_TEXT = "CSV";
+
+    @Getter
+    private final String value;
+
+    public abstract <T> T accept(Visitor<T> visitor);
+
+    public interface Visitor<T> {
+
+        T visitNdJson();
+
+        T visitCsv();
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.bulk;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.phonepe.magazine.common.Constants;
+import com.phonepe.magazine.exception.ErrorCode;
+import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.util.ErrorMessage;
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Decodes one line of an import file into the payload type of the magazine. Lines that cannot be decoded raise
+ * {@link IllegalArgumentException}, which the importer counts as a failed record.
+ *
+ * @param <T> Payload type of the magazine.
+ */
+public class RecordDecoder<T> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Map<Class<?>, Function<String, ?>> CONVERTERS = Map.of(
+            String.class, Function.identity(),
+            Long.class, Long::valueOf,
+            Integer.class, Integer::valueOf,
+            Double.class, Double::valueOf,
+            Boolean.class, RecordDecoder::parseBoolean
+    );
+
+    private final Class<T> clazz;
+    private final Function<String, ?> converter;
+    private final ImportFormat format;
+    private final int csvColumn;
+
+    public RecordDecoder(final Class<T> clazz,
+            final ImportFormat format,
+            final int csvColumn) {
+        this.clazz = clazz;
+        this.converter = CONVERTERS.get(clazz);
+        if (converter == null) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.DATA_TYPE_MISMATCH)
+                    .message(String.format(ErrorMessage.UNSUPPORTED_IMPORT_TYPE, clazz.getSimpleName()))
+                    .build();
+        }
+        this.format = format;
+        this.csvColumn = csvColumn;
+    }
+
+    public T decode(final String line) {
+        final String text = format.accept(new ImportFormat.Visitor<String>() {
+            @Override
+            public String visitNdJson() {
+                return jsonValue(line);
+            }
+
+            @Override
+            public String visitCsv() {
+                return csvField(line, csvColumn);
+            }
+        });
+        try {
+            return clazz.cast(converter.apply(text));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static String jsonValue(final String line) {
+        try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final boolean isData = Constants.DATA.equals(parser.getCurrentName());
+                    final JsonToken valueToken = parser.nextToken();
+                    if (isData) {
+                        token = valueToken;
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+            }
+            if (token == null || !token.isScalarValue() || token == JsonToken.VALUE_NULL) {
+                throw new IllegalArgumentException("No scalar payload in line");
+            }
+            return parser.getText();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    // RFC 4180 style: fields may be double-quoted, with "" standing for a quote inside a quoted field
+    private static String csvField(final String line,
+            final int column) {
+        final StringBuilder field = new StringBuilder();
+        int currentColumn = 0;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char character = line.charAt(i);
+            if (quoted) {
+                if (character == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (character == '"') {
+                    quoted = false;
+                } else {
+                    field.append(character);
+                }
+            } else if (character == '"') {
+                quoted = true;
+            } else if (character == ',') {
+                if (currentColumn == column) {
+                    return field.toString();
+                }
+                currentColumn++;
+                field.setLength(0);
+            } else {
+                field.append(character);
+            }
+        }
+        if (quoted || currentColumn != column) {
+            throw new IllegalArgumentException("Column " + column + " missing or unterminated");
+        }
+        return field.toString();
+    }
+
+    private static Boolean parseBoolean(final String text) {
+        if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+            return Boolean.valueOf(text);
+        }
+        throw new IllegalArgumentException("Not a boolean: " + text);
+    }
+}
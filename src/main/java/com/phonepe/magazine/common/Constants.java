@@ -25,14 +25,23 @@ import java.util.Set;
 public class Constants {
     public static final String DATA = "data";
     public static final String MODIFIED_AT = "modified_at";
+    public static final String ITEMS = "items";
+    public static final String APPENDED = "appended";
+    public static final String SEALED = "sealed";
+    public static final String CLAIM_TOKEN = "claim_token";
 
     public static final String POINTERS = "POINTERS";
     public static final String COUNTERS = "COUNTERS";
+    public static final String LEASES = "LEASES";
+    public static final String DELAYED = "DELAYED";
+    public static final String DELAY_BUCKETS = "DELAY_BUCKETS";
+    public static final String LIST_BUCKET = "LIST";
 
     public static final String LOAD_COUNTER = "LOAD_COUNTER";
     public static final String FIRE_COUNTER = "FIRE_COUNTER";
     public static final String LOAD_POINTER = "LOAD_POINTER";
     public static final String FIRE_POINTER = "FIRE_POINTER";
+    public static final String FIRE_BUCKET = "FIRE_BUCKET";
 
     public static final String KEY_DELIMITER = "_";
 
@@ -43,6 +52,14 @@ public class Constants {
 
     public static final int DEFAULT_REFRESH = 5;
     public static final int DEFAULT_MAX_ELEMENTS = 1024;
+    public static final int DEFAULT_PEEK_PAGE_SIZE = 500;
+    public static final int PEEK_BATCH_SIZE = 1000; // Keys per batch read of a pointer range
+    public static final int DEFAULT_EXPORT_QUEUE_SIZE = 1024;
+    public static final int DEFAULT_WARM_UP_PARALLELISM = 32;
+    public static final int DEFAULT_REFRESH_THREADS = 4;
+    public static final int DEFAULT_HEDGE_THREADS = 4;
+    public static final int DEFAULT_HEDGED_READ_THREADS = 64;
+    public static final int DEFAULT_SCHEDULER_THREADS = 4;
     public static final int MAX_RETRIES = 5;
     public static final long DELAY_BETWEEN_RETRIES = 10; //in milliseconds
     public static final int MIN_SHARDS = 1;
@@ -16,6 +16,7 @@
 
 package com.phonepe.magazine.common;
 
+import com.phonepe.magazine.util.CommonUtils;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -33,10 +34,13 @@ public class MagazineData<T> {
     private long firePointer;
     private Integer shard;
     private String magazineIdentifier;
+    private Long bucket; // Open time of the delay bucket the data was loaded into, null if loaded to fire right away
 
     public String createAerospikeKey() {
+        final String spaceIdentifier = CommonUtils.resolveSpaceIdentifier(magazineIdentifier, bucket);
         return Objects.nonNull(shard)
-                ? String.format("%s_%s_%d_%d", magazineIdentifier, Constants.SHARD_PREFIX, shard, firePointer)
-                : String.format("%s_%d", magazineIdentifier, firePointer);
+                ? spaceIdentifier + Constants.KEY_DELIMITER + Constants.SHARD_PREFIX + Constants.KEY_DELIMITER
+                + shard + Constants.KEY_DELIMITER + firePointer
+                : spaceIdentifier + Constants.KEY_DELIMITER + firePointer;
     }
 }
\ No newline at end of file
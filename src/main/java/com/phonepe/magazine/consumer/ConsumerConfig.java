@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.consumer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsumerConfig {
+
+    @Min(1)
+    @Builder.Default
+    private int workers = 16;
+    // Virtual threads are used when the runtime has them, platform threads otherwise
+    @Builder.Default
+    private boolean virtualThreads = true;
+    // Reloads of one item after handler failures, beyond this it goes to the dead letter handler
+    @Min(0)
+    @Builder.Default
+    private int maxRetries = 3;
+    @Min(1)
+    @Builder.Default
+    private long minIdleBackoffMillis = 10;
+    @Min(1)
+    @Builder.Default
+    private long maxIdleBackoffMillis = 1_000;
+    // Fired records are kept until TTL otherwise
+    @Builder.Default
+    private boolean deleteAfterHandling = true;
+    // Attempt counts are kept per consumer for this many items at most
+    @Min(1)
+    @Builder.Default
+    private int maxTrackedFailures = 100_000;
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.consumer;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ConsumerStats {
+
+    private final long processed;
+    private final long failed;
+    private final long reloaded;
+    private final long deadLettered;
+    private final long errors;
+    private final double throughputPerSecond;
+    private final double meanLatencyMillis;
+    private final double maxLatencyMillis;
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.consumer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.phonepe.magazine.Magazine;
+import com.phonepe.magazine.common.MagazineData;
+import com.phonepe.magazine.exception.ErrorCode;
+import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.util.ThreadUtils;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import lombok.Builder;
+
+/**
+ * Runs a pool of workers that fire from one magazine and pass each item to a handler. An item whose handler throws is
+ * reloaded, up to {@code maxRetries} times, and then handed to the dead letter handler. Attempts are counted in a
+ * bounded per-consumer cache, so an item re-fired by another process starts over.
+ *
+ * <p>Workers that find the magazine empty wait with exponential backoff. {@link #shutdown()} stops firing and lets
+ * in-progress items finish; {@link #awaitTermination(long, TimeUnit)} waits for that drain.
+ *
+ * @param <T> Type of data in the magazine.
+ */
+public class MagazineConsumer<T> implements AutoCloseable {
+
+    private final Magazine<T> magazine;
+    private final MagazineHandler<T> handler;
+    private final Consumer<MagazineData<T>> deadLetterHandler;
+    private final ConsumerConfig config;
+    private final Cache<T, Integer> failedAttempts;
+    private final ExecutorService executor;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CountDownLatch stopSignal = new CountDownLatch(1);
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder reloaded = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+    private volatile long startTimeNanos;
+
+    @Builder
+    public MagazineConsumer(final Magazine<T> magazine,
+            final MagazineHandler<T> handler,
+            final Consumer<MagazineData<T>> deadLetterHandler,
+            final ConsumerConfig config) {
+        this.magazine = Objects.requireNonNull(magazine);
+        this.handler = Objects.requireNonNull(handler);
+        this.deadLetterHandler = deadLetterHandler;
+        this.config = Objects.nonNull(config)
+                ? config
+                : ConsumerConfig.builder()
+                        .build();
+        this.failedAttempts = Caffeine.newBuilder()
+                .maximumSize(this.config.getMaxTrackedFailures())
+                .build();
+        final String threadPrefix = "magazine-consumer-" + magazine.getMagazineIdentifier() + "-";
+        final ThreadFactory threadFactory = this.config.isVirtualThreads()
+                ? ThreadUtils.virtualThreadFactory(threadPrefix)
+                : ThreadUtils.daemonThreadFactory(threadPrefix);
+        this.executor = Executors.newFixedThreadPool(this.config.getWorkers(), threadFactory);
+    }
+
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        startTimeNanos = System.nanoTime();
+        for (int i = 0; i < config.getWorkers(); i++) {
+            executor.execute(this::work);
+        }
+    }
+
+    /**
+     * Stop firing new items. Items already fired are still handled.
+     */
+    public void shutdown() {
+        stopSignal.countDown();
+        executor.shutdown();
+    }
+
+    /**
+     * @return True if every worker finished before the timeout.
+     */
+    public boolean awaitTermination(final long timeout,
+            final TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        shutdown();
+        awaitTermination(config.getMaxIdleBackoffMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    public ConsumerStats getStats() {
+        final long processedCount = processed.sum();
+        final long elapsedNanos = startTimeNanos == 0
+                ? 0
+                : System.nanoTime() - startTimeNanos;
+        final long handled = processedCount + failed.sum();
+        return ConsumerStats.builder()
+                .processed(processedCount)
+                .failed(failed.sum())
+                .reloaded(reloaded.sum())
+                .deadLettered(deadLettered.sum())
+                .errors(errors.sum())
+                .throughputPerSecond(elapsedNanos > 0
+                        ? processedCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos
+                        : 0)
+                .meanLatencyMillis(handled > 0
+                        ? totalLatencyNanos.sum() / (double) handled / TimeUnit.MILLISECONDS.toNanos(1)
+                        : 0)
+                .maxLatencyMillis(maxLatencyNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1))
+                .build();
+    }
+
+    private void work() {
+        long backoffMillis = config.getMinIdleBackoffMillis();
+        while (stopSignal.getCount() > 0) {
+            final MagazineData<T> magazineData;
+            try {
+                magazineData = magazine.fire();
+                backoffMillis = config.getMinIdleBackoffMillis();
+            } catch (MagazineException e) {
+                if (e.getErrorCode() != ErrorCode.NOTHING_TO_FIRE) {
+                    errors.increment();
+                }
+                if (!idle(backoffMillis)) {
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, config.getMaxIdleBackoffMillis());
+                continue;
+            }
+            handle(magazineData);
+        }
+    }
+
+    private void handle(final MagazineData<T> magazineData) {
+        final long startNanos = System.nanoTime();
+        try {
+            handler.handle(magazineData);
+            recordLatency(startNanos);
+            processed.increment();
+            failedAttempts.invalidate(magazineData.getData());
+        } catch (Exception e) {
+            recordLatency(startNanos);
+            failed.increment();
+            if (!retryOrDeadLetter(magazineData)) {
+                return;
+            }
+        }
+        try {
+            magazine.ack(magazineData);
+            if (config.isDeleteAfterHandling()) {
+                magazine.delete(magazineData);
+            }
+        } catch (Exception e) {
+            errors.increment();
+        }
+    }
+
+    // Returns false if the item could not be put back. The fired record is then kept, and with leases enabled it is
+    // offered again once its lease expires.
+    private boolean retryOrDeadLetter(final MagazineData<T> magazineData) {
+        final int attempts = failedAttempts.asMap()
+                .merge(magazineData.getData(), 1, Integer::sum);
+        try {
+            if (attempts <= config.getMaxRetries()) {
+                magazine.reload(magazineData.getData());
+                reloaded.increment();
+            } else {
+                failedAttempts.invalidate(magazineData.getData());
+                deadLettered.increment();
+                if (Objects.nonNull(deadLetterHandler)) {
+                    deadLetterHandler.accept(magazineData);
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            errors.increment();
+            return false;
+        }
+    }
+
+    private void recordLatency(final long startNanos) {
+        final long latencyNanos = System.nanoTime() - startNanos;
+        totalLatencyNanos.add(latencyNanos);
+        maxLatencyNanos.accumulate(latencyNanos);
+    }
+
+    // Returns false if the consumer was shut down while waiting
+    private boolean idle(final long backoffMillis) {
+        try {
+            return !stopSignal.await(backoffMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
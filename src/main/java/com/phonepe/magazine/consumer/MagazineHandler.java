@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.consumer;
+
+import com.phonepe.magazine.common.MagazineData;
+
+/**
+ * Processes one fired item. Throwing marks the item as failed, and the consumer reloads it for another attempt.
+ *
+ * @param <T> Type of data in the magazine.
+ */
+@FunctionalInterface
+public interface MagazineHandler<T> {
+
+    void handle(MagazineData<T> magazineData) throws Exception;
+}
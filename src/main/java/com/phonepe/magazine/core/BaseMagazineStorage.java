@@ -21,8 +21,12 @@ import com.phonepe.magazine.common.MagazineData;
 import com.phonepe.magazine.common.MetaData;
 import com.phonepe.magazine.scope.MagazineScope;
 import com.phonepe.magazine.util.CommonUtils;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -30,7 +34,7 @@ import lombok.ToString;
 @Getter
 @EqualsAndHashCode
 @ToString
-public abstract class BaseMagazineStorage<T> {
+public abstract class BaseMagazineStorage<T> implements AutoCloseable {
 
     private final StorageType type;
     private final int recordTtl;
@@ -76,6 +80,21 @@ public abstract class BaseMagazineStorage<T> {
             final T data
     );
 
+    /**
+     * Load data into the specified magazine that must not be fired before the given time. Data whose time has
+     * already come is loaded like {@link #load(String, Object)}.
+     *
+     * @param magazineIdentifier The identifier of the magazine to load data into.
+     * @param data The data to be loaded.
+     * @param notBefore Earliest time the data may be fired, null to fire it right away.
+     * @return True if the data was successfully loaded, false otherwise.
+     */
+    public abstract boolean load(
+            final String magazineIdentifier,
+            final T data,
+            final Instant notBefore
+    );
+
     /**
      * Reload data into the specified magazine. This won't increase the load counter as the data was already loaded,
      * but load pointer will be incremented as the data will appended at the end.
@@ -97,6 +116,39 @@ public abstract class BaseMagazineStorage<T> {
      */
     public abstract MagazineData<T> fire(final String magazineIdentifier);
 
+    /**
+     * Acknowledge fired data, releasing its lease so it is not offered again. A no-op when leases are disabled.
+     *
+     * @param magazineIdentifier The identifier of the magazine the data was fired from.
+     * @param magazineData The fired data.
+     */
+    public abstract void ack(
+            final String magazineIdentifier,
+            final MagazineData<T> magazineData
+    );
+
+    /**
+     * Fire up to maxItems data from one shard in a single claim. Unlike {@link #fire(String)}, an empty magazine is
+     * reported with an empty list rather than an exception.
+     *
+     * @param magazineIdentifier The identifier of the magazine to fire data from.
+     * @param maxItems Maximum number of data to fire.
+     * @return The fired data, empty if there was nothing to fire.
+     */
+    public abstract List<MagazineData<T>> fireBatch(
+            final String magazineIdentifier,
+            final int maxItems
+    );
+
+    /**
+     * Check whether the specified magazine has anything to fire, based on cached shard state. The answer may be
+     * stale by up to one cache refresh interval, so a fire can still find the magazine empty.
+     *
+     * @param magazineIdentifier The identifier of the magazine to check.
+     * @return True if at least one shard of the magazine has unfired data, false otherwise.
+     */
+    public abstract boolean hasDataToFire(final String magazineIdentifier);
+
     /**
      * Retrieve metadata of the specified magazine i.e the number of loaded or fired, pointers and counters.
      *
@@ -123,4 +175,77 @@ public abstract class BaseMagazineStorage<T> {
             final String magazineIdentifier,
             final Map<Integer, Set<Long>> shardPointersMap
     );
+
+    /**
+     * Peek data from a contiguous range of pointers of one shard within the magazine. Large ranges are read in several
+     * batches. Fails with INVALID_SHARDS if the shard does not exist, or is null for a sharded magazine.
+     *
+     * @param magazineIdentifier The identifier of the magazine to peek from.
+     * @param shard The shard to peek from, null for an unsharded magazine.
+     * @param fromPointer First pointer of the range, inclusive.
+     * @param toPointer Last pointer of the range, inclusive.
+     * @return MagazineData present in the range, in pointer order. Missing pointers are skipped.
+     */
+    public abstract List<MagazineData<T>> peekRange(
+            final String magazineIdentifier,
+            final Integer shard,
+            final long fromPointer,
+            final long toPointer
+    );
+
+    /**
+     * Iterate lazily over every unfired item of the magazine, shard by shard, from each shard's fire pointer to its
+     * load pointer. Items are fetched in pages with {@link #peekRange}, so memory stays bounded by the page size.
+     *
+     * @param magazineIdentifier The identifier of the magazine to iterate over.
+     * @param pageSize Maximum number of pointers fetched in one batch.
+     * @return An iterator over unfired MagazineData.
+     */
+    public Iterator<MagazineData<T>> unfiredIterator(
+            final String magazineIdentifier,
+            final int pageSize) {
+        return new UnfiredDataIterator<>(this, magazineIdentifier, pageSize);
+    }
+
+    /**
+     * Load a batch of data into one shard with a single pointer range reservation. Data rejected by dedupe is counted
+     * as duplicates, data whose write failed is counted as failed and leaves an empty pointer behind.
+     *
+     * @param magazineIdentifier The identifier of the magazine to load data into.
+     * @param shard The shard to load the batch into, 0 for an unsharded magazine.
+     * @param data The data to be loaded.
+     * @return Counts of loaded, duplicate and failed data.
+     */
+    public abstract BatchLoadResult loadBatch(
+            final String magazineIdentifier,
+            final int shard,
+            final List<T> data
+    );
+
+    /**
+     * @return The payload type of the magazine.
+     */
+    public abstract Class<T> getClazz();
+
+    /**
+     * Stream every item still stored for the magazine to the consumer, in no particular order. Fired items stay in
+     * storage until they are deleted or expire, so they are exported too.
+     *
+     * @param magazineIdentifier The identifier of the magazine to export.
+     * @param consumer Receives each MagazineData on the calling thread.
+     * @param parallelism Number of parallel scans over the storage.
+     * @return Number of exported items.
+     */
+    public abstract long export(
+            final String magazineIdentifier,
+            final Consumer<MagazineData<T>> consumer,
+            final int parallelism
+    );
+
+    /**
+     * Release resources held by the storage, writing out anything buffered locally. Does nothing by default.
+     */
+    @Override
+    public void close() {
+    }
 }
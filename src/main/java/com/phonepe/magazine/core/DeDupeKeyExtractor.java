@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.core;
+
+/**
+ * Extracts the identity of a payload for deduplication. Two payloads are duplicates if their identity bytes are
+ * equal, so the extractor should cover only the fields that define identity (e.g. an id), not the whole object.
+ *
+ * @param <T> Type of data in the magazine.
+ */
+@FunctionalInterface
+public interface DeDupeKeyExtractor<T> {
+
+    byte[] extract(T data);
+}
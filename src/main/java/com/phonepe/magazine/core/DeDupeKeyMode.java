@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.core;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public enum DeDupeKeyMode {
+    /**
+     * Dedupe key is the magazine identifier followed by {@code toString()} of the data. Only meaningful for types
+     * with a stable, unique string form such as {@link com.phonepe.magazine.common.Constants#DEDUPABLE_CLASSES}.
+     */
+    TO_STRING(DeDupeKeyMode.TO_STRING_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitToString();
+        }
+    },
+    /**
+     * Dedupe key is a 128-bit hash of the magazine identifier and the identity bytes of the data, so keys are fixed
+     * size and cheap to compute for payloads of any type and size.
+     */
+    HASH(DeDupeKeyMode.HASH_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitHash();
+        }
+    };
+
+    public static final String TO_STRING_TEXT = "TO_STRING";
+    public static final String HASH_TEXT = "HASH";
+
+    @Getter
+    private final String value;
+
+    public abstract <T> T accept(Visitor<T> visitor);
+
+    public interface Visitor<T> {
+
+        T visitToString();
+
+        T visitHash();
+    }
+}
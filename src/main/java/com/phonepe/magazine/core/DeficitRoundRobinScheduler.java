@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Weighted deficit round-robin over magazine identifiers. Every time the round-robin cursor reaches a magazine, its
+ * deficit is credited with its weight, and the magazine is then picked until the deficit is spent. Magazines that are
+ * not offered as candidates (i.e. have nothing to fire) lose their accumulated deficit, as in classic DRR.
+ */
+public class DeficitRoundRobinScheduler {
+
+    private final Map<String, Long> deficits = new HashMap<>();
+    private String current;
+    private int cursor; // Position of the current magazine in the candidates it was picked from
+
+    /**
+     * Pick the next magazine to fire from.
+     *
+     * @param candidates Identifiers of magazines that currently have data to fire, in a stable order.
+     * @param weights Positive weight of every candidate.
+     * @return The identifier of the selected magazine.
+     */
+    public synchronized String next(final List<String> candidates,
+            final Map<String, Integer> weights) {
+        deficits.keySet()
+                .retainAll(candidates);
+        int index = Objects.nonNull(current)
+                ? candidates.indexOf(current)
+                : -1;
+        if (index < 0) {
+            // The magazine at the cursor is not a candidate any more, carry on from the same position instead of
+            // starting over, which would favour the first candidates
+            index = cursor % candidates.size();
+        }
+        final String candidate = candidates.get(index);
+
+        // Credit the weight only when the cursor arrives at a magazine whose deficit is spent
+        long deficit = deficits.getOrDefault(candidate, 0L);
+        if (deficit < 1) {
+            deficit += weights.get(candidate);
+        }
+        deficits.put(candidate, deficit - 1);
+        cursor = deficit > 1
+                ? index
+                : (index + 1) % candidates.size();
+        current = candidates.get(cursor);
+        return candidate;
+    }
+
+    /**
+     * Forget the accumulated deficit of a magazine, used when it turned out to be empty.
+     *
+     * @param magazineIdentifier The identifier of the magazine.
+     */
+    public synchronized void reset(final String magazineIdentifier) {
+        deficits.remove(magazineIdentifier);
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.core;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public enum FireOrder {
+    /**
+     * Fire from a random active shard. Items of one shard come out in load order, across shards in no order.
+     */
+    RANDOM(FireOrder.RANDOM_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitRandom();
+        }
+    },
+    /**
+     * Fire from the older head of two random active shards, judged by the load time of each shard's next item as of
+     * the last active shard refresh. Old items are served first without every fire landing on one shard.
+     */
+    APPROXIMATE_FIFO(FireOrder.APPROXIMATE_FIFO_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitApproximateFifo();
+        }
+    };
+
+    public static final String RANDOM_TEXT = "RANDOM";
+    public static final String APPROXIMATE_FIFO_TEXT = "APPROXIMATE_FIFO";
+
+    @Getter
+    private final String value;
+
+    public abstract <T> T accept(Visitor<T> visitor);
+
+    public interface Visitor<T> {
+
+        T visitRandom();
+
+        T visitApproximateFifo();
+    }
+}
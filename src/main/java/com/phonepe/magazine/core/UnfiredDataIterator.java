@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.core;
+
+import com.phonepe.magazine.common.Constants;
+import com.phonepe.magazine.common.MagazineData;
+import com.phonepe.magazine.common.MetaData;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Lazily paged iterator over the unfired items of a magazine, i.e. pointers in {@code (FIRE_POINTER, LOAD_POINTER]}
+ * of every shard. Pointer bounds are taken from one metadata snapshot at creation; pages are then fetched with
+ * {@link BaseMagazineStorage#peekRange} on demand, so at most one page is held in memory. Items fired or expired
+ * while iterating are skipped.
+ *
+ * @param <T> Type of data in the magazine.
+ */
+public class UnfiredDataIterator<T> implements Iterator<MagazineData<T>> {
+
+    private final BaseMagazineStorage<T> storage;
+    private final String magazineIdentifier;
+    private final int pageSize;
+    private final Map<String, MetaData> metaData;
+    private final Deque<MagazineData<T>> page = new ArrayDeque<>();
+    private int shard;
+    private long nextPointer;
+    private long lastPointer;
+
+    public UnfiredDataIterator(final BaseMagazineStorage<T> storage,
+            final String magazineIdentifier,
+            final int pageSize) {
+        this.storage = storage;
+        this.magazineIdentifier = magazineIdentifier;
+        this.pageSize = Math.max(pageSize, 1);
+        this.metaData = storage.getMetaData(magazineIdentifier);
+        this.shard = -1;
+        this.nextPointer = 1;
+        this.lastPointer = 0;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (page.isEmpty()) {
+            if (nextPointer > lastPointer && !advanceShard()) {
+                return false;
+            }
+            final long toPointer = Math.min(lastPointer, nextPointer + pageSize - 1);
+            page.addAll(storage.peekRange(magazineIdentifier,
+                    storage.getShards() > 1
+                            ? shard
+                            : null,
+                    nextPointer,
+                    toPointer));
+            nextPointer = toPointer + 1;
+        }
+        return true;
+    }
+
+    @Override
+    public MagazineData<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.poll();
+    }
+
+    // Move to the next shard that has unfired pointers, false if there is none
+    private boolean advanceShard() {
+        while (++shard < storage.getShards()) {
+            final MetaData shardMetaData = metaData.get(
+                    String.join(Constants.KEY_DELIMITER, Constants.SHARD_PREFIX, String.valueOf(shard)));
+            if (Objects.nonNull(shardMetaData) && shardMetaData.getLoadPointer() > shardMetaData.getFirePointer()) {
+                nextPointer = shardMetaData.getFirePointer() + 1;
+                lastPointer = shardMetaData.getLoadPointer();
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -26,5 +26,10 @@ public enum ErrorCode {
     ACTION_DENIED_PARALLEL_ATTEMPT,
     NOT_IMPLEMENTED,
     INVALID_SHARDS,
-    DATA_TYPE_MISMATCH
+    DATA_TYPE_MISMATCH,
+    RATE_LIMITED,
+    INVALID_SCOPE,
+    DELAYED_DELIVERY_DISABLED,
+    TOO_MANY_DELAY_BUCKETS,
+    INVALID_CONFIG
 }
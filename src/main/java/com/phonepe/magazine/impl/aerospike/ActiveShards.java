@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import java.util.Objects;
+
+/**
+ * Active shards of a magazine as of one refresh, with the load time of each shard's next item when fire order
+ * needs it. Head times are only raised after a refresh, by the fires of this process, so they stay lower bounds.
+ */
+class ActiveShards {
+
+    static final ActiveShards NONE = new ActiveShards(new int[0], null);
+
+    private final int[] shards;
+    private final long[] headModifiedAt; // Aligned with shards, null when head times are not tracked
+
+    ActiveShards(final int[] shards,
+            final long[] headModifiedAt) {
+        this.shards = shards;
+        this.headModifiedAt = headModifiedAt;
+    }
+
+    int[] shards() {
+        return shards;
+    }
+
+    boolean hasHeads() {
+        return Objects.nonNull(headModifiedAt);
+    }
+
+    long headModifiedAt(final int index) {
+        return headModifiedAt[index];
+    }
+
+    // Racy by design, a lost update only leaves the head looking older until the next refresh
+    void advanceHead(final int shard,
+            final long modifiedAt) {
+        if (Objects.isNull(headModifiedAt)) {
+            return;
+        }
+        for (int i = 0; i < shards.length; i++) {
+            if (shards[i] == shard) {
+                headModifiedAt[i] = Math.max(headModifiedAt[i], modifiedAt);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ActiveShardsRefreshConfig {
+
+    @Min(1)
+    @Builder.Default
+    private long refreshIntervalMillis = 5_000;
+    // Magazines nobody asked for active shards within this time are not refreshed until they are asked again
+    @Min(1)
+    @Builder.Default
+    private long idleTimeoutMillis = 60_000;
+    // Tracked magazines, the least recently used beyond it are dropped
+    @Min(1)
+    @Builder.Default
+    private int capacity = 100_000;
+    // Keys per batch read, each magazine takes two per shard
+    @Min(2)
+    @Builder.Default
+    private int maxKeysPerBatch = 5_000;
+}
@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.policy.BatchPolicy;
+import com.github.rholder.retry.RetryException;
+import com.phonepe.magazine.common.Constants;
+import com.phonepe.magazine.jfr.ActiveShardsRefreshEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks the active shards of every magazine of a {@link MagazineRuntime}. Each refresh interval, the pointer and
+ * counter records of all magazines asked for recently are read together, in batches of up to maxKeysPerBatch keys
+ * run on the refresh executor, instead of two batch reads per magazine. Idle magazines are not refreshed until they
+ * are asked for again. A magazine asked for the first time is loaded right away. For magazines fired in
+ * approximate-FIFO order, the load time of each active shard's next item is read too, in one more batch read.
+ * <p>
+ * Memory per tracked magazine, estimated from the object layout of a 64-bit JVM with compressed oops, is about 110
+ * bytes plus 4 bytes per active shard, 12 with head times: the map node, the entry, and the arrays of active shards
+ * and head times. The keys it reads are the MagazineKeys the storage keeps anyway, about 560 bytes per shard.
+ */
+class ActiveShardsRefresher {
+
+    private final IAerospikeClient aerospikeClient;
+    private final AerospikeRetryerFactory<Object> retryerFactory;
+    private final ExecutorService executor;
+    private final long refreshIntervalNanos;
+    private final long idleTimeoutNanos;
+    private final int capacity;
+    private final int maxKeysPerBatch;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<CounterAccumulator> counterAccumulators = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean ticking = new AtomicBoolean();
+
+    ActiveShardsRefresher(final IAerospikeClient aerospikeClient,
+            final AerospikeRetryerFactory<Object> retryerFactory,
+            final ScheduledExecutorService scheduler,
+            final ExecutorService executor,
+            final ActiveShardsRefreshConfig config) {
+        this.aerospikeClient = aerospikeClient;
+        this.retryerFactory = retryerFactory;
+        this.executor = executor;
+        this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getRefreshIntervalMillis());
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+        this.capacity = config.getCapacity();
+        this.maxKeysPerBatch = config.getMaxKeysPerBatch();
+        scheduler.scheduleWithFixedDelay(this::tick, config.getRefreshIntervalMillis(),
+                config.getRefreshIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param keys        Keys of the magazine.
+     * @param batchPolicy Policy of the batch reads of the magazine's records.
+     * @param trackHeads  Whether the load time of each active shard's next item is needed.
+     * @return Shards having both unfired pointers and unfired counts, as of the last refresh.
+     */
+    ActiveShards activeShards(final MagazineKeys keys,
+            final BatchPolicy batchPolicy,
+            final boolean trackHeads) throws ExecutionException, RetryException {
+        final Entry entry = entries.computeIfAbsent(keys.pointerKey(0), key -> new Entry(keys, batchPolicy));
+        final long now = System.nanoTime();
+        entry.lastAccessNanos = now;
+        if (trackHeads && !entry.trackHeads) {
+            entry.trackHeads = true;
+            entry.activeShards = null;
+        }
+        final ActiveShards activeShards = entry.activeShards;
+        if (Objects.isNull(activeShards)) {
+            synchronized (entry) {
+                if (Objects.isNull(entry.activeShards)) {
+                    flushCounters(List.of(entry));
+                    refresh(List.of(entry));
+                }
+            }
+            return entry.activeShards;
+        }
+        // Skipped while idle, refreshed in the background instead of waiting for the next interval
+        if (now - entry.refreshedAtNanos > 2 * refreshIntervalNanos) {
+            submit(List.of(entry), true);
+        }
+        return activeShards;
+    }
+
+    long refreshIntervalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(refreshIntervalNanos);
+    }
+
+    // Counter updates buffered locally are written before refreshing, or freshly loaded shards would look drained.
+    // A tick writes all of them once, a refresh outside the tick writes those of its own magazines.
+    void register(final CounterAccumulator counterAccumulator) {
+        counterAccumulators.add(counterAccumulator);
+    }
+
+    void unregister(final CounterAccumulator counterAccumulator) {
+        counterAccumulators.remove(counterAccumulator);
+    }
+
+    private void tick() {
+        if (!ticking.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            counterAccumulators.forEach(CounterAccumulator::flushQuietly);
+            final long now = System.nanoTime();
+            if (entries.size() > capacity) {
+                evictLeastRecentlyUsed();
+            }
+            // Grouped by batch policy, so that a batch read uses the policy of all magazines in it
+            final Map<BatchPolicy, List<Entry>> byPolicy = new IdentityHashMap<>();
+            for (Entry entry : entries.values()) {
+                if (now - entry.lastAccessNanos <= idleTimeoutNanos && Objects.nonNull(entry.activeShards)) {
+                    byPolicy.computeIfAbsent(entry.batchPolicy, policy -> new ArrayList<>()).add(entry);
+                }
+            }
+            for (List<Entry> policyEntries : byPolicy.values()) {
+                List<Entry> batch = new ArrayList<>();
+                int batchKeys = 0;
+                for (Entry entry : policyEntries) {
+                    final int entryKeys = 2 * entry.keys.getPointerKeys().length;
+                    if (!batch.isEmpty() && batchKeys + entryKeys > maxKeysPerBatch) {
+                        submit(batch, false);
+                        batch = new ArrayList<>();
+                        batchKeys = 0;
+                    }
+                    batch.add(entry);
+                    batchKeys += entryKeys;
+                }
+                if (!batch.isEmpty()) {
+                    submit(batch, false);
+                }
+            }
+        } finally {
+            ticking.set(false);
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        entries.values()
+                .stream()
+                .sorted(Comparator.comparingLong(entry -> entry.lastAccessNanos))
+                .limit(Math.max(0, entries.size() - capacity))
+                .toList()
+                .forEach(entry -> entries.remove(entry.keys.pointerKey(0), entry));
+    }
+
+    // Entries already being refreshed are left out, a slow batch is not queued twice
+    private void submit(final List<Entry> candidates,
+            final boolean flushFirst) {
+        final List<Entry> batch = new ArrayList<>(candidates.size());
+        for (Entry entry : candidates) {
+            if (entry.refreshing.compareAndSet(false, true)) {
+                batch.add(entry);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if (flushFirst) {
+                        flushCounters(batch);
+                    }
+                    refresh(batch);
+                } catch (Exception e) {
+                    // Stale state is kept, the next interval tries again
+                } finally {
+                    batch.forEach(entry -> entry.refreshing.set(false));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            batch.forEach(entry -> entry.refreshing.set(false));
+        }
+    }
+
+    private void flushCounters(final List<Entry> batch) {
+        if (counterAccumulators.isEmpty()) {
+            return;
+        }
+        final List<Key> spaceKeys = batch.stream()
+                .map(entry -> entry.keys.pointerKey(0))
+                .toList();
+        counterAccumulators.forEach(counterAccumulator -> counterAccumulator.flushQuietly(spaceKeys));
+    }
+
+    private void refresh(final List<Entry> batch) throws ExecutionException, RetryException {
+        final ActiveShardsRefreshEvent event = new ActiveShardsRefreshEvent();
+        event.begin();
+        final int calls = ClientCalls.mark();
+        try {
+            refresh(batch, event);
+        } finally {
+            if (event.shouldCommit()) {
+                event.setRoundTrips(ClientCalls.since(calls));
+                event.commit();
+            }
+        }
+    }
+
+    private void refresh(final List<Entry> batch,
+            final ActiveShardsRefreshEvent event) throws ExecutionException, RetryException {
+        int keyCount = 0;
+        for (Entry entry : batch) {
+            keyCount += 2 * entry.keys.getPointerKeys().length;
+        }
+        final Key[] keys = new Key[keyCount];
+        int offset = 0;
+        for (Entry entry : batch) {
+            final int shards = entry.keys.getPointerKeys().length;
+            System.arraycopy(entry.keys.getCounterKeys(), 0, keys, offset, shards);
+            System.arraycopy(entry.keys.getPointerKeys(), 0, keys, offset + shards, shards);
+            offset += 2 * shards;
+        }
+        final BatchPolicy batchPolicy = batch.get(0).batchPolicy;
+        final Record[] records = retryerFactory.call(() -> aerospikeClient.get(batchPolicy, keys,
+                Constants.LOAD_COUNTER, Constants.FIRE_COUNTER, Constants.LOAD_POINTER, Constants.FIRE_POINTER));
+        event.setMagazines(batch.size());
+        event.setKeys(keyCount);
+
+        final int[][] activeShards = new int[batch.size()][];
+        final List<Key> headKeys = new ArrayList<>();
+        offset = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            final Entry entry = batch.get(i);
+            final int shards = entry.keys.getPointerKeys().length;
+            final int[] active = new int[shards];
+            int count = 0;
+            for (int shard = 0; shard < shards; shard++) {
+                final Record counterRecord = records[offset + shard];
+                final Record pointerRecord = records[offset + shards + shard];
+                if (getLong(counterRecord, Constants.LOAD_COUNTER)
+                        > getLong(counterRecord, Constants.FIRE_COUNTER)
+                        && getLong(pointerRecord, Constants.LOAD_POINTER)
+                        > getLong(pointerRecord, Constants.FIRE_POINTER)) {
+                    active[count++] = shard;
+                    if (entry.trackHeads) {
+                        headKeys.add(entry.keys.dataKey(shard, getLong(pointerRecord, Constants.FIRE_POINTER) + 1));
+                    }
+                }
+            }
+            activeShards[i] = Arrays.copyOf(active, count);
+            offset += 2 * shards;
+        }
+        final Record[] headRecords = headKeys.isEmpty()
+                ? new Record[0]
+                : retryerFactory.call(() -> aerospikeClient.get(batchPolicy, headKeys.toArray(new Key[0]),
+                        Constants.MODIFIED_AT));
+        event.setKeys(keyCount + headKeys.size());
+
+        final long now = System.nanoTime();
+        int headOffset = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            final Entry entry = batch.get(i);
+            long[] heads = null;
+            if (entry.trackHeads) {
+                heads = new long[activeShards[i].length];
+                // A missing head has expired or was never written, so it counts as the oldest
+                for (int j = 0; j < heads.length; j++) {
+                    heads[j] = getLong(headRecords[headOffset + j], Constants.MODIFIED_AT);
+                }
+                headOffset += heads.length;
+            }
+            entry.activeShards = activeShards[i].length > 0 || entry.trackHeads
+                    ? new ActiveShards(activeShards[i], heads)
+                    : ActiveShards.NONE;
+            entry.refreshedAtNanos = now;
+        }
+    }
+
+    private static long getLong(final Record record,
+            final String bin) {
+        return Objects.nonNull(record)
+                ? record.getLong(bin)
+                : 0L;
+    }
+
+    private static final class Entry {
+
+        private final MagazineKeys keys;
+        private final BatchPolicy batchPolicy;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile ActiveShards activeShards; // Null until first loaded
+        private volatile boolean trackHeads;
+        private volatile long lastAccessNanos;
+        private volatile long refreshedAtNanos;
+
+        private Entry(final MagazineKeys keys,
+                final BatchPolicy batchPolicy) {
+            this.keys = keys;
+            this.batchPolicy = batchPolicy;
+        }
+    }
+}
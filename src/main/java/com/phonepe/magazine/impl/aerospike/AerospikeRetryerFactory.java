@@ -18,12 +18,15 @@ package com.phonepe.magazine.impl.aerospike;
 
 import com.aerospike.client.AerospikeException;
 import com.github.rholder.retry.BlockStrategies;
+import com.github.rholder.retry.RetryException;
 import com.github.rholder.retry.Retryer;
 import com.github.rholder.retry.RetryerBuilder;
 import com.github.rholder.retry.StopStrategies;
 import com.github.rholder.retry.WaitStrategies;
 import com.phonepe.magazine.common.Constants;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 
@@ -31,6 +34,7 @@ import lombok.Getter;
 public class AerospikeRetryerFactory<T> {
 
     private final Retryer<T> retryer;
+    private final Retryer<T> retryerAfterFailure; // For calls whose first attempt was already made outside a retryer
     private final Retryer<Object> fireRetryer;
 
     public AerospikeRetryerFactory() {
@@ -40,6 +44,12 @@ public class AerospikeRetryerFactory<T> {
                 .withWaitStrategy(WaitStrategies.fixedWait(Constants.DELAY_BETWEEN_RETRIES, TimeUnit.MILLISECONDS))
                 .withBlockStrategy(BlockStrategies.threadSleepStrategy())
                 .build();
+        retryerAfterFailure = RetryerBuilder.<T>newBuilder()
+                .retryIfExceptionOfType(AerospikeException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(Constants.MAX_RETRIES - 1))
+                .withWaitStrategy(WaitStrategies.fixedWait(Constants.DELAY_BETWEEN_RETRIES, TimeUnit.MILLISECONDS))
+                .withBlockStrategy(BlockStrategies.threadSleepStrategy())
+                .build();
         fireRetryer = RetryerBuilder.newBuilder()
                 .retryIfExceptionOfType(AerospikeException.class)
                 .retryIfResult(Objects::isNull)
@@ -48,4 +58,35 @@ public class AerospikeRetryerFactory<T> {
                 .withBlockStrategy(BlockStrategies.threadSleepStrategy())
                 .build();
     }
+
+    /**
+     * Makes the first attempt of a client call right away and engages {@link #getRetryerAfterFailure()} only if it
+     * fails, so that a call going through on the first attempt allocates nothing for retrying. Every attempt counts
+     * as a client call of the current thread.
+     */
+    public <R> R call(final Callable<R> callable) throws ExecutionException, RetryException {
+        return call(callable, callable);
+    }
+
+    /**
+     * @param first Callable of the first attempt.
+     * @param retry Callable of the attempts after the first one failed.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R call(final Callable<R> first,
+            final Callable<R> retry) throws ExecutionException, RetryException {
+        try {
+            ClientCalls.count();
+            return first.call();
+        } catch (AerospikeException e) {
+            return (R) retryerAfterFailure.call(() -> {
+                ClientCalls.count();
+                return (T) retry.call();
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+    }
 }
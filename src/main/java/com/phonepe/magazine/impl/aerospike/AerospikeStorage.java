@@ -16,43 +16,81 @@
 
 package com.phonepe.magazine.impl.aerospike;
 
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchWrite;
 import com.aerospike.client.Bin;
 import com.aerospike.client.IAerospikeClient;
 import com.aerospike.client.Key;
 import com.aerospike.client.Operation;
 import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.Value;
+import com.aerospike.client.cdt.MapOperation;
+import com.aerospike.client.cdt.MapOrder;
+import com.aerospike.client.cdt.MapPolicy;
+import com.aerospike.client.cdt.MapReturnType;
+import com.aerospike.client.cdt.MapWriteFlags;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.aerospike.client.policy.GenerationPolicy;
+import com.aerospike.client.policy.Policy;
 import com.aerospike.client.policy.RecordExistsAction;
 import com.aerospike.client.policy.WritePolicy;
-import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.github.rholder.retry.RetryException;
 import com.phonepe.dlm.DistributedLockManager;
 import com.phonepe.dlm.exception.DLMException;
 import com.phonepe.dlm.lock.Lock;
-import com.phonepe.dlm.lock.base.LockBase;
 import com.phonepe.dlm.lock.level.LockLevel;
-import com.phonepe.dlm.lock.mode.LockMode;
-import com.phonepe.dlm.lock.storage.aerospike.AerospikeStore;
 import com.phonepe.magazine.common.Constants;
 import com.phonepe.magazine.common.MagazineData;
 import com.phonepe.magazine.common.MetaData;
 import com.phonepe.magazine.core.BaseMagazineStorage;
+import com.phonepe.magazine.core.BatchLoadResult;
+import com.phonepe.magazine.core.DeDupeKeyExtractor;
+import com.phonepe.magazine.core.DeDupeKeyMode;
+import com.phonepe.magazine.core.FireOrder;
 import com.phonepe.magazine.core.StorageType;
 import com.phonepe.magazine.exception.ErrorCode;
 import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.jfr.DeDupeCheckEvent;
+import com.phonepe.magazine.jfr.FireAttemptEvent;
+import com.phonepe.magazine.jfr.LoadEvent;
+import com.phonepe.magazine.jfr.LockEvent;
+import com.phonepe.magazine.jfr.PeekEvent;
+import com.phonepe.magazine.jfr.ReloadEvent;
 import com.phonepe.magazine.scope.MagazineScope;
+import com.phonepe.magazine.scope.ShardSlice;
 import com.phonepe.magazine.util.CommonUtils;
 import com.phonepe.magazine.util.ErrorMessage;
-import java.security.SecureRandom;
+import com.phonepe.magazine.util.HashUtils;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -63,16 +101,111 @@ import org.apache.commons.lang3.tuple.Pair;
 public class AerospikeStorage<T> extends BaseMagazineStorage<T> {
 
     private static final String DEDUPER_SET_FORMAT = "%s_deduper";
+    // Key ordered by fire pointer, for the lookups of ack. Expired leases are found with a value range query on the
+    // deadlines, which walks the whole map and does not return them in deadline order.
+    private static final MapPolicy LEASE_MAP_POLICY = new MapPolicy(MapOrder.KEY_ORDERED, MapWriteFlags.DEFAULT);
+
+    // Operations are immutable, so the hot path shares one instance of each instead of rebuilding them per call
+    private static final Operation[] INCREMENT_LOAD_POINTER = {
+            Operation.add(new Bin(Constants.LOAD_POINTER, 1L)), Operation.get(Constants.LOAD_POINTER)};
+    // Claims read only these bins, the pointer record also holds the leases
+    private static final String[] POINTER_BINS = {Constants.LOAD_POINTER, Constants.FIRE_POINTER};
+    private static final Operation[] INCREMENT_FIRE_POINTER = {
+            Operation.add(new Bin(Constants.FIRE_POINTER, 1L)), Operation.get(Constants.FIRE_POINTER)};
+    private static final Operation[] INCREMENT_LOAD_COUNTER = {
+            Operation.add(new Bin(Constants.LOAD_COUNTER, 1L)), Operation.get(Constants.LOAD_COUNTER)};
+    private static final Operation[] INCREMENT_FIRE_COUNTER = {
+            Operation.add(new Bin(Constants.FIRE_COUNTER, 1L)), Operation.get(Constants.FIRE_COUNTER)};
+    private static final Operation[] DECREMENT_FIRE_COUNTER = {
+            Operation.add(new Bin(Constants.FIRE_COUNTER, -1L)), Operation.get(Constants.FIRE_COUNTER)};
+    // Clears the claim token, so that the key counts as a duplicate from now on, and lives as long as the data record.
+    // The header tells the near cache how long that is, the namespace default TTL included.
+    private static final Operation[] COMMIT_DEDUPE_KEY = {
+            Operation.put(Bin.asNull(Constants.CLAIM_TOKEN)), Operation.getHeader()};
+
     private final IAerospikeClient aerospikeClient;
     private final String namespace;
     private final String dataSetName;
     private final String metaSetName;
+    private final MagazineRuntime runtime;
+    @Getter(AccessLevel.NONE)
+    private final boolean sharedRuntime; // Taken from MagazineRuntime.shared, and released on close
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean closed = new AtomicBoolean();
     private final AerospikeRetryerFactory<Object> retryerFactory;
     private final Class<T> clazz;
-    private final Random random = new SecureRandom();
-    private final AsyncLoadingCache<String, List<String>> activeShardsCache;
     private final DistributedLockManager lockManager;
     private final LockLevel lockLevel;
+    private final DeDupeNearCache deDupeNearCache;
+    private final DeDupeKeyMode deDupeKeyMode;
+    private final DeDupeKeyExtractor<T> deDupeKeyExtractor;
+    private final String deDuperSetName;
+    private final String[] shardNames;
+    private final long leaseTimeoutMillis; // 0 when leases are disabled
+    @Getter(AccessLevel.NONE)
+    private final Cache<Key, Boolean> quietLeaseScans; // Pointer records recently found without expired leases
+    @Getter(AccessLevel.NONE)
+    private final int deadRunWindow; // 0 when skipping of dead pointer runs is disabled
+    @Getter(AccessLevel.NONE)
+    private final long deadRunGraceMillis;
+    private final ShardSlice shardSlice; // Shards loaded and fired first by this farm, all of them in LOCAL scope
+    private final long drainGraceMillis; // How long the local slice stays dry before other farms' slices are drained
+    private final FireOrder fireOrder;
+    @Getter(AccessLevel.NONE)
+    private final boolean trackHeads; // Head load times are only read on refresh for approximate-FIFO fire
+    @Getter(AccessLevel.NONE)
+    private final CounterAccumulator counterAccumulator; // Null unless counter flushing is enabled
+    @Getter(AccessLevel.NONE)
+    private final DelayBucketIndex delayBucketIndex; // Null unless delayed delivery is enabled
+    @Getter(AccessLevel.NONE)
+    private final Clock clock; // Decides whether data is due and when delay buckets open
+    @Getter(AccessLevel.NONE)
+    private final ListBuckets listBuckets; // Null unless the list bucket layout is enabled
+    @Getter(AccessLevel.NONE)
+    private final PartitionScanExporter<T> exporter;
+    @Getter(AccessLevel.NONE)
+    private final Map<String, MagazineKeys> magazineKeys = new ConcurrentHashMap<>();
+
+    // Shared per operation kind and never mutated after construction
+    @Getter(AccessLevel.NONE)
+    private final WritePolicy loadWritePolicy;
+    @Getter(AccessLevel.NONE)
+    private final WritePolicy metaWritePolicy;
+    @Getter(AccessLevel.NONE)
+    private final WritePolicy loadPointerWritePolicy;
+    @Getter(AccessLevel.NONE)
+    private final WritePolicy deleteWritePolicy;
+    @Getter(AccessLevel.NONE)
+    private final Policy fireClaimReadPolicy;
+    @Getter(AccessLevel.NONE)
+    private final WritePolicy fireClaimWritePolicy;
+    @Getter(AccessLevel.NONE)
+    private final BatchPolicy metaBatchPolicy;
+    @Getter(AccessLevel.NONE)
+    private final BatchPolicy loadBatchPolicy;
+    @Getter(AccessLevel.NONE)
+    private final BatchPolicy deDupeBatchPolicy;
+    @Getter(AccessLevel.NONE)
+    private final Policy dataReadPolicy;
+    @Getter(AccessLevel.NONE)
+    private final Policy hedgeReadPolicy;
+    @Getter(AccessLevel.NONE)
+    private final BatchPolicy dataBatchPolicy;
+    @Getter(AccessLevel.NONE)
+    private final BatchPolicy hedgeBatchPolicy;
+    // Null unless hedging is enabled. Single and batch reads are tracked apart, their latencies differ too much.
+    @Getter(AccessLevel.NONE)
+    private final HedgedReader dataHedgedReader;
+    @Getter(AccessLevel.NONE)
+    private final HedgedReader batchHedgedReader;
+    @Getter(AccessLevel.NONE)
+    private final BatchWritePolicy loadBatchWritePolicy;
+    @Getter(AccessLevel.NONE)
+    private final BatchWritePolicy deDupeBatchWritePolicy;
+    @Getter(AccessLevel.NONE)
+    private final WritePolicy deDupeWritePolicy;
+    @Getter(AccessLevel.NONE)
+    private final BatchWritePolicy deDupeCommitBatchWritePolicy;
 
     @Builder
     public AerospikeStorage(
@@ -82,7 +215,11 @@ public class AerospikeStorage<T> extends BaseMagazineStorage<T> {
             final String farmId,
             final Class<T> clazz,
             final String clientId,
-            final MagazineScope scope) {
+            final MagazineScope scope,
+            final DeDupeKeyMode deDupeKeyMode,
+            final DeDupeKeyExtractor<T> deDupeKeyExtractor,
+            final MagazineRuntime runtime,
+            final Clock clock) {
         super(StorageType.AEROSPIKE, storageConfig.getRecordTtl(), storageConfig.getMetaDataTtl(),
                 farmId, enableDeDupe, storageConfig.getShards(), clientId, scope);
         this.clazz = clazz;
@@ -90,50 +227,390 @@ public class AerospikeStorage<T> extends BaseMagazineStorage<T> {
         this.namespace = storageConfig.getNamespace();
         this.dataSetName = CommonUtils.resolveSetName(storageConfig.getDataSetName(), farmId, scope);
         this.metaSetName = CommonUtils.resolveSetName(storageConfig.getMetaSetName(), farmId, scope);
-        this.retryerFactory = new AerospikeRetryerFactory<>();
-        this.activeShardsCache = initializeCache();
-        this.lockManager = new DistributedLockManager(Constants.DLM_CLIENT_ID, farmId,
-                LockBase.builder()
-                        .mode(LockMode.EXCLUSIVE)
-                        .lockStore(AerospikeStore.builder()
-                                .aerospikeClient(aerospikeClient)
-                                .namespace(namespace)
-                                .setSuffix(Constants.MAGAZINE_DISTRIBUTED_LOCK_SET_NAME_SUFFIX)
-                                .build())
-                        .build());
+        this.shardNames = IntStream.range(0, getShards())
+                .mapToObj(shard -> String.join(Constants.KEY_DELIMITER, Constants.SHARD_PREFIX, String.valueOf(shard)))
+                .toArray(String[]::new);
+        this.exporter = new PartitionScanExporter<>(aerospikeClient, namespace, dataSetName, getShards(), clazz);
+        this.loadWritePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
+        this.loadWritePolicy.expiration = getRecordTtl();
+        this.loadWritePolicy.sendKey = true;
+        this.metaWritePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
+        this.metaWritePolicy.recordExistsAction = RecordExistsAction.UPDATE;
+        this.metaWritePolicy.expiration = getMetaDataTtl();
+        this.deleteWritePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
+        final DataReadConfig dataReadConfig = storageConfig.getDataReadConfig();
+        this.dataReadPolicy = new Policy(aerospikeClient.getReadPolicyDefault());
+        this.hedgeReadPolicy = new Policy(aerospikeClient.getReadPolicyDefault());
+        this.dataBatchPolicy = new BatchPolicy(aerospikeClient.getBatchPolicyDefault());
+        this.hedgeBatchPolicy = new BatchPolicy(aerospikeClient.getBatchPolicyDefault());
+        if (Objects.nonNull(dataReadConfig)) {
+            this.dataReadPolicy.replica = dataReadConfig.getReplica();
+            this.dataBatchPolicy.replica = dataReadConfig.getReplica();
+            this.hedgeReadPolicy.replica = dataReadConfig.getHedgeReplica();
+            this.hedgeBatchPolicy.replica = dataReadConfig.getHedgeReplica();
+        }
+        this.loadBatchWritePolicy = new BatchWritePolicy(aerospikeClient.getBatchWritePolicyDefault());
+        this.loadBatchWritePolicy.expiration = getRecordTtl();
+        this.loadBatchWritePolicy.sendKey = true;
+        // Create-only makes the deduper write itself the atomic "seen before?" check, no lock needed. A claim only
+        // lives for the claim TTL, until the load commits it with the record TTL once its data is stored.
+        this.deDupeBatchWritePolicy = new BatchWritePolicy(aerospikeClient.getBatchWritePolicyDefault());
+        this.deDupeBatchWritePolicy.expiration = storageConfig.getDeDupeClaimTtl();
+        this.deDupeBatchWritePolicy.recordExistsAction = RecordExistsAction.CREATE_ONLY;
+        this.deDupeWritePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
+        this.deDupeWritePolicy.expiration = storageConfig.getDeDupeClaimTtl();
+        this.deDupeCommitBatchWritePolicy = new BatchWritePolicy(aerospikeClient.getBatchWritePolicyDefault());
+        this.deDupeCommitBatchWritePolicy.expiration = getRecordTtl();
+        final PolicyProfiles profiles = Objects.nonNull(storageConfig.getPolicyProfiles())
+                ? storageConfig.getPolicyProfiles()
+                : new PolicyProfiles();
+        PolicyProfile.apply(profiles.getLoad(), loadWritePolicy);
+        PolicyProfile.apply(profiles.getLoad(), loadBatchWritePolicy);
+        this.loadBatchPolicy = PolicyProfile.apply(profiles.getLoad(),
+                new BatchPolicy(aerospikeClient.getBatchPolicyDefault()));
+        this.fireClaimReadPolicy = PolicyProfile.apply(profiles.getFireClaim(),
+                new Policy(aerospikeClient.getReadPolicyDefault()));
+        this.fireClaimWritePolicy = PolicyProfile.apply(profiles.getFireClaim(), new WritePolicy(metaWritePolicy));
+        this.loadPointerWritePolicy = PolicyProfile.apply(profiles.getLoad(), new WritePolicy(metaWritePolicy));
+        PolicyProfile.apply(profiles.getFireRead(), dataReadPolicy);
+        PolicyProfile.apply(profiles.getFireRead(), hedgeReadPolicy);
+        this.metaBatchPolicy = PolicyProfile.apply(profiles.getMetaBatch(),
+                new BatchPolicy(aerospikeClient.getBatchPolicyDefault()));
+        PolicyProfile.apply(profiles.getPeek(), dataBatchPolicy);
+        PolicyProfile.apply(profiles.getPeek(), hedgeBatchPolicy);
+        PolicyProfile.apply(profiles.getDeDupe(), deDupeBatchWritePolicy);
+        PolicyProfile.apply(profiles.getDeDupe(), deDupeWritePolicy);
+        PolicyProfile.apply(profiles.getDeDupe(), deDupeCommitBatchWritePolicy);
+        this.deDupeBatchPolicy = PolicyProfile.apply(profiles.getDeDupe(),
+                new BatchPolicy(aerospikeClient.getBatchPolicyDefault()));
         this.lockLevel = CommonUtils.resolveLockLevel(scope);
-        lockManager.initialize();
+        this.shardSlice = scope.accept(new MagazineScope.Visitor<>() {
+            @Override
+            public ShardSlice visitLocal() {
+                return ShardSlice.all(getShards());
+            }
+
+            @Override
+            public ShardSlice visitGlobal() {
+                final GlobalScopeConfig globalScopeConfig = storageConfig.getGlobalScopeConfig();
+                return Objects.isNull(globalScopeConfig) || Objects.isNull(globalScopeConfig.getFarms())
+                        ? ShardSlice.all(getShards())
+                        : ShardSlice.of(getShards(), globalScopeConfig.getFarms(), farmId);
+            }
+        });
+        this.drainGraceMillis = Objects.nonNull(storageConfig.getGlobalScopeConfig())
+                ? storageConfig.getGlobalScopeConfig().getDrainGraceMillis()
+                : 0;
+        this.fireOrder = Objects.nonNull(storageConfig.getFireOrder())
+                ? storageConfig.getFireOrder()
+                : FireOrder.RANDOM;
+        this.trackHeads = fireOrder.accept(new FireOrder.Visitor<>() {
+            @Override
+            public Boolean visitRandom() {
+                return false;
+            }
+
+            @Override
+            public Boolean visitApproximateFifo() {
+                return true;
+            }
+        });
+        this.deDupeNearCache = enableDeDupe
+                && Objects.nonNull(storageConfig.getDeDupeCacheConfig())
+                && storageConfig.getDeDupeCacheConfig().isEnabled()
+                ? new DeDupeNearCache(storageConfig.getDeDupeCacheConfig())
+                : null;
+        final LeaseConfig leaseConfig = storageConfig.getLeaseConfig();
+        this.leaseTimeoutMillis = Objects.nonNull(leaseConfig) && leaseConfig.isEnabled()
+                ? TimeUnit.SECONDS.toMillis(leaseConfig.getVisibilityTimeoutSeconds())
+                : 0;
+        this.quietLeaseScans = leaseTimeoutMillis > 0 && leaseConfig.getReofferScanIntervalMillis() > 0
+                ? Caffeine.newBuilder()
+                        .expireAfterWrite(leaseConfig.getReofferScanIntervalMillis(), TimeUnit.MILLISECONDS)
+                        .<Key, Boolean>build()
+                : null;
+        final ListBucketConfig listBucketConfig = storageConfig.getListBucketConfig();
+        if (Objects.nonNull(listBucketConfig) && listBucketConfig.isEnabled()) {
+            // Leases re-offer fired data from its record, which the list bucket layout has removed on fire
+            if (leaseTimeoutMillis > 0) {
+                throw MagazineException.builder()
+                        .errorCode(ErrorCode.NOT_IMPLEMENTED)
+                        .message(String.format(ErrorMessage.NOT_SUPPORTED_BY_LIST_BUCKETS, "Leasing"))
+                        .build();
+            }
+            // Approximate FIFO picks shards by the load time of their head data record, which list buckets do not have
+            if (trackHeads) {
+                throw MagazineException.builder()
+                        .errorCode(ErrorCode.NOT_IMPLEMENTED)
+                        .message(String.format(ErrorMessage.NOT_SUPPORTED_BY_LIST_BUCKETS,
+                                "Approximate FIFO fire order"))
+                        .build();
+            }
+            // A bucket write filtered out is one refused by a sealed bucket, see ListBuckets.appendWrite
+            this.loadBatchPolicy.failOnFilteredOut = true;
+        }
+        final DeadRunConfig deadRunConfig = storageConfig.getDeadRunConfig();
+        this.deadRunWindow = Objects.nonNull(deadRunConfig) && deadRunConfig.isEnabled()
+                ? deadRunConfig.getWindowSize()
+                : 0;
+        this.deadRunGraceMillis = Objects.nonNull(deadRunConfig)
+                ? deadRunConfig.getLoadGraceMillis()
+                : 0;
+        this.clock = Objects.nonNull(clock)
+                ? clock
+                : Clock.systemUTC();
+        final DelayedDeliveryConfig delayedDeliveryConfig = storageConfig.getDelayedDeliveryConfig();
+        final boolean delayedDelivery = Objects.nonNull(delayedDeliveryConfig) && delayedDeliveryConfig.isEnabled();
+        final long loadBudgetMillis = delayedDelivery
+                ? loadBudgetMillis()
+                : 0;
+        // Acquired once the config is validated, and released if a check needing the runtime fails after all
+        this.sharedRuntime = Objects.isNull(runtime);
+        this.runtime = Objects.nonNull(runtime)
+                ? runtime
+                : MagazineRuntime.shared(aerospikeClient, namespace, farmId,
+                        Objects.nonNull(storageConfig.getActiveShardsRefreshConfig())
+                                ? storageConfig.getActiveShardsRefreshConfig()
+                                : new ActiveShardsRefreshConfig());
+        try {
+            this.delayBucketIndex = delayedDelivery
+                    ? new DelayBucketIndex(aerospikeClient, this.runtime, metaWritePolicy, metaBatchPolicy, namespace,
+                            dataSetName, metaSetName, getShards(), trackHeads, delayedDeliveryConfig, loadBudgetMillis,
+                            this.clock)
+                    : null;
+        } catch (RuntimeException e) {
+            if (sharedRuntime) {
+                this.runtime.release();
+            }
+            throw e;
+        }
+        this.retryerFactory = this.runtime.getRetryerFactory();
+        this.lockManager = this.runtime.getLockManager();
+        this.dataHedgedReader = Objects.nonNull(dataReadConfig) && dataReadConfig.isHedgingEnabled()
+                ? new HedgedReader(dataReadConfig, this.runtime.getHedgeExecutor(),
+                        this.runtime.getHedgedReadExecutor())
+                : null;
+        this.batchHedgedReader = Objects.nonNull(dataReadConfig) && dataReadConfig.isHedgingEnabled()
+                ? new HedgedReader(dataReadConfig, this.runtime.getHedgeExecutor(),
+                        this.runtime.getHedgedReadExecutor())
+                : null;
+        this.listBuckets = Objects.nonNull(listBucketConfig) && listBucketConfig.isEnabled()
+                ? new ListBuckets(aerospikeClient, retryerFactory, loadWritePolicy, fireClaimWritePolicy,
+                        fireClaimReadPolicy, dataBatchPolicy, listBucketConfig)
+                : null;
+        final CounterFlushConfig counterFlushConfig = storageConfig.getCounterFlushConfig();
+        if (Objects.nonNull(counterFlushConfig) && counterFlushConfig.isEnabled()) {
+            final BatchWritePolicy counterWritePolicy = new BatchWritePolicy(
+                    aerospikeClient.getBatchWritePolicyDefault());
+            counterWritePolicy.expiration = getMetaDataTtl();
+            counterWritePolicy.recordExistsAction = RecordExistsAction.UPDATE;
+            this.counterAccumulator = new CounterAccumulator(aerospikeClient, metaBatchPolicy, counterWritePolicy,
+                    getShards(), counterFlushConfig, this.runtime.getScheduler());
+            this.runtime.getActiveShardsRefresher().register(counterAccumulator);
+        } else {
+            this.counterAccumulator = null;
+        }
+        this.deDupeKeyMode = Objects.nonNull(deDupeKeyMode)
+                ? deDupeKeyMode
+                : DeDupeKeyMode.TO_STRING;
+        this.deDupeKeyExtractor = Objects.nonNull(deDupeKeyExtractor)
+                ? deDupeKeyExtractor
+                : AerospikeStorage::packValue;
+        this.deDuperSetName = CommonUtils.resolveSetName(DEDUPER_SET_FORMAT.formatted(clientId), farmId, scope);
     }
 
     @Override
     public boolean load(final String magazineIdentifier,
             final T data) {
+        return load(magazineIdentifier, data, null);
+    }
+
+    @Override
+    public boolean load(final String magazineIdentifier,
+            final T data,
+            final Instant notBefore) {
         validateDataType(data);
-        final Lock lock = lockManager.getLockInstance(
-                String.join(Constants.KEY_DELIMITER, magazineIdentifier, data.toString()), lockLevel);
+        final boolean delayed = Objects.nonNull(notBefore) && notBefore.toEpochMilli() > clock.millis();
+        if (delayed && Objects.isNull(delayBucketIndex)) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.DELAYED_DELIVERY_DISABLED)
+                    .message(String.format(ErrorMessage.DELAYED_DELIVERY_DISABLED, magazineIdentifier))
+                    .build();
+        }
+        final LoadEvent event = new LoadEvent();
+        event.begin();
+        final int calls = ClientCalls.mark();
+        // The dedupe key is only needed when deDupe is enabled
+        final DeDupeKey deDupeKey = isEnableDeDupe()
+                ? buildDeDupeKey(magazineIdentifier, data)
+                : null;
+        boolean claimed = false; // Dedupe key claimed and data not stored yet
         try {
-            // Acquire lock if deDupe is enabled.
-            if (isEnableDeDupe()) {
-                lockManager.tryAcquireLock(lock); // Exception is thrown if acquiring lock fails.
+            // Known duplicates are rejected locally, without a round trip to the deduper set
+            if (Objects.nonNull(deDupeNearCache) && deDupeNearCache.isKnownDuplicate(deDupeKey.getLockId())) {
+                commitNearCacheHit(magazineIdentifier);
+                event.setDuplicate(true);
+                return true;
             }
-            if (!isEnableDeDupe() || !alreadyExists(magazineIdentifier, data)) {
-                final Integer selectedShard = selectShard();
-                final long loadPointer = incrementAndGetLoadPointer(magazineIdentifier, selectedShard);
-                final String key = createKey(magazineIdentifier, selectedShard, String.valueOf(loadPointer));
-                final boolean success = loadData(key, data);
-                if (success) {
-                    incrementLoadCounter(magazineIdentifier, selectedShard);
+            if (Objects.nonNull(deDupeKey)) {
+                if (!claimDeDupeKey(magazineIdentifier, deDupeKey)) {
+                    event.setDuplicate(true);
+                    return true;
                 }
-                if (isEnableDeDupe()) {
-                    storeDataForDeDupe(magazineIdentifier, data);
+                claimed = true;
+            }
+            final MagazineKeys keys = delayed
+                    ? delayBucketIndex.bucketFor(magazineIdentifier, notBefore.toEpochMilli())
+                    : getMagazineKeys(magazineIdentifier);
+            final int selectedShard = selectShard();
+            final long loadPointer = incrementAndGetLoadPointer(keys, selectedShard);
+            final boolean success = storeData(keys, selectedShard, loadPointer, data);
+            claimed = false;
+            if (Objects.nonNull(deDupeKey)) {
+                if (success) {
+                    commitDeDupeKeys(List.of(deDupeKey));
+                } else {
+                    releaseDeDupeKeys(List.of(deDupeKey)); // Not stored, so not seen either
                 }
-                return success;
             }
-            return true;
+            event.setShard(selectedShard);
+            event.setPointer(loadPointer);
+            if (success) {
+                incrementCounter(keys, selectedShard, Constants.LOAD_COUNTER, 1);
+            }
+            return success;
         } catch (Exception e) {
-            throw handleException(e, ErrorMessage.ERROR_LOADING_DATA, magazineIdentifier, lock);
+            if (claimed) {
+                releaseDeDupeKeys(List.of(deDupeKey), e);
+            }
+            throw handleException(e, ErrorMessage.ERROR_LOADING_DATA, magazineIdentifier, null);
         } finally {
-            lockManager.releaseLock(lock);
+            if (event.shouldCommit()) {
+                event.setMagazineIdentifier(magazineIdentifier);
+                event.setDelayed(delayed);
+                event.setRoundTrips(ClientCalls.since(calls));
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public BatchLoadResult loadBatch(final String magazineIdentifier,
+            final int shard,
+            final List<T> data) {
+        if (shard < 0 || shard >= getShards()) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.INVALID_SHARDS)
+                    .message(String.format(ErrorMessage.INVALID_SHARD, shard, magazineIdentifier))
+                    .build();
+        }
+        try {
+            int duplicates = 0;
+            int failed = 0;
+            List<T> accepted = data;
+            List<DeDupeKey> acceptedDeDupeKeys = List.of();
+            if (isEnableDeDupe()) {
+                accepted = new ArrayList<>(data.size());
+                acceptedDeDupeKeys = new ArrayList<>(data.size());
+                final List<DeDupeKey> candidateKeys = new ArrayList<>(data.size());
+                final List<T> candidates = new ArrayList<>(data.size());
+                final Set<String> candidateLockIds = new HashSet<>(data.size());
+                for (T datum : data) {
+                    final DeDupeKey deDupeKey = buildDeDupeKey(magazineIdentifier, datum);
+                    // Repeats within the batch are duplicates of their first copy, which alone is claimed
+                    if ((Objects.nonNull(deDupeNearCache) && deDupeNearCache.isKnownDuplicate(deDupeKey.getLockId()))
+                            || !candidateLockIds.add(deDupeKey.getLockId())) {
+                        duplicates++;
+                        continue;
+                    }
+                    candidateKeys.add(deDupeKey);
+                    candidates.add(datum);
+                }
+                final List<BatchRecord> claims = claimDeDupeKeys(candidateKeys);
+                for (int i = 0; i < claims.size(); i++) {
+                    final BatchRecord claim = claims.get(i);
+                    if (claim.resultCode == ResultCode.OK) {
+                        accepted.add(candidates.get(i));
+                        acceptedDeDupeKeys.add(candidateKeys.get(i));
+                    } else if (claim.resultCode == ResultCode.KEY_EXISTS_ERROR) {
+                        duplicates++;
+                    } else {
+                        failed++;
+                    }
+                }
+            }
+            if (accepted.isEmpty()) {
+                return new BatchLoadResult(0, duplicates, failed);
+            }
+
+            final MagazineKeys keys = getMagazineKeys(magazineIdentifier);
+            final long firstPointer = reserveLoadPointers(keys, shard, accepted.size());
+            final long modifiedAt = System.currentTimeMillis();
+            final List<BatchRecord> dataWrites = new ArrayList<>(accepted.size());
+            // Data index where each write starts, a list bucket write carries the run of data of its bucket
+            final List<Integer> writeStarts = new ArrayList<>(accepted.size());
+            for (int i = 0; i < accepted.size(); ) {
+                writeStarts.add(i);
+                if (Objects.nonNull(listBuckets)) {
+                    final long bucket = listBuckets.bucketOf(firstPointer + i);
+                    final int start = i;
+                    do {
+                        i++;
+                    } while (i < accepted.size() && listBuckets.bucketOf(firstPointer + i) == bucket);
+                    dataWrites.add(listBuckets.appendWrite(loadBatchWritePolicy, keys, shard, firstPointer + start,
+                            accepted.subList(start, i)));
+                } else {
+                    dataWrites.add(new BatchWrite(loadBatchWritePolicy, keys.dataKey(shard, firstPointer + i),
+                            new Operation[]{Operation.put(new Bin(Constants.DATA, accepted.get(i))),
+                                    Operation.put(new Bin(Constants.MODIFIED_AT, modifiedAt))}));
+                    i++;
+                }
+            }
+            writeStarts.add(accepted.size());
+            final int attempts;
+            try {
+                attempts = batchOperate(loadBatchPolicy, dataWrites);
+            } catch (Exception e) {
+                // None of the data is known to be loaded, so none of it may stay marked as seen
+                if (!acceptedDeDupeKeys.isEmpty()) {
+                    releaseDeDupeKeys(acceptedDeDupeKeys, e);
+                }
+                throw e;
+            }
+
+            int loaded = 0;
+            final List<DeDupeKey> loadedDeDupeKeys = new ArrayList<>();
+            final List<DeDupeKey> orphanDeDupeKeys = new ArrayList<>();
+            for (int w = 0; w < dataWrites.size(); w++) {
+                final int count = writeStarts.get(w + 1) - writeStarts.get(w);
+                final BatchRecord dataWrite = dataWrites.get(w);
+                // Filtered out on a retry, a bucket write may have gone through on an attempt that got no answer
+                if (dataWrite.resultCode == ResultCode.OK
+                        || (dataWrite.resultCode == ResultCode.FILTERED_OUT && attempts > 1
+                        && listBuckets.isAppended(dataWrite.key, firstPointer + writeStarts.get(w)))) {
+                    loaded += count;
+                    if (!acceptedDeDupeKeys.isEmpty()) {
+                        loadedDeDupeKeys.addAll(acceptedDeDupeKeys.subList(writeStarts.get(w), writeStarts.get(w + 1)));
+                    }
+                    continue;
+                }
+                failed += count;
+                if (!acceptedDeDupeKeys.isEmpty()) {
+                    orphanDeDupeKeys.addAll(acceptedDeDupeKeys.subList(writeStarts.get(w), writeStarts.get(w + 1)));
+                }
+            }
+            if (!loadedDeDupeKeys.isEmpty()) {
+                commitDeDupeKeys(loadedDeDupeKeys);
+            }
+            if (!orphanDeDupeKeys.isEmpty()) {
+                releaseDeDupeKeys(orphanDeDupeKeys);
+            }
+            if (loaded > 0) {
+                incrementCounter(keys, shard, Constants.LOAD_COUNTER, loaded);
+            }
+            return new BatchLoadResult(loaded, duplicates, failed);
+        } catch (Exception e) {
+            throw handleException(e, ErrorMessage.ERROR_LOADING_DATA, magazineIdentifier, null);
         }
     }
 
@@ -141,83 +618,203 @@ public class AerospikeStorage<T> extends BaseMagazineStorage<T> {
     public boolean reload(final String magazineIdentifier,
             final T data) {
         validateDataType(data);
-        final Lock lock = lockManager.getLockInstance(
-                String.join(Constants.KEY_DELIMITER, magazineIdentifier, data.toString()), lockLevel);
+        final ReloadEvent event = new ReloadEvent();
+        event.begin();
+        final int calls = ClientCalls.mark();
+        final DeDupeKey deDupeKey = isEnableDeDupe()
+                ? buildDeDupeKey(magazineIdentifier, data)
+                : null;
+        boolean claimed = false; // Dedupe key claimed and data not stored yet
         try {
-            // Acquire lock if deDupe is enabled.
-            if (isEnableDeDupe()) {
-                lockManager.tryAcquireLock(lock);
+            // Claimed like a load claims it, so that a load or reload of the same data in flight is turned away
+            if (Objects.nonNull(deDupeKey)) {
+                reclaimDeDupeKey(magazineIdentifier, deDupeKey);
+                claimed = true;
             }
 
-            final Integer selectedShard = selectShard();
-            final long loadPointer = incrementAndGetLoadPointer(magazineIdentifier, selectedShard);
-            final String key = createKey(magazineIdentifier, selectedShard, String.valueOf(loadPointer));
-            final boolean success = loadData(key, data);
+            final MagazineKeys keys = getMagazineKeys(magazineIdentifier);
+            final int selectedShard = selectShard();
+            final long loadPointer = incrementAndGetLoadPointer(keys, selectedShard);
+            final boolean success = storeData(keys, selectedShard, loadPointer, data);
+            claimed = false;
+            if (Objects.nonNull(deDupeKey)) {
+                if (success) {
+                    commitDeDupeKeys(List.of(deDupeKey));
+                } else {
+                    releaseDeDupeKeys(List.of(deDupeKey));
+                }
+            }
+            event.setShard(selectedShard);
+            event.setPointer(loadPointer);
             if (success) {
-                decrementFireCounter(magazineIdentifier, selectedShard);
+                incrementCounter(keys, selectedShard, Constants.FIRE_COUNTER, -1);
             }
             return success;
         } catch (Exception e) {
-            throw handleException(e, ErrorMessage.ERROR_LOADING_DATA, magazineIdentifier, lock);
+            if (claimed) {
+                releaseDeDupeKeys(List.of(deDupeKey), e);
+            }
+            throw handleException(e, ErrorMessage.ERROR_LOADING_DATA, magazineIdentifier, null);
         } finally {
-            lockManager.releaseLock(lock);
+            if (event.shouldCommit()) {
+                event.setMagazineIdentifier(magazineIdentifier);
+                event.setRoundTrips(ClientCalls.since(calls));
+                event.commit();
+            }
         }
     }
 
     @Override
     public MagazineData<T> fire(final String magazineIdentifier) {
-        return fireWithRetry(magazineIdentifier);
+        if (leaseTimeoutMillis <= 0) {
+            return fireWithRetry(magazineIdentifier);
+        }
+        try {
+            final MagazineKeys keys = getMagazineKeys(magazineIdentifier);
+            // Expired leases go first. One random shard is checked per fire, all of them once nothing else is left.
+            final List<MagazineData<T>> reoffered = reofferExpiredLeases(keys,
+                    shardSlice.randomOwnedShard(), 1);
+            if (!reoffered.isEmpty()) {
+                return reoffered.get(0);
+            }
+            final MagazineData<T> magazineData;
+            try {
+                magazineData = fireWithRetry(magazineIdentifier);
+            } catch (MagazineException e) {
+                if (e.getErrorCode() != ErrorCode.NOTHING_TO_FIRE) {
+                    throw e;
+                }
+                for (MagazineKeys spaceKeys : spacesOf(keys)) {
+                    for (int shard = 0; shard < getShards(); shard++) {
+                        final List<MagazineData<T>> expired = reofferExpiredLeases(spaceKeys, shard, 1);
+                        if (!expired.isEmpty()) {
+                            return expired.get(0);
+                        }
+                    }
+                }
+                throw e;
+            }
+            return magazineData;
+        } catch (Exception e) {
+            throw handleException(e, ErrorMessage.ERROR_FIRING_DATA, magazineIdentifier, null);
+        }
+    }
+
+    @Override
+    public void ack(final String magazineIdentifier,
+            final MagazineData<T> magazineData) {
+        if (leaseTimeoutMillis <= 0) {
+            return;
+        }
+        try {
+            operate(keysOf(magazineIdentifier, magazineData).pointerKey(shardIndex(magazineData)), new Operation[]{
+                    MapOperation.removeByKey(Constants.LEASES, Value.get(magazineData.getFirePointer()),
+                            MapReturnType.NONE)});
+        } catch (Exception e) {
+            throw handleException(e, ErrorMessage.ERROR_ACKNOWLEDGING_DATA, magazineIdentifier, null);
+        }
+    }
+
+    @Override
+    public List<MagazineData<T>> fireBatch(final String magazineIdentifier,
+            final int maxItems) {
+        try {
+            final Pair<MagazineKeys, ActiveShards> space = selectSpaceForFire(getMagazineKeys(magazineIdentifier));
+            final MagazineKeys keys = space.getLeft();
+            final ActiveShards state = space.getRight();
+            final int[] activeShards = state.shards();
+            if (activeShards.length == 0 || maxItems <= 0) {
+                return List.of();
+            }
+            if (leaseTimeoutMillis > 0) {
+                final List<MagazineData<T>> reoffered = reofferExpiredLeases(keys,
+                        shardSlice.randomOwnedShard(), maxItems);
+                if (!reoffered.isEmpty()) {
+                    return reoffered;
+                }
+            }
+            final int start = selectIndexForFire(state);
+            final boolean openToOtherFarms = shardSlice.isOpenToOtherFarms(activeShards);
+            // Owned shards first, shards of other farms only once the local slice has been dry for the drain grace
+            for (int pass = 0; pass < 2; pass++) {
+                final boolean ownedPass = pass == 0;
+                if (!ownedPass && !mayDrainOtherFarms(keys, !shardSlice.hasOwned(activeShards))) {
+                    break;
+                }
+                for (int i = 0; i < activeShards.length; i++) {
+                    final int shard = activeShards[(start + i) % activeShards.length];
+                    if (shardSlice.isOwned(shard) != ownedPass) {
+                        continue;
+                    }
+                    final List<MagazineData<T>> fired = ownedPass && !openToOtherFarms
+                            ? attemptFireBatch(keys, state, shard, maxItems)
+                            : underCrossFarmLock(keys, shard, List.of(),
+                                    () -> attemptFireBatch(keys, state, shard, maxItems));
+                    if (!fired.isEmpty()) {
+                        return fired;
+                    }
+                }
+            }
+            return List.of();
+        } catch (Exception e) {
+            throw handleException(e, ErrorMessage.ERROR_FIRING_DATA, magazineIdentifier, null);
+        }
+    }
+
+    @Override
+    public boolean hasDataToFire(final String magazineIdentifier) {
+        try {
+            return selectSpaceForFire(getMagazineKeys(magazineIdentifier)).getRight()
+                    .shards().length > 0;
+        } catch (Exception e) {
+            throw handleException(e, ErrorMessage.ERROR_GETTING_META_DATA, magazineIdentifier, null);
+        }
     }
 
     @Override
     public Map<String, MetaData> getMetaData(final String magazineIdentifier) {
         try {
-            final Record[] counterRecords = (Record[]) retryerFactory.getRetryer()
-                    .call(() -> {
-                        Key[] keys = createMetaKeys(magazineIdentifier, Constants.COUNTERS);
-                        return aerospikeClient.get(aerospikeClient.getBatchPolicyDefault(), keys);
-                    });
-
-            final Record[] pointerRecords = (Record[]) retryerFactory.getRetryer()
-                    .call(() -> {
-                        Key[] keys = createMetaKeys(magazineIdentifier, Constants.POINTERS);
-                        return aerospikeClient.get(aerospikeClient.getBatchPolicyDefault(), keys);
-                    });
-
-            return IntStream.range(0, getShards())
-                    .boxed()
-                    .collect(Collectors.toMap(
-                            i -> String.join(Constants.KEY_DELIMITER, Constants.SHARD_PREFIX, String.valueOf(i)),
-                            i -> MetaData.builder()
-                                    .fireCounter(counterRecords[i] != null
-                                            ? counterRecords[i].getLong(Constants.FIRE_COUNTER)
-                                            : 0L)
-                                    .loadCounter(counterRecords[i] != null
-                                            ? counterRecords[i].getLong(Constants.LOAD_COUNTER)
-                                            : 0L)
-                                    .firePointer(pointerRecords[i] != null
-                                            ? pointerRecords[i].getLong(Constants.FIRE_POINTER)
-                                            : 0L)
-                                    .loadPointer(pointerRecords[i] != null
-                                            ? pointerRecords[i].getLong(Constants.LOAD_POINTER)
-                                            : 0L)
-                                    .build()));
+            if (Objects.nonNull(counterAccumulator)) {
+                counterAccumulator.flush();
+            }
+            final Map<String, MetaData> metaData = new HashMap<>();
+            putMetaData(metaData, getMagazineKeys(magazineIdentifier), "");
+            // Delay buckets come after the shards, named DELAYED_<open time>_<shard name>
+            if (Objects.nonNull(delayBucketIndex)) {
+                for (MagazineKeys space : delayBucketIndex.allSpaces(magazineIdentifier)) {
+                    putMetaData(metaData, space, String.join(Constants.KEY_DELIMITER, Constants.DELAYED,
+                            String.valueOf(space.getBucket()), ""));
+                }
+            }
+            return metaData;
         } catch (Exception e) {
             throw handleException(e, ErrorMessage.ERROR_GETTING_META_DATA, magazineIdentifier, null);
         }
     }
 
+    private void putMetaData(final Map<String, MetaData> metaData,
+            final MagazineKeys keys,
+            final String namePrefix) throws ExecutionException, RetryException {
+        final Record[] counterRecords = batchGet(keys.getCounterKeys());
+        final Record[] pointerRecords = batchGet(keys.getPointerKeys());
+        for (int shard = 0; shard < getShards(); shard++) {
+            metaData.put(namePrefix + shardNames[shard], MetaData.builder()
+                    .fireCounter(getLong(counterRecords[shard], Constants.FIRE_COUNTER))
+                    .loadCounter(getLong(counterRecords[shard], Constants.LOAD_COUNTER))
+                    .firePointer(getLong(pointerRecords[shard], Constants.FIRE_POINTER))
+                    .loadPointer(getLong(pointerRecords[shard], Constants.LOAD_POINTER))
+                    .build());
+        }
+    }
+
     @Override
     public void delete(final MagazineData<T> magazineData) {
+        if (Objects.nonNull(listBuckets)) {
+            return; // Already removed from its bucket when fired
+        }
         try {
-            final WritePolicy writePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
-            retryerFactory.getRetryer()
-                    .call(() -> {
-                        aerospikeClient.delete(
-                                writePolicy,
-                                new Key(namespace, dataSetName, magazineData.createAerospikeKey()));
-                        return true;
-                    });
+            final Key key = new Key(namespace, dataSetName, magazineData.createAerospikeKey());
+            retryerFactory.call(() -> aerospikeClient.delete(deleteWritePolicy, key));
         } catch (Exception e) {
             throw handleException(e, ErrorMessage.ERROR_DELETING_DATA, magazineData.getMagazineIdentifier(), null);
         }
@@ -226,22 +823,25 @@ public class AerospikeStorage<T> extends BaseMagazineStorage<T> {
     @Override
     public Set<MagazineData<T>> peek(final String magazineIdentifier,
             final Map<Integer, Set<Long>> shardPointersMap) {
+        requireRecordPerItem("Peek");
+        requireNoDelayBuckets("Peek");
+        final PeekEvent event = new PeekEvent();
+        event.begin();
+        event.setMagazineIdentifier(magazineIdentifier);
+        final int calls = ClientCalls.mark();
         try {
             // Builds keys
             final List<Pair<Key, MagazineData.MagazineDataBuilder<T>>> keyAndMagazineDataBuilderList =
                     buildKeyAndMagazineDataList(magazineIdentifier, shardPointersMap);
 
             // Fetch records
-            final Record[] records = (Record[]) retryerFactory.getRetryer()
-                    .call(() -> aerospikeClient.get(
-                            aerospikeClient.getBatchPolicyDefault(),
-                            keyAndMagazineDataBuilderList.stream()
-                                    .map(Pair::getKey)
-                                    .collect(Collectors.toList())
-                                    .toArray(Key[]::new))
-                    );
-
-            return IntStream.range(0, keyAndMagazineDataBuilderList.size())
+            event.setRequested(keyAndMagazineDataBuilderList.size());
+            final Record[] records = batchGetData(keyAndMagazineDataBuilderList.stream()
+                    .map(Pair::getKey)
+                    .collect(Collectors.toList())
+                    .toArray(Key[]::new));
+
+            final Set<MagazineData<T>> magazineDataSet = IntStream.range(0, keyAndMagazineDataBuilderList.size())
                     .boxed()
                     .filter(i -> Objects.nonNull(records[i]))
                     .map(i -> keyAndMagazineDataBuilderList.get(i)
@@ -249,216 +849,730 @@ public class AerospikeStorage<T> extends BaseMagazineStorage<T> {
                             .data(clazz.cast(records[i].getValue(Constants.DATA)))
                             .build())
                     .collect(Collectors.toSet());
+            event.setFound(magazineDataSet.size());
+            return magazineDataSet;
+        } catch (Exception e) {
+            throw handleException(e, ErrorMessage.ERROR_PEEKING_DATA, magazineIdentifier, null);
+        } finally {
+            if (event.shouldCommit()) {
+                event.setRoundTrips(ClientCalls.since(calls));
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public List<MagazineData<T>> peekRange(final String magazineIdentifier,
+            final Integer shard,
+            final long fromPointer,
+            final long toPointer) {
+        requireRecordPerItem("Peek");
+        requireNoDelayBuckets("Peek");
+        final int shardIndex = Objects.nonNull(shard)
+                ? shard
+                : 0;
+        if (shardIndex < 0 || shardIndex >= getShards() || (getShards() > 1 && Objects.isNull(shard))) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.INVALID_SHARDS)
+                    .message(String.format(ErrorMessage.INVALID_SHARD, shard, magazineIdentifier))
+                    .build();
+        }
+        if (fromPointer > toPointer) {
+            return List.of();
+        }
+        final PeekEvent event = new PeekEvent();
+        event.begin();
+        event.setMagazineIdentifier(magazineIdentifier);
+        event.setShard(shardIndex);
+        final int calls = ClientCalls.mark();
+        try {
+            final MagazineKeys keys = getMagazineKeys(magazineIdentifier);
+            final List<MagazineData<T>> magazineDataList = new ArrayList<>();
+            // A range given by the caller is read in batches of bounded size
+            for (long first = fromPointer; first <= toPointer; first += Constants.PEEK_BATCH_SIZE) {
+                final Key[] dataKeys = new Key[(int) Math.min(Constants.PEEK_BATCH_SIZE, toPointer - first + 1)];
+                for (int i = 0; i < dataKeys.length; i++) {
+                    dataKeys[i] = keys.dataKey(shardIndex, first + i);
+                }
+                final Record[] records = batchGetData(dataKeys);
+                for (int i = 0; i < records.length; i++) {
+                    if (Objects.nonNull(records[i])) {
+                        magazineDataList.add(MagazineData.<T>builder()
+                                .firePointer(first + i)
+                                .shard(getShards() > 1
+                                        ? shard
+                                        : null)
+                                .magazineIdentifier(magazineIdentifier)
+                                .data(clazz.cast(records[i].getValue(Constants.DATA)))
+                                .build());
+                    }
+                }
+            }
+            event.setRequested(toPointer - fromPointer + 1);
+            event.setFound(magazineDataList.size());
+            return magazineDataList;
         } catch (Exception e) {
             throw handleException(e, ErrorMessage.ERROR_PEEKING_DATA, magazineIdentifier, null);
+        } finally {
+            if (event.shouldCommit()) {
+                event.setRoundTrips(ClientCalls.since(calls));
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public long export(final String magazineIdentifier,
+            final Consumer<MagazineData<T>> consumer,
+            final int parallelism) {
+        requireRecordPerItem("Export");
+        try {
+            return exporter.export(magazineIdentifier, consumer, parallelism);
+        } catch (Exception e) {
+            throw handleException(e, ErrorMessage.ERROR_EXPORTING_DATA, magazineIdentifier, null);
         }
     }
 
-    private boolean loadData(final String key,
+    private boolean storeData(final MagazineKeys keys,
+            final int shard,
+            final long pointer,
             final T data) throws ExecutionException, RetryException {
-        return (Boolean) retryerFactory.getRetryer()
-                .call(() -> {
-                    final WritePolicy writePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
-                    writePolicy.expiration = getRecordTtl();
-                    writePolicy.sendKey = true;
-                    aerospikeClient.put(writePolicy,
-                            new Key(namespace, dataSetName, key),
-                            new Bin(Constants.DATA, data),
-                            new Bin(Constants.MODIFIED_AT, System.currentTimeMillis()));
-                    return true;
-                });
+        if (Objects.nonNull(listBuckets)) {
+            return listBuckets.append(keys, shard, pointer, data);
+        }
+        return loadData(keys.dataKey(shard, pointer), data);
     }
 
-    // Retry until the record is non-null or there is nothing to fire
+    private boolean loadData(final Key key,
+            final T data) throws ExecutionException, RetryException {
+        final Bin dataBin = new Bin(Constants.DATA, data);
+        final Bin modifiedAtBin = new Bin(Constants.MODIFIED_AT, System.currentTimeMillis());
+        retryerFactory.call(() -> {
+            aerospikeClient.put(loadWritePolicy, key, dataBin, modifiedAtBin);
+            return true;
+        });
+        return true;
+    }
+
+    // Retry until the record is non-null or there is nothing to fire. Every attempt runs in the retryer, which only
+    // waits between attempts.
     @SuppressWarnings("unchecked")
     private MagazineData<T> fireWithRetry(final String magazineIdentifier) {
         try {
+            final MagazineKeys keys = getMagazineKeys(magazineIdentifier);
+            final int[] attempts = {0};
             return (MagazineData<T>) retryerFactory.getFireRetryer()
-                    .call(() -> {
-                        final Integer selectedShard = getRandomShardForFire(magazineIdentifier);
-
-                        final Record pointerRecord = (Record) retryerFactory.getRetryer()
-                                .call(() -> {
-                                    final String key = createKey(magazineIdentifier, selectedShard, Constants.POINTERS);
-                                    return aerospikeClient.get(aerospikeClient.getReadPolicyDefault(),
-                                            new Key(namespace, metaSetName, key));
-                                });
-                        final long currentLoadPointer = pointerRecord.getLong(Constants.LOAD_POINTER);
-                        final long currentFirePointer = pointerRecord.getLong(Constants.FIRE_POINTER);
-
-                        MagazineData<T> magazineData = null;
-                        if (currentFirePointer < currentLoadPointer) {
-                            final long firePointer = incrementAndGetFirePointer(magazineIdentifier, selectedShard)
-                                    .getLong(Constants.FIRE_POINTER);
-                            final Record dataRecord = fireData(magazineIdentifier, selectedShard, firePointer);
-                            if (Objects.nonNull(dataRecord)) {
-                                magazineData = MagazineData.<T>builder()
-                                        .firePointer(firePointer)
-                                        .shard(selectedShard)
-                                        .magazineIdentifier(magazineIdentifier)
-                                        .data(clazz.cast(dataRecord.getValue(Constants.DATA)))
-                                        .build();
-                                incrementFireCounter(magazineIdentifier, selectedShard);
-                            }
-                        }
-                        return magazineData;
-                    });
+                    .call(() -> attemptFire(keys, attempts[0]++ > 0));
         } catch (Exception e) {
             throw handleException(e, ErrorMessage.ERROR_FIRING_DATA, magazineIdentifier, null);
         }
     }
 
-    private Record fireData(final String magazineIdentifier,
-            final Integer shard,
-            final long firePointer)
-            throws ExecutionException, RetryException {
-        return (Record) retryerFactory.getRetryer()
-                .call(() -> {
-                    final String key = createKey(magazineIdentifier, shard, String.valueOf(firePointer));
-                    return aerospikeClient.get(aerospikeClient.getReadPolicyDefault(),
-                            new Key(namespace, dataSetName, key));
-                });
+    // Returns null if the claimed pointer holds no data, so that the caller retries
+    private MagazineData<T> attemptFire(final MagazineKeys keys,
+            final boolean retry) throws Exception {
+        final FireAttemptEvent event = new FireAttemptEvent();
+        event.begin();
+        event.setMagazineIdentifier(keys.getMagazineIdentifier());
+        event.setRetry(retry);
+        event.setOutcome(FireAttemptEvent.NOTHING_TO_FIRE);
+        final int calls = ClientCalls.mark();
+        try {
+            final Pair<MagazineKeys, ActiveShards> space = getSpaceForFire(keys);
+            final MagazineKeys spaceKeys = space.getLeft();
+            final ActiveShards state = space.getRight();
+            final int selectedShard = state.shards()[selectIndexForFire(state)];
+            event.setShard(selectedShard);
+            // Owned shards are preferred, so a shard of another farm is only selected once the local slice is dry
+            final boolean owned = shardSlice.isOwned(selectedShard);
+            if (!mayDrainOtherFarms(spaceKeys, !owned)) {
+                throw nothingToFire(keys);
+            }
+            event.setOutcome(FireAttemptEvent.LOCK_BUSY); // Replaced by the claim, unless the cross-farm lock is busy
+            return owned && !shardSlice.isOpenToOtherFarms(state.shards())
+                    ? attemptFire(spaceKeys, state, selectedShard, event)
+                    : underCrossFarmLock(spaceKeys, selectedShard, null,
+                            () -> attemptFire(spaceKeys, state, selectedShard, event));
+        } finally {
+            if (event.shouldCommit()) {
+                event.setRoundTrips(ClientCalls.since(calls));
+                event.commit();
+            }
+        }
     }
 
-    private long incrementAndGetLoadPointer(final String magazineIdentifier,
-            final Integer selectedShard)
+    private MagazineData<T> attemptFire(final MagazineKeys keys,
+            final ActiveShards state,
+            final int selectedShard,
+            final FireAttemptEvent event) throws ExecutionException, RetryException, InterruptedException {
+        event.setOutcome(FireAttemptEvent.EMPTY_SHARD);
+        if (Objects.nonNull(listBuckets)) {
+            final List<?> popped = listBuckets.pop(keys, selectedShard, 1);
+            if (popped.isEmpty()) {
+                return null;
+            }
+            final MagazineData<T> magazineData = toMagazineData(keys, selectedShard, popped.get(0));
+            incrementCounter(keys, selectedShard, Constants.FIRE_COUNTER, 1);
+            event.setPointer(magazineData.getFirePointer());
+            event.setOutcome(FireAttemptEvent.FIRED);
+            return magazineData;
+        }
+        final Record pointerRecord = get(fireClaimReadPolicy, keys.pointerKey(selectedShard), POINTER_BINS);
+        if (Objects.isNull(pointerRecord)) {
+            return null;
+        }
+        final long currentLoadPointer = pointerRecord.getLong(Constants.LOAD_POINTER);
+        final long currentFirePointer = pointerRecord.getLong(Constants.FIRE_POINTER);
+
+        if (currentFirePointer >= currentLoadPointer) {
+            return null;
+        }
+        final long firePointer;
+        if (leaseTimeoutMillis > 0) {
+            // The claim writes the lease, so it has to know its pointer up front
+            if (!claimFirePointers(keys, selectedShard, pointerRecord, 1)) {
+                event.setOutcome(FireAttemptEvent.CLAIM_CONFLICT);
+                return null;
+            }
+            firePointer = currentFirePointer + 1;
+        } else {
+            firePointer = operate(fireClaimWritePolicy, keys.pointerKey(selectedShard), INCREMENT_FIRE_POINTER)
+                    .getLong(Constants.FIRE_POINTER);
+        }
+        final Record dataRecord = getData(keys.dataKey(selectedShard, firePointer));
+        event.setPointer(firePointer);
+        if (Objects.isNull(dataRecord)) {
+            event.setOutcome(FireAttemptEvent.MISSING_RECORD);
+            if (deadRunWindow > 0) {
+                skipDeadRun(keys, selectedShard, firePointer);
+            }
+            return null;
+        }
+        state.advanceHead(selectedShard, dataRecord.getLong(Constants.MODIFIED_AT));
+        final MagazineData<T> magazineData = MagazineData.<T>builder()
+                .firePointer(firePointer)
+                .shard(getShards() > 1
+                        ? selectedShard
+                        : null)
+                .magazineIdentifier(keys.getMagazineIdentifier())
+                .bucket(keys.getBucket())
+                .data(clazz.cast(dataRecord.getValue(Constants.DATA)))
+                .build();
+        incrementCounter(keys, selectedShard, Constants.FIRE_COUNTER, 1);
+        event.setOutcome(FireAttemptEvent.FIRED);
+        return magazineData;
+    }
+
+    // A missing record is rarely alone: after an outage longer than recordTtl whole ranges of pointers have expired.
+    // Instead of one claim per pointer, the modified_at of a window of pointers is batch read and FIRE_POINTER jumps
+    // past the leading run of missing records in one operate, window after window. A run is only skipped when a later
+    // record is older than the load grace, or when it fills a window ending at least a window below LOAD_POINTER, so
+    // that loads still in flight near LOAD_POINTER are left alone. Another fire moving the pointer ends the skip.
+    private void skipDeadRun(final MagazineKeys keys,
+            final int shard,
+            final long claimedPointer) throws ExecutionException, RetryException {
+        Record pointerRecord = get(fireClaimReadPolicy, keys.pointerKey(shard), POINTER_BINS);
+        long firePointer = claimedPointer;
+        while (Objects.nonNull(pointerRecord) && pointerRecord.getLong(Constants.FIRE_POINTER) == firePointer) {
+            final long loadPointer = pointerRecord.getLong(Constants.LOAD_POINTER);
+            final int window = (int) Math.min(deadRunWindow, loadPointer - firePointer);
+            if (window <= 0) {
+                return;
+            }
+            final Key[] dataKeys = new Key[window];
+            for (int i = 0; i < window; i++) {
+                dataKeys[i] = keys.dataKey(shard, firePointer + 1 + i);
+            }
+            final Record[] records = retryerFactory.call(() -> aerospikeClient.get(dataBatchPolicy, dataKeys,
+                    Constants.MODIFIED_AT));
+            int run = 0;
+            while (run < window && Objects.isNull(records[run])) {
+                run++;
+            }
+            final boolean dead = run < window
+                    ? run > 0 && records[run].getLong(Constants.MODIFIED_AT)
+                    < System.currentTimeMillis() - deadRunGraceMillis
+                    : firePointer + window <= loadPointer - deadRunWindow;
+            if (!dead) {
+                return;
+            }
+            final WritePolicy skipPolicy = new WritePolicy(fireClaimWritePolicy);
+            skipPolicy.generationPolicy = GenerationPolicy.EXPECT_GEN_EQUAL;
+            skipPolicy.generation = pointerRecord.generation;
+            pointerRecord = operateIfUnchanged(skipPolicy, keys.pointerKey(shard), new Operation[]{
+                    Operation.add(new Bin(Constants.FIRE_POINTER, (long) run)),
+                    Operation.get(Constants.FIRE_POINTER), Operation.get(Constants.LOAD_POINTER)});
+            firePointer += run;
+        }
+    }
+
+    // Claims up to maxItems pointers of one shard with a generation check, so a claim never runs past LOAD_POINTER.
+    // Returns an empty list if the shard is drained or stays contended.
+    private List<MagazineData<T>> attemptFireBatch(final MagazineKeys keys,
+            final ActiveShards state,
+            final int selectedShard,
+            final int maxItems) throws ExecutionException, RetryException {
+        if (Objects.nonNull(listBuckets)) {
+            final List<?> items = listBuckets.pop(keys, selectedShard, maxItems);
+            final List<MagazineData<T>> fired = new ArrayList<>(items.size());
+            for (Object item : items) {
+                fired.add(toMagazineData(keys, selectedShard, item));
+            }
+            if (!fired.isEmpty()) {
+                incrementCounter(keys, selectedShard, Constants.FIRE_COUNTER, fired.size());
+            }
+            return fired;
+        }
+        for (int attempt = 0; attempt < Constants.MAX_RETRIES; attempt++) {
+            final Record pointerRecord = get(fireClaimReadPolicy, keys.pointerKey(selectedShard), POINTER_BINS);
+            if (Objects.isNull(pointerRecord)) {
+                return List.of();
+            }
+            final long firePointer = pointerRecord.getLong(Constants.FIRE_POINTER);
+            final int count = (int) Math.min(maxItems, pointerRecord.getLong(Constants.LOAD_POINTER) - firePointer);
+            if (count <= 0) {
+                return List.of();
+            }
+            if (!claimFirePointers(keys, selectedShard, pointerRecord, count)) {
+                continue;
+            }
+
+            final Key[] dataKeys = new Key[count];
+            for (int i = 0; i < count; i++) {
+                dataKeys[i] = keys.dataKey(selectedShard, firePointer + 1 + i);
+            }
+            final Record[] dataRecords = batchGetData(dataKeys);
+            final List<MagazineData<T>> fired = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                if (Objects.nonNull(dataRecords[i])) {
+                    state.advanceHead(selectedShard, dataRecords[i].getLong(Constants.MODIFIED_AT));
+                    fired.add(MagazineData.<T>builder()
+                            .firePointer(firePointer + 1 + i)
+                            .shard(getShards() > 1
+                                    ? selectedShard
+                                    : null)
+                            .magazineIdentifier(keys.getMagazineIdentifier())
+                            .bucket(keys.getBucket())
+                            .data(clazz.cast(dataRecords[i].getValue(Constants.DATA)))
+                            .build());
+                }
+            }
+            if (!fired.isEmpty()) {
+                incrementCounter(keys, selectedShard, Constants.FIRE_COUNTER, fired.size());
+                return fired;
+            }
+        }
+        return List.of();
+    }
+
+    // An item of the list bucket layout is a map entry of pointer to data
+    private MagazineData<T> toMagazineData(final MagazineKeys keys,
+            final int shard,
+            final Object item) {
+        final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) item;
+        return MagazineData.<T>builder()
+                .firePointer(((Number) entry.getKey()).longValue())
+                .shard(getShards() > 1
+                        ? shard
+                        : null)
+                .magazineIdentifier(keys.getMagazineIdentifier())
+                .bucket(keys.getBucket())
+                .data(clazz.cast(entry.getValue()))
+                .build();
+    }
+
+    // Claims the count pointers after the fire pointer of a pointer record read just before, with a generation check
+    // so that a claim never runs past LOAD_POINTER. With leases on, the same operate puts their leases in the map of
+    // fire pointer to deadline kept on the pointer record, so no claimed pointer is ever without its lease.
+    // Returns false if another claim or a load changed the record first.
+    private boolean claimFirePointers(final MagazineKeys keys,
+            final int shard,
+            final Record pointerRecord,
+            final int count) {
+        final WritePolicy claimPolicy = new WritePolicy(fireClaimWritePolicy);
+        claimPolicy.generationPolicy = GenerationPolicy.EXPECT_GEN_EQUAL;
+        claimPolicy.generation = pointerRecord.generation;
+        final Operation claim = Operation.add(new Bin(Constants.FIRE_POINTER, (long) count));
+        ClientCalls.count();
+        try {
+            if (leaseTimeoutMillis > 0) {
+                final long firePointer = pointerRecord.getLong(Constants.FIRE_POINTER);
+                final Value deadline = Value.get(System.currentTimeMillis() + leaseTimeoutMillis);
+                final Map<Value, Value> leases = new HashMap<>();
+                for (int i = 1; i <= count; i++) {
+                    leases.put(Value.get(firePointer + i), deadline);
+                }
+                aerospikeClient.operate(claimPolicy, keys.pointerKey(shard), claim,
+                        MapOperation.putItems(LEASE_MAP_POLICY, Constants.LEASES, leases));
+            } else {
+                aerospikeClient.operate(claimPolicy, keys.pointerKey(shard), claim);
+            }
+            return true;
+        } catch (AerospikeException e) {
+            if (e.getResultCode() == ResultCode.GENERATION_ERROR) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    // Takes over up to maxItems expired leases of one shard with a generation check, so that each expired lease is
+    // re-offered to exactly one caller. Leases whose data is gone are dropped. A shard found without expired leases is
+    // skipped for the reoffer scan interval, which keeps the scan from adding a read to every fire.
+    private List<MagazineData<T>> reofferExpiredLeases(final MagazineKeys keys,
+            final int shard,
+            final int maxItems) throws ExecutionException, RetryException {
+        final Key leaseKey = keys.pointerKey(shard);
+        if (Objects.nonNull(quietLeaseScans) && Objects.nonNull(quietLeaseScans.getIfPresent(leaseKey))) {
+            return List.of();
+        }
+        for (int attempt = 0; attempt < Constants.MAX_RETRIES; attempt++) {
+            final long now = System.currentTimeMillis();
+            final Record leaseRecord = operate(leaseKey, new Operation[]{
+                    MapOperation.getByValueRange(Constants.LEASES, Value.get(0L), Value.get(now + 1),
+                            MapReturnType.KEY)});
+            final List<?> expired = Objects.nonNull(leaseRecord)
+                    ? leaseRecord.getList(Constants.LEASES)
+                    : null;
+            if (Objects.isNull(expired) || expired.isEmpty()) {
+                if (Objects.nonNull(quietLeaseScans)) {
+                    quietLeaseScans.put(leaseKey, Boolean.TRUE);
+                }
+                return List.of();
+            }
+            final int count = Math.min(maxItems, expired.size());
+            final Map<Value, Value> renewed = new HashMap<>();
+            final Value deadline = Value.get(now + leaseTimeoutMillis);
+            for (int i = 0; i < count; i++) {
+                renewed.put(Value.get(((Number) expired.get(i)).longValue()), deadline);
+            }
+            final WritePolicy claimPolicy = new WritePolicy(metaWritePolicy);
+            claimPolicy.generationPolicy = GenerationPolicy.EXPECT_GEN_EQUAL;
+            claimPolicy.generation = leaseRecord.generation;
+            ClientCalls.count();
+            try {
+                aerospikeClient.operate(claimPolicy, leaseKey,
+                        MapOperation.putItems(LEASE_MAP_POLICY, Constants.LEASES, renewed));
+            } catch (AerospikeException e) {
+                if (e.getResultCode() == ResultCode.GENERATION_ERROR) {
+                    continue;
+                }
+                throw e;
+            }
+
+            final Key[] dataKeys = new Key[count];
+            for (int i = 0; i < count; i++) {
+                dataKeys[i] = keys.dataKey(shard, ((Number) expired.get(i)).longValue());
+            }
+            final Record[] dataRecords = batchGetData(dataKeys);
+            final List<MagazineData<T>> reoffered = new ArrayList<>(count);
+            final List<Value> orphanLeases = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                final long pointer = ((Number) expired.get(i)).longValue();
+                if (Objects.nonNull(dataRecords[i])) {
+                    reoffered.add(MagazineData.<T>builder()
+                            .firePointer(pointer)
+                            .shard(getShards() > 1
+                                    ? shard
+                                    : null)
+                            .magazineIdentifier(keys.getMagazineIdentifier())
+                            .bucket(keys.getBucket())
+                            .data(clazz.cast(dataRecords[i].getValue(Constants.DATA)))
+                            .build());
+                } else {
+                    orphanLeases.add(Value.get(pointer));
+                }
+            }
+            if (!orphanLeases.isEmpty()) {
+                operate(leaseKey, new Operation[]{
+                        MapOperation.removeByKeyList(Constants.LEASES, orphanLeases, MapReturnType.NONE)});
+            }
+            if (!reoffered.isEmpty()) {
+                return reoffered;
+            }
+        }
+        return List.of();
+    }
+
+    private static int shardIndex(final MagazineData<?> magazineData) {
+        return Objects.nonNull(magazineData.getShard())
+                ? magazineData.getShard()
+                : 0;
+    }
+
+    private long incrementAndGetLoadPointer(final MagazineKeys keys,
+            final int selectedShard)
             throws ExecutionException,
             RetryException {
-        final Record magazineRecord = (Record) retryerFactory.getRetryer()
-                .call(() -> {
-                    final WritePolicy writePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
-                    writePolicy.recordExistsAction = RecordExistsAction.UPDATE;
-                    writePolicy.expiration = getMetaDataTtl();
-
-                    final String key = createKey(magazineIdentifier, selectedShard, Constants.POINTERS);
-                    return aerospikeClient.operate(writePolicy,
-                            new Key(namespace, metaSetName, key),
-                            Operation.add(new Bin(Constants.LOAD_POINTER, 1L)),
-                            Operation.get(Constants.LOAD_POINTER));
-                });
-
+        final Record magazineRecord = operate(loadPointerWritePolicy, keys.pointerKey(selectedShard),
+                INCREMENT_LOAD_POINTER);
         if (magazineRecord == null) {
             throw MagazineException.builder()
                     .errorCode(ErrorCode.MAGAZINE_UNPREPARED)
-                    .message(String.format(ErrorMessage.ERROR_READING_POINTERS, magazineIdentifier))
+                    .message(String.format(ErrorMessage.ERROR_READING_POINTERS, keys.getMagazineIdentifier()))
                     .build();
         }
         return magazineRecord.getLong(Constants.LOAD_POINTER);
     }
 
-    private Record incrementAndGetFirePointer(final String magazineIdentifier,
-            final Integer selectedShard)
-            throws ExecutionException,
-            RetryException {
-        return (Record) retryerFactory.getRetryer()
-                .call(() -> {
-                    final WritePolicy writePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
-                    writePolicy.recordExistsAction = RecordExistsAction.UPDATE;
-                    writePolicy.expiration = getMetaDataTtl();
-
-                    final String key = createKey(magazineIdentifier, selectedShard, Constants.POINTERS);
-                    return aerospikeClient.operate(writePolicy,
-                            new Key(namespace, metaSetName, key),
-                            Operation.add(new Bin(Constants.FIRE_POINTER, 1)),
-                            Operation.get(Constants.FIRE_POINTER));
-                });
-    }
-
-    private void incrementLoadCounter(final String magazineIdentifier,
-            final Integer selectedShard)
-            throws ExecutionException, RetryException {
-        final Record magazineRecord = (Record) retryerFactory.getRetryer()
-                .call(() -> {
-                    final WritePolicy writePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
-                    writePolicy.recordExistsAction = RecordExistsAction.UPDATE;
-                    writePolicy.expiration = getMetaDataTtl();
-
-                    final String key = createKey(magazineIdentifier, selectedShard, Constants.COUNTERS);
-                    return aerospikeClient.operate(writePolicy,
-                            new Key(namespace, metaSetName, key),
-                            Operation.add(new Bin(Constants.LOAD_COUNTER, 1L)),
-                            Operation.get(Constants.LOAD_COUNTER));
-                });
-
+    // Moves LOAD_POINTER by count in one operation and returns the first pointer of the reserved range
+    private long reserveLoadPointers(final MagazineKeys keys,
+            final int selectedShard,
+            final int count) throws ExecutionException, RetryException {
+        final Record magazineRecord = operate(loadPointerWritePolicy, keys.pointerKey(selectedShard), new Operation[]{
+                Operation.add(new Bin(Constants.LOAD_POINTER, (long) count)),
+                Operation.get(Constants.LOAD_POINTER)});
         if (magazineRecord == null) {
             throw MagazineException.builder()
                     .errorCode(ErrorCode.MAGAZINE_UNPREPARED)
-                    .message(String.format(ErrorMessage.ERROR_READING_COUNTERS, magazineIdentifier))
+                    .message(String.format(ErrorMessage.ERROR_READING_POINTERS, keys.getMagazineIdentifier()))
                     .build();
         }
+        return magazineRecord.getLong(Constants.LOAD_POINTER) - count + 1;
     }
 
-    private void incrementFireCounter(final String magazineIdentifier,
-            final Integer shard) throws ExecutionException,
-            RetryException {
-        final Record magazineRecord = (Record) retryerFactory.getRetryer()
-                .call(() -> {
-                    final WritePolicy writePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
-                    writePolicy.recordExistsAction = RecordExistsAction.UPDATE;
-                    writePolicy.expiration = getMetaDataTtl();
-
-                    final String key = createKey(magazineIdentifier, shard, Constants.COUNTERS);
-                    return aerospikeClient.operate(writePolicy,
-                            new Key(namespace, metaSetName, key),
-                            Operation.add(new Bin(Constants.FIRE_COUNTER, 1L)),
-                            Operation.get(Constants.FIRE_COUNTER));
-                });
+    // Counter updates are accumulated locally when counter flushing is enabled, written right away otherwise
+    private void incrementCounter(final MagazineKeys keys,
+            final int selectedShard,
+            final String bin,
+            final long delta) throws ExecutionException, RetryException {
+        if (Objects.nonNull(counterAccumulator)) {
+            counterAccumulator.add(keys, selectedShard, bin, delta);
+            return;
+        }
+        final Operation[] operations;
+        if (delta == 1) {
+            operations = Constants.LOAD_COUNTER.equals(bin) ? INCREMENT_LOAD_COUNTER : INCREMENT_FIRE_COUNTER;
+        } else if (delta == -1 && Constants.FIRE_COUNTER.equals(bin)) {
+            operations = DECREMENT_FIRE_COUNTER;
+        } else {
+            operations = new Operation[]{Operation.add(new Bin(bin, delta)), Operation.get(bin)};
+        }
+        updateCounter(keys, selectedShard, operations);
+    }
 
+    private void updateCounter(final MagazineKeys keys,
+            final int selectedShard,
+            final Operation[] operations)
+            throws ExecutionException, RetryException {
+        final Record magazineRecord = operate(keys.counterKey(selectedShard), operations);
         if (magazineRecord == null) {
             throw MagazineException.builder()
                     .errorCode(ErrorCode.MAGAZINE_UNPREPARED)
-                    .message(String.format(ErrorMessage.ERROR_READING_COUNTERS, magazineIdentifier))
+                    .message(String.format(ErrorMessage.ERROR_READING_COUNTERS, keys.getMagazineIdentifier()))
                     .build();
         }
     }
 
-    private void decrementFireCounter(final String magazineIdentifier,
-            final Integer selectedShard)
-            throws ExecutionException,
-            RetryException {
-        final Record magazineRecord = (Record) retryerFactory.getRetryer()
-                .call(() -> {
-                    final WritePolicy writePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
-                    writePolicy.recordExistsAction = RecordExistsAction.UPDATE;
-                    writePolicy.expiration = getMetaDataTtl();
-
-                    final String key = createKey(magazineIdentifier, selectedShard, Constants.COUNTERS);
-                    return aerospikeClient.operate(writePolicy,
-                            new Key(namespace, metaSetName, key),
-                            Operation.add(new Bin(Constants.FIRE_COUNTER, -1L)),
-                            Operation.get(Constants.FIRE_COUNTER));
-                });
+    // Per-record failures are left in each record's result code. A failure of the whole batch is retried, and throws
+    // once retries run out. Returns the number of attempts made.
+    private int batchOperate(final BatchPolicy batchPolicy,
+            final List<BatchRecord> records) throws ExecutionException, RetryException {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        final int[] attempts = {0};
+        retryerFactory.call(() -> {
+            attempts[0]++;
+            return aerospikeClient.operate(batchPolicy, records);
+        });
+        return attempts[0];
+    }
 
-        if (magazineRecord == null) {
-            throw MagazineException.builder()
-                    .errorCode(ErrorCode.MAGAZINE_UNPREPARED)
-                    .message(String.format(ErrorMessage.ERROR_READING_COUNTERS, magazineIdentifier))
-                    .build();
+    // Single read, retried only if the first attempt fails
+    private Record get(final Policy policy,
+            final Key key) throws ExecutionException, RetryException {
+        return retryerFactory.call(() -> aerospikeClient.get(policy, key));
+    }
+
+    private Record get(final Policy policy,
+            final Key key,
+            final String... binNames) throws ExecutionException, RetryException {
+        return retryerFactory.call(() -> aerospikeClient.get(policy, key, binNames));
+    }
+
+    // Operate on a meta record, retried only if the first attempt fails
+    private Record operate(final Key key,
+            final Operation[] operations) throws ExecutionException, RetryException {
+        return operate(metaWritePolicy, key, operations);
+    }
+
+    private Record operate(final WritePolicy writePolicy,
+            final Key key,
+            final Operation[] operations) throws ExecutionException, RetryException {
+        return retryerFactory.call(() -> aerospikeClient.operate(writePolicy, key, operations));
+    }
+
+    // Operate with a generation check, retried like operate. Null once the record has changed since it was read, with
+    // no further attempts; that includes a retry after an attempt that went through without an answer.
+    private Record operateIfUnchanged(final WritePolicy writePolicy,
+            final Key key,
+            final Operation[] operations) throws ExecutionException, RetryException {
+        return retryerFactory.call(() -> {
+            try {
+                return aerospikeClient.operate(writePolicy, key, operations);
+            } catch (AerospikeException e) {
+                if (e.getResultCode() == ResultCode.GENERATION_ERROR) {
+                    return null;
+                }
+                throw e;
+            }
+        });
+    }
+
+    private Record[] batchGet(final Key[] keys) throws ExecutionException, RetryException {
+        return retryerFactory.call(() -> aerospikeClient.get(metaBatchPolicy, keys));
+    }
+
+    // Data reads of fire, with the configured replica and hedging
+    private Record getData(final Key key) throws ExecutionException, RetryException {
+        return retryerFactory.call(() -> Objects.isNull(dataHedgedReader)
+                        ? aerospikeClient.get(dataReadPolicy, key)
+                        : dataHedgedReader.read(() -> aerospikeClient.get(dataReadPolicy, key),
+                                () -> aerospikeClient.get(hedgeReadPolicy, key)),
+                () -> aerospikeClient.get(dataReadPolicy, key));
+    }
+
+    // Data batch reads of peek and batched fire, with the configured replica and hedging
+    private Record[] batchGetData(final Key[] keys) throws ExecutionException, RetryException {
+        return retryerFactory.call(() -> Objects.isNull(batchHedgedReader)
+                ? aerospikeClient.get(dataBatchPolicy, keys)
+                : batchHedgedReader.read(() -> aerospikeClient.get(dataBatchPolicy, keys),
+                        () -> aerospikeClient.get(hedgeBatchPolicy, keys)));
+    }
+
+    // Select a random active shard to fire data from, preferring the shards owned by this farm. In approximate-FIFO
+    // order the older head of two such picks wins, so old items go first without every fire landing on one shard.
+    private int selectIndexForFire(final ActiveShards state) {
+        final int[] activeShards = state.shards();
+        final int first = shardSlice.selectIndexForFire(activeShards);
+        if (!trackHeads || !state.hasHeads() || activeShards.length == 1) {
+            return first;
         }
+        final int second = shardSlice.selectIndexForFire(activeShards);
+        return state.headModifiedAt(second) < state.headModifiedAt(first)
+                ? second
+                : first;
     }
 
-    // Select any random shard from active shards to fire data
-    private Integer getRandomShardForFire(final String magazineIdentifier) throws InterruptedException,
-            ExecutionException {
-        final List<String> activeShards = getActiveShards(magazineIdentifier);
-        return getShards() > 1
-                ? Integer.parseInt(activeShards.get(random.nextInt(activeShards.size()))
-                .split(Constants.KEY_DELIMITER)[1])
-                : null;
+    // Pointers of a shard owned by another farm are only claimed under a cross-farm lock, so that farms running dry
+    // do not race each other on them. Owners take the same lock while another farm may be draining their slice.
+    // Returns the fallback value if another farm holds the lock.
+    private <R> R underCrossFarmLock(final MagazineKeys keys,
+            final int shard,
+            final R fallback,
+            final Callable<R> action) throws Exception {
+        final Lock lock = lockManager.getLockInstance(keys.pointerKey(shard).userKey.toString(), LockLevel.XDC);
+        try {
+            acquireLock(keys.getMagazineIdentifier(), lock);
+        } catch (DLMException e) {
+            return fallback;
+        }
+        try {
+            return action.call();
+        } finally {
+            lockManager.releaseLock(lock);
+        }
     }
 
-    // Get active shards from cache and throw exception if there is nothing to fire in any shard
-    private List<String> getActiveShards(final String magazineIdentifier) throws InterruptedException,
-            ExecutionException {
-        final List<String> activeShards = activeShardsCache.get(magazineIdentifier)
-                .get();
-        if (activeShards.isEmpty()) {
-            throw MagazineException.builder()
-                    .errorCode(ErrorCode.NOTHING_TO_FIRE)
-                    .message(String.format(ErrorMessage.NO_DATA_TO_FIRE, magazineIdentifier))
-                    .build();
+    // Tracks how long the local slice of a pointer space has been dry, and returns false while it has not been dry
+    // for the drain grace yet. A slice with an active shard is not dry, and may always be fired from.
+    private boolean mayDrainOtherFarms(final MagazineKeys keys,
+            final boolean ownSliceDry) {
+        final AtomicLong drySince = keys.getOwnSliceDrySince();
+        if (!ownSliceDry) {
+            if (drySince.get() != 0) {
+                drySince.set(0);
+            }
+            return true;
         }
-        return activeShards;
+        final long now = System.currentTimeMillis();
+        drySince.compareAndSet(0, now);
+        return now - drySince.get() >= drainGraceMillis;
+    }
+
+    // Get a pointer space to fire from and throw exception if there is nothing to fire in any shard of any space
+    private Pair<MagazineKeys, ActiveShards> getSpaceForFire(final MagazineKeys keys)
+            throws ExecutionException, RetryException {
+        final Pair<MagazineKeys, ActiveShards> space = selectSpaceForFire(keys);
+        if (space.getRight().shards().length == 0) {
+            throw nothingToFire(keys);
+        }
+        return space;
+    }
+
+    private static MagazineException nothingToFire(final MagazineKeys keys) {
+        return MagazineException.builder()
+                .errorCode(ErrorCode.NOTHING_TO_FIRE)
+                .message(String.format(ErrorMessage.NO_DATA_TO_FIRE, keys.getMagazineIdentifier()))
+                .build();
+    }
+
+    // The magazine's own pointer space or one of its open delay buckets, picked in proportion to their active shards.
+    // Everything comes from cached state, a ready bucket costs a fire no extra round trip.
+    private Pair<MagazineKeys, ActiveShards> selectSpaceForFire(final MagazineKeys keys)
+            throws ExecutionException, RetryException {
+        final ActiveShards activeShards = activeShards(keys);
+        if (Objects.isNull(delayBucketIndex)) {
+            return Pair.of(keys, activeShards);
+        }
+        final Collection<MagazineKeys> openSpaces = delayBucketIndex.openSpaces(keys.getMagazineIdentifier());
+        if (openSpaces.isEmpty()) {
+            return Pair.of(keys, activeShards);
+        }
+        final List<Pair<MagazineKeys, ActiveShards>> candidates = new ArrayList<>(openSpaces.size() + 1);
+        candidates.add(Pair.of(keys, activeShards));
+        int total = activeShards.shards().length;
+        for (MagazineKeys spaceKeys : openSpaces) {
+            final ActiveShards spaceShards = activeShards(spaceKeys);
+            if (spaceShards.shards().length > 0) {
+                candidates.add(Pair.of(spaceKeys, spaceShards));
+                total += spaceShards.shards().length;
+            }
+        }
+        if (total == 0) {
+            return candidates.get(0);
+        }
+        int remaining = ThreadLocalRandom.current()
+                .nextInt(total);
+        for (Pair<MagazineKeys, ActiveShards> candidate : candidates) {
+            remaining -= candidate.getRight().shards().length;
+            if (remaining < 0) {
+                return candidate;
+            }
+        }
+        return candidates.get(0);
+    }
+
+    // The magazine's own pointer space followed by its open delay buckets
+    private List<MagazineKeys> spacesOf(final MagazineKeys keys) throws ExecutionException, RetryException {
+        if (Objects.isNull(delayBucketIndex)) {
+            return List.of(keys);
+        }
+        final List<MagazineKeys> spaces = new ArrayList<>();
+        spaces.add(keys);
+        spaces.addAll(delayBucketIndex.openSpaces(keys.getMagazineIdentifier()));
+        return spaces;
+    }
+
+    // Keys of the pointer space the data was fired from
+    private MagazineKeys keysOf(final String magazineIdentifier,
+            final MagazineData<T> magazineData) {
+        if (Objects.isNull(magazineData.getBucket())) {
+            return getMagazineKeys(magazineIdentifier);
+        }
+        return Objects.nonNull(delayBucketIndex)
+                ? delayBucketIndex.keysOf(magazineIdentifier, magazineData.getBucket())
+                : new MagazineKeys(magazineIdentifier, magazineData.getBucket(), namespace, dataSetName, metaSetName,
+                        getShards());
+    }
+
+    private MagazineKeys getMagazineKeys(final String magazineIdentifier) {
+        final MagazineKeys keys = magazineKeys.get(magazineIdentifier);
+        return Objects.nonNull(keys)
+                ? keys
+                : magazineKeys.computeIfAbsent(magazineIdentifier,
+                        identifier -> new MagazineKeys(identifier, namespace, dataSetName, metaSetName, getShards()));
     }
 
     // Key contains shard number if shard is non null
@@ -474,63 +1588,260 @@ public class AerospikeStorage<T> extends BaseMagazineStorage<T> {
                 : String.join(Constants.KEY_DELIMITER, magazineIdentifier, suffix);
     }
 
-    // Generate keys for batch read in case of sharded magazine
-    private Key[] createMetaKeys(final String magazineIdentifier,
-            final String suffix) {
-        return getShards() > 1
-                ? IntStream.range(0, getShards())
-                .boxed()
-                .map(shard -> new Key(namespace,
-                        metaSetName,
-                        String.join(Constants.KEY_DELIMITER,
-                                magazineIdentifier,
-                                Constants.SHARD_PREFIX,
-                                String.valueOf(shard),
-                                suffix)))
-                .toArray(Key[]::new)
-                : new Key[]{new Key(namespace,
-                        metaSetName,
-                        String.join(Constants.KEY_DELIMITER, magazineIdentifier, suffix))};
-    }
-
-    // return null if magazine is unsharded or have 1 shard, else select any random shard
-    private Integer selectShard() {
-        return getShards() > 1
-                ? random.nextInt(getShards())
-                : null;
+    // Index 0 is the only shard of an unsharded magazine
+    private int selectShard() {
+        return shardSlice.randomOwnedShard();
     }
 
-    // return false if data already exists in the magazine
-    private boolean alreadyExists(final String magazineIdentifier,
-            final T data)
-            throws ExecutionException, RetryException {
-        return (Boolean) retryerFactory.getRetryer()
-                .call(() -> aerospikeClient.exists(aerospikeClient.getReadPolicyDefault(),
-                        buildDeDuperKey(magazineIdentifier, data)));
+    // Returns false if the data is a duplicate, true if its dedupe key is now claimed for this load
+    private boolean claimDeDupeKey(final String magazineIdentifier,
+            final DeDupeKey deDupeKey) throws ExecutionException, RetryException {
+        final DeDupeCheckEvent event = new DeDupeCheckEvent();
+        event.begin();
+        final int calls = ClientCalls.mark();
+        try {
+            final BatchRecord claim = claimDeDupeKeys(List.of(deDupeKey)).get(0);
+            if (claim.resultCode == ResultCode.KEY_BUSY) {
+                throw parallelAttempt(magazineIdentifier);
+            }
+            if (claim.resultCode != ResultCode.OK && claim.resultCode != ResultCode.KEY_EXISTS_ERROR) {
+                throw new AerospikeException(claim.resultCode, claim.inDoubt);
+            }
+            event.setDuplicate(claim.resultCode == ResultCode.KEY_EXISTS_ERROR);
+            return claim.resultCode == ResultCode.OK;
+        } finally {
+            if (event.shouldCommit()) {
+                event.setMagazineIdentifier(magazineIdentifier);
+                event.setRoundTrips(ClientCalls.since(calls));
+                event.commit();
+            }
+        }
     }
 
-    private void storeDataForDeDupe(final String magazineIdentifier,
-            final T data)
+    // Claims dedupe keys with create-only writes to the deduper set, the atomic "seen before?" check of load and
+    // loadBatch alike. A claim holds a token of its own until the load commits it. An existing key is read back: it is
+    // a duplicate once committed, claimed by a load still in flight while it holds another token, and ours if it holds
+    // our token, written by an attempt whose response was lost. Returns the claims in order, with OK as the result
+    // code of the claimed ones, KEY_EXISTS_ERROR for duplicates and KEY_BUSY for keys claimed by another load.
+    private List<BatchRecord> claimDeDupeKeys(final List<DeDupeKey> deDupeKeys)
             throws ExecutionException, RetryException {
-        retryerFactory.getRetryer()
-                .call(() -> {
-                    final WritePolicy writePolicy = new WritePolicy(aerospikeClient.getWritePolicyDefault());
-                    writePolicy.expiration = getRecordTtl();
-                    writePolicy.sendKey = false;
-                    aerospikeClient.put(writePolicy,
-                            buildDeDuperKey(magazineIdentifier, data),
-                            new Bin(Constants.MODIFIED_AT, System.currentTimeMillis()));
+        final long[] tokens = new long[deDupeKeys.size()];
+        final List<BatchRecord> claims = new ArrayList<>(deDupeKeys.size());
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = ThreadLocalRandom.current()
+                    .nextLong();
+            claims.add(new BatchWrite(deDupeBatchWritePolicy, deDuperKey(deDupeKeys.get(i)),
+                    claimOperations(tokens[i])));
+        }
+        batchOperate(deDupeBatchPolicy, claims);
+        final List<Integer> readBack = new ArrayList<>();
+        for (int i = 0; i < claims.size(); i++) {
+            final BatchRecord claim = claims.get(i);
+            if (claim.resultCode == ResultCode.KEY_EXISTS_ERROR
+                    || (claim.resultCode != ResultCode.OK && claim.inDoubt)) {
+                readBack.add(i);
+            }
+        }
+        if (readBack.isEmpty()) {
+            return claims;
+        }
+        final Key[] readBackKeys = readBack.stream()
+                .map(i -> claims.get(i).key)
+                .toArray(Key[]::new);
+        final Record[] records = retryerFactory.call(
+                () -> aerospikeClient.get(deDupeBatchPolicy, readBackKeys, Constants.CLAIM_TOKEN));
+        for (int j = 0; j < records.length; j++) {
+            final int i = readBack.get(j);
+            final BatchRecord claim = claims.get(i);
+            if (Objects.isNull(records[j])) {
+                // Released or expired since, by a load that was in flight
+                if (claim.resultCode == ResultCode.KEY_EXISTS_ERROR) {
+                    claim.resultCode = ResultCode.KEY_BUSY;
+                }
+                continue;
+            }
+            final Object token = records[j].getValue(Constants.CLAIM_TOKEN);
+            if (Objects.isNull(token)) {
+                claim.resultCode = ResultCode.KEY_EXISTS_ERROR;
+                if (Objects.nonNull(deDupeNearCache)) {
+                    deDupeNearCache.markSeen(deDupeKeys.get(i).getLockId(), records[j].getTimeToLive());
+                }
+            } else {
+                claim.resultCode = ((Number) token).longValue() == tokens[i]
+                        ? ResultCode.OK
+                        : ResultCode.KEY_BUSY;
+            }
+        }
+        return claims;
+    }
+
+    // Claims the dedupe key of reloaded data, which is usually committed by the load of that data already. Generation
+    // checked, so that of several loads and reloads of the data only one claims it. Fails if another holds a claim.
+    private void reclaimDeDupeKey(final String magazineIdentifier,
+            final DeDupeKey deDupeKey) throws ExecutionException, RetryException {
+        final Key key = deDuperKey(deDupeKey);
+        final long token = ThreadLocalRandom.current()
+                .nextLong();
+        final Operation[] operations = claimOperations(token);
+        for (int attempt = 0; attempt < Constants.MAX_RETRIES; attempt++) {
+            final Record record = get(deDupeBatchPolicy, key, Constants.CLAIM_TOKEN);
+            final Object heldToken = Objects.nonNull(record)
+                    ? record.getValue(Constants.CLAIM_TOKEN)
+                    : null;
+            if (Objects.nonNull(heldToken)) {
+                if (((Number) heldToken).longValue() == token) {
+                    return; // An attempt whose response was lost
+                }
+                throw parallelAttempt(magazineIdentifier);
+            }
+            final WritePolicy policy = new WritePolicy(deDupeWritePolicy);
+            if (Objects.isNull(record)) {
+                policy.recordExistsAction = RecordExistsAction.CREATE_ONLY;
+            } else {
+                policy.generationPolicy = GenerationPolicy.EXPECT_GEN_EQUAL;
+                policy.generation = record.generation;
+            }
+            final boolean written = retryerFactory.call(() -> {
+                try {
+                    aerospikeClient.operate(policy, key, operations);
                     return true;
-                });
+                } catch (AerospikeException e) {
+                    if (e.getResultCode() == ResultCode.KEY_EXISTS_ERROR
+                            || e.getResultCode() == ResultCode.GENERATION_ERROR) {
+                        return false;
+                    }
+                    throw e;
+                }
+            });
+            if (written) {
+                return;
+            }
+        }
+        throw parallelAttempt(magazineIdentifier);
     }
 
-    private Key buildDeDuperKey(String magazineIdentifier,
-            T data) {
-        return new Key(
-                namespace,
-                CommonUtils.resolveSetName(DEDUPER_SET_FORMAT.formatted(getClientId()), getFarmId(), getScope()),
-                magazineIdentifier + data
-        );
+    // Best effort: the data is stored either way, and a claim left uncommitted only expires early, after the claim TTL.
+    // Committed keys go to the near cache for the TTL their deduper record was written with.
+    private void commitDeDupeKeys(final List<DeDupeKey> deDupeKeys) {
+        final List<BatchRecord> commits = new ArrayList<>(deDupeKeys.size());
+        for (DeDupeKey deDupeKey : deDupeKeys) {
+            commits.add(new BatchWrite(deDupeCommitBatchWritePolicy, deDuperKey(deDupeKey), COMMIT_DEDUPE_KEY));
+        }
+        try {
+            batchOperate(deDupeBatchPolicy, commits);
+        } catch (Exception e) {
+            return;
+        }
+        if (Objects.isNull(deDupeNearCache)) {
+            return;
+        }
+        for (int i = 0; i < commits.size(); i++) {
+            final BatchRecord commit = commits.get(i);
+            if (commit.resultCode == ResultCode.OK && Objects.nonNull(commit.record)) {
+                deDupeNearCache.markSeen(deDupeKeys.get(i).getLockId(), commit.record.getTimeToLive());
+            }
+        }
+    }
+
+    private static Operation[] claimOperations(final long token) {
+        return new Operation[]{
+                Operation.put(new Bin(Constants.MODIFIED_AT, System.currentTimeMillis())),
+                Operation.put(new Bin(Constants.CLAIM_TOKEN, token))};
+    }
+
+    private static MagazineException parallelAttempt(final String magazineIdentifier) {
+        return MagazineException.builder()
+                .errorCode(ErrorCode.ACTION_DENIED_PARALLEL_ATTEMPT)
+                .message(String.format(ErrorMessage.DEDUPE_KEY_CLAIMED, magazineIdentifier))
+                .build();
+    }
+
+    // A claimed key whose data was not loaded must not stay marked as seen, or loading the data again would be
+    // rejected as a duplicate
+    private void releaseDeDupeKeys(final List<DeDupeKey> deDupeKeys) throws ExecutionException, RetryException {
+        final Key[] keys = deDupeKeys.stream()
+                .map(this::deDuperKey)
+                .toArray(Key[]::new);
+        retryerFactory.call(() -> aerospikeClient.delete(deDupeBatchPolicy,
+                aerospikeClient.getBatchDeletePolicyDefault(), keys));
+    }
+
+    // Releases the keys claimed by a load that failed, keeping a failure to release alongside the load's failure
+    private void releaseDeDupeKeys(final List<DeDupeKey> deDupeKeys,
+            final Exception loadFailure) {
+        try {
+            releaseDeDupeKeys(deDupeKeys);
+        } catch (Exception e) {
+            loadFailure.addSuppressed(e);
+        }
+    }
+
+    private Key deDuperKey(final DeDupeKey deDupeKey) {
+        return new Key(namespace, deDuperSetName, deDupeKey.getUserKey());
+    }
+
+    private static void commitNearCacheHit(final String magazineIdentifier) {
+        final DeDupeCheckEvent event = new DeDupeCheckEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            event.setMagazineIdentifier(magazineIdentifier);
+            event.setDuplicate(true);
+            event.setNearCache(true);
+            event.commit();
+        }
+    }
+
+    // Exception is thrown if acquiring the lock fails
+    private void acquireLock(final String magazineIdentifier,
+            final Lock lock) {
+        final LockEvent event = new LockEvent();
+        event.begin();
+        final int calls = ClientCalls.mark();
+        try {
+            lockManager.tryAcquireLock(lock);
+            event.setAcquired(true);
+        } finally {
+            if (event.shouldCommit()) {
+                event.setMagazineIdentifier(magazineIdentifier);
+                event.setLockId(lock.getLockId());
+                event.setRoundTrips(ClientCalls.since(calls));
+                event.commit();
+            }
+        }
+    }
+
+    // Lock id and deduper user key are derived from the same identity, so the lock guards exactly the deduper record
+    private DeDupeKey buildDeDupeKey(final String magazineIdentifier,
+            final T data) {
+        return deDupeKeyMode.accept(new DeDupeKeyMode.Visitor<>() {
+            @Override
+            public DeDupeKey visitToString() {
+                return new DeDupeKey(String.join(Constants.KEY_DELIMITER, magazineIdentifier, data.toString()),
+                        Value.get(magazineIdentifier + data));
+            }
+
+            @Override
+            public DeDupeKey visitHash() {
+                final byte[] identifier = magazineIdentifier.getBytes(StandardCharsets.UTF_8);
+                final byte[] identity = deDupeKeyExtractor.extract(data);
+                final byte[] hash = HashUtils.murmur3Hash128(ByteBuffer
+                        .allocate(identifier.length + 1 + identity.length)
+                        .put(identifier)
+                        .put((byte) 0) // Separator, so that identifier and identity cannot bleed into each other
+                        .put(identity)
+                        .array());
+                return new DeDupeKey(String.join(Constants.KEY_DELIMITER, magazineIdentifier, HashUtils.toHex(hash)),
+                        Value.get(hash));
+            }
+        });
+    }
+
+    // Default identity for hashing, the payload as the Aerospike client serializes it into the data bin
+    private static byte[] packValue(final Object data) {
+        final Value value = Value.get(data);
+        final byte[] bytes = new byte[value.estimateSize()];
+        value.write(bytes, 0);
+        return bytes;
     }
 
     private List<Pair<Key, MagazineData.MagazineDataBuilder<T>>> buildKeyAndMagazineDataList(
@@ -559,19 +1870,110 @@ public class AerospikeStorage<T> extends BaseMagazineStorage<T> {
                 .toList();
     }
 
-    private AsyncLoadingCache<String, List<String>> initializeCache() {
-        return Caffeine.newBuilder()
-                .maximumSize(Constants.DEFAULT_MAX_ELEMENTS)
-                .refreshAfterWrite(Constants.DEFAULT_REFRESH, TimeUnit.SECONDS)
-                .buildAsync(key -> getMetaData(key).entrySet()
-                        .stream()
-                        .filter(entry -> {
-                            final MetaData metaData = entry.getValue();
-                            return ((metaData.getLoadCounter() > metaData.getFireCounter())
-                                    && (metaData.getLoadPointer() > metaData.getFirePointer()));
-                        })
-                        .map(Map.Entry::getKey)
-                        .toList());
+    // Active shards as of the last refresh of the shared runtime, loaded right away the first time
+    private ActiveShards activeShards(final MagazineKeys keys) throws ExecutionException, RetryException {
+        return runtime.getActiveShardsRefresher()
+                .activeShards(keys, metaBatchPolicy, trackHeads);
+    }
+
+    private static long getLong(final Record record,
+            final String bin) {
+        return Objects.nonNull(record)
+                ? record.getLong(bin)
+                : 0L;
+    }
+
+    /**
+     * Write counter updates accumulated locally, stop the periodic work of this storage and release the shared runtime
+     * if it came from {@link MagazineRuntime#shared}. Later calls do nothing.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (Objects.nonNull(delayBucketIndex)) {
+            delayBucketIndex.close();
+        }
+        if (Objects.nonNull(counterAccumulator)) {
+            runtime.getActiveShardsRefresher().unregister(counterAccumulator);
+            counterAccumulator.close();
+        }
+        if (sharedRuntime) {
+            runtime.release();
+        }
+    }
+
+    /**
+     * Hit and miss statistics of the local dedupe near-cache.
+     *
+     * @return Near-cache statistics, empty if the near-cache is disabled.
+     */
+    public CacheStats getDeDupeCacheStats() {
+        return Objects.nonNull(deDupeNearCache)
+                ? deDupeNearCache.stats()
+                : CacheStats.empty();
+    }
+
+    /**
+     * @return Hedging counters of single data reads, all zero when hedging is disabled.
+     */
+    public HedgeStats getDataReadHedgeStats() {
+        return Objects.nonNull(dataHedgedReader)
+                ? dataHedgedReader.getStats()
+                : HedgeStats.builder()
+                        .build();
+    }
+
+    /**
+     * @return Hedging counters of batch data reads, all zero when hedging is disabled.
+     */
+    public HedgeStats getBatchReadHedgeStats() {
+        return Objects.nonNull(batchHedgedReader)
+                ? batchHedgedReader.getStats()
+                : HedgeStats.builder()
+                        .build();
+    }
+
+    // Pointer-addressed reads need a record per item
+    private void requireRecordPerItem(final String operation) {
+        if (Objects.nonNull(listBuckets)) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.NOT_IMPLEMENTED)
+                    .message(String.format(ErrorMessage.NOT_SUPPORTED_BY_LIST_BUCKETS, operation))
+                    .build();
+        }
+    }
+
+    // Peeks address pointers of the magazine's own pointer space, and cannot tell which bucket a pointer belongs to
+    private void requireNoDelayBuckets(final String operation) {
+        if (Objects.nonNull(delayBucketIndex)) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.NOT_IMPLEMENTED)
+                    .message(String.format(ErrorMessage.NOT_SUPPORTED_WITH_DELAYED_DELIVERY, operation))
+                    .build();
+        }
+    }
+
+    // Longest a load may still write into a delay bucket after picking it: all attempts of the load pointer and data
+    // writes. Retirement of drained buckets must wait longer than this.
+    private long loadBudgetMillis() {
+        final long attemptMillis = Math.max(attemptTimeoutMillis(loadPointerWritePolicy),
+                attemptTimeoutMillis(loadWritePolicy));
+        if (attemptMillis == 0) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.INVALID_CONFIG)
+                    .message(ErrorMessage.UNBOUNDED_LOAD_TIMEOUT)
+                    .build();
+        }
+        return 2L * Constants.MAX_RETRIES * (attemptMillis + Constants.DELAY_BETWEEN_RETRIES);
+    }
+
+    // Time a client call may take, the client's own retries included, 0 if unbounded
+    private static long attemptTimeoutMillis(final Policy policy) {
+        return policy.totalTimeout > 0
+                ? policy.totalTimeout
+                : (long) policy.socketTimeout * (policy.maxRetries + 1);
     }
 
     private void validateDataType(final T data) {
@@ -16,11 +16,13 @@
 
 package com.phonepe.magazine.impl.aerospike;
 
+import com.phonepe.magazine.core.FireOrder;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 
@@ -45,4 +47,29 @@ public class AerospikeStorageConfig {
     @Min(-2)
     @Builder.Default
     private int metaDataTtl = 2 * 30 * 24 * 60 * 60; // 2 months default TTL
+    @Min(1)
+    @Builder.Default
+    private int deDupeClaimTtl = 60; // Seconds a dedupe key stays claimed by a load that has not stored its data yet
+    @Valid
+    private DeDupeCacheConfig deDupeCacheConfig; // Local near-cache of dedupe keys, disabled if absent
+    @Valid
+    private LeaseConfig leaseConfig; // Visibility-timeout leases on fired data, disabled if absent
+    @Valid
+    private DataReadConfig dataReadConfig; // Replica and hedging of fire and peek data reads, client defaults if absent
+    @Valid
+    private PolicyProfiles policyProfiles; // Timeouts, retries and commit level per operation kind
+    @Valid
+    private CounterFlushConfig counterFlushConfig; // Locally accumulated counters, written on every update if absent
+    @Valid
+    private GlobalScopeConfig globalScopeConfig; // Shard slice per farm of a GLOBAL magazine
+    @Valid
+    private DelayedDeliveryConfig delayedDeliveryConfig; // Time buckets of loads with a not-before time
+    @Valid
+    private DeadRunConfig deadRunConfig; // Skipping of expired or missing pointer runs on fire, disabled if absent
+    @Valid
+    private ActiveShardsRefreshConfig activeShardsRefreshConfig; // Of the shared runtime, if this storage creates it
+    @Valid
+    private ListBucketConfig listBucketConfig; // Items in list bins of bucket records, a record per item if absent
+    @Builder.Default
+    private FireOrder fireOrder = FireOrder.RANDOM; // Shard picked per fire, oldest head first in APPROXIMATE_FIFO
 }
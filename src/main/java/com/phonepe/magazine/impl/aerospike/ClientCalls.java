@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Aerospike client calls made by the current thread, every attempt counted, for the round trips of the Flight
+ * Recorder events. Calls through {@link AerospikeRetryerFactory#call} are counted there, the few made outside it count
+ * themselves, and the lock manager's calls are counted by the client {@link #counting} wraps for it.
+ */
+final class ClientCalls {
+
+    private static final ThreadLocal<int[]> CALLS = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ClientCalls() {
+    }
+
+    static void count() {
+        CALLS.get()[0]++;
+    }
+
+    /**
+     * @return Calls made by the current thread so far, to be passed to {@link #since}.
+     */
+    static int mark() {
+        return CALLS.get()[0];
+    }
+
+    static int since(final int mark) {
+        return CALLS.get()[0] - mark;
+    }
+
+    /**
+     * @param client Client to wrap.
+     * @return A client counting the calls that reach the server, those taking a key, keys or batch records.
+     */
+    static IAerospikeClient counting(final IAerospikeClient client) {
+        return (IAerospikeClient) Proxy.newProxyInstance(IAerospikeClient.class.getClassLoader(),
+                new Class[]{IAerospikeClient.class},
+                (proxy, method, args) -> {
+                    if (isServerCall(method)) {
+                        count();
+                    }
+                    try {
+                        return method.invoke(client, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static boolean isServerCall(final Method method) {
+        for (Class<?> type : method.getParameterTypes()) {
+            if (type == Key.class || type == Key[].class || type == List.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
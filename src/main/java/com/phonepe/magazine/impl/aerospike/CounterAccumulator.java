@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchWrite;
+import com.aerospike.client.Bin;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.phonepe.magazine.common.Constants;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates LOAD_COUNTER and FIRE_COUNTER deltas locally and writes them to the COUNTERS records in one batch,
+ * every flush interval or once the flush threshold of updates is reached. Counters only feed metadata and the
+ * active-shard filter, so they may lag by up to one interval; claims rely on the pointers alone.
+ */
+class CounterAccumulator {
+
+    private final IAerospikeClient aerospikeClient;
+    private final BatchPolicy batchPolicy;
+    private final BatchWritePolicy writePolicy;
+    private final int shards;
+    private final long flushThreshold;
+    // Keyed by the first pointer key of each pointer space, as a delay bucket shares its magazine's identifier
+    private final Map<Key, ShardDeltas> deltas = new ConcurrentHashMap<>();
+    private final LongAdder pendingUpdates = new LongAdder();
+    private final AtomicBoolean thresholdFlushQueued = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+    private final ScheduledFuture<?> periodicFlush;
+    private volatile boolean closed;
+
+    CounterAccumulator(final IAerospikeClient aerospikeClient,
+            final BatchPolicy batchPolicy,
+            final BatchWritePolicy writePolicy,
+            final int shards,
+            final CounterFlushConfig config,
+            final ScheduledExecutorService scheduler) {
+        this.aerospikeClient = aerospikeClient;
+        this.batchPolicy = batchPolicy;
+        this.writePolicy = writePolicy;
+        this.shards = shards;
+        this.flushThreshold = config.getFlushThreshold();
+        this.scheduler = scheduler;
+        this.periodicFlush = scheduler.scheduleWithFixedDelay(this::flushQuietly, config.getFlushIntervalMillis(),
+                config.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void add(final MagazineKeys keys,
+            final int shard,
+            final String bin,
+            final long delta) {
+        final ShardDeltas shardDeltas = deltas.computeIfAbsent(keys.pointerKey(0),
+                key -> new ShardDeltas(keys, shards));
+        (Constants.LOAD_COUNTER.equals(bin) ? shardDeltas.load : shardDeltas.fire)[shard].add(delta);
+        pendingUpdates.increment();
+        if (!closed && pendingUpdates.sum() >= flushThreshold && thresholdFlushQueued.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(() -> {
+                    thresholdFlushQueued.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                // Scheduler shut down, updates are only written by explicit flushes from now on
+                thresholdFlushQueued.set(false);
+            }
+        }
+    }
+
+    /**
+     * Write every accumulated delta. Deltas of records that could not be written are kept for the next flush.
+     */
+    synchronized void flush() {
+        pendingUpdates.reset();
+        write(deltas.values());
+    }
+
+    /**
+     * Write the accumulated deltas of the given pointer spaces only.
+     *
+     * @param spaceKeys First pointer key of each space, as in its MagazineKeys.
+     */
+    synchronized void flush(final Collection<Key> spaceKeys) {
+        final List<ShardDeltas> selected = new ArrayList<>(spaceKeys.size());
+        for (Key spaceKey : spaceKeys) {
+            final ShardDeltas shardDeltas = deltas.get(spaceKey);
+            if (Objects.nonNull(shardDeltas)) {
+                selected.add(shardDeltas);
+            }
+        }
+        write(selected);
+    }
+
+    private void write(final Collection<ShardDeltas> selected) {
+        final List<BatchRecord> writes = new ArrayList<>();
+        final List<long[]> taken = new ArrayList<>();
+        final List<ShardDeltas> owners = new ArrayList<>();
+        for (ShardDeltas shardDeltas : selected) {
+            for (int shard = 0; shard < shards; shard++) {
+                final long load = shardDeltas.load[shard].sumThenReset();
+                final long fire = shardDeltas.fire[shard].sumThenReset();
+                if (load == 0 && fire == 0) {
+                    continue;
+                }
+                writes.add(new BatchWrite(writePolicy, shardDeltas.keys.counterKey(shard), new Operation[]{
+                        Operation.add(new Bin(Constants.LOAD_COUNTER, load)),
+                        Operation.add(new Bin(Constants.FIRE_COUNTER, fire))}));
+                taken.add(new long[]{shard, load, fire});
+                owners.add(shardDeltas);
+            }
+        }
+        if (writes.isEmpty()) {
+            return;
+        }
+        ClientCalls.count();
+        try {
+            aerospikeClient.operate(batchPolicy, writes);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < writes.size(); i++) {
+                owners.get(i).restore(taken.get(i));
+            }
+            throw e;
+        }
+        for (int i = 0; i < writes.size(); i++) {
+            if (writes.get(i).resultCode != ResultCode.OK) {
+                owners.get(i).restore(taken.get(i));
+            }
+        }
+    }
+
+    /**
+     * Stop the periodic flush and write what is left. The scheduler is shared, so it is left running.
+     */
+    void close() {
+        closed = true;
+        periodicFlush.cancel(false);
+        flush();
+    }
+
+    // Failed flushes keep their deltas, the next interval retries them
+    void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Deltas are restored, nothing else to do until the next attempt
+        }
+    }
+
+    void flushQuietly(final Collection<Key> spaceKeys) {
+        try {
+            flush(spaceKeys);
+        } catch (RuntimeException e) {
+            // Deltas are restored, the periodic flush writes them
+        }
+    }
+
+    private static class ShardDeltas {
+
+        private final MagazineKeys keys;
+        private final LongAdder[] load;
+        private final LongAdder[] fire;
+
+        private ShardDeltas(final MagazineKeys keys,
+                final int shards) {
+            this.keys = keys;
+            this.load = new LongAdder[shards];
+            this.fire = new LongAdder[shards];
+            for (int shard = 0; shard < shards; shard++) {
+                load[shard] = new LongAdder();
+                fire[shard] = new LongAdder();
+            }
+        }
+
+        private void restore(final long[] taken) {
+            load[(int) taken[0]].add(taken[1]);
+            fire[(int) taken[0]].add(taken[2]);
+        }
+    }
+}
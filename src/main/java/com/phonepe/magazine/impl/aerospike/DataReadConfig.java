@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.policy.Replica;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Replica selection and hedging for the data reads of fire and peek. Metadata reads are not affected.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DataReadConfig {
+
+    @NotNull
+    @Builder.Default
+    private Replica replica = Replica.SEQUENCE;
+    private boolean hedgingEnabled;
+    // The client cannot address a replica directly, the hedge goes wherever this policy sends it
+    @NotNull
+    @Builder.Default
+    private Replica hedgeReplica = Replica.MASTER_PROLES;
+    // Used until enough latencies are sampled for a p95, and as the floor of the hedge delay after that
+    @Min(1)
+    @Builder.Default
+    private long minHedgeDelayMillis = 2;
+    // Hedges are capped at this fraction of data reads
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    @Builder.Default
+    private double maxHedgeRatio = 0.05;
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.Value;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Dedupe identity of one payload: the DLM lock id (also used as the near-cache key) and the user key of its record
+ * in the deduper set.
+ */
+@Getter
+@AllArgsConstructor
+public class DeDupeKey {
+
+    private final String lockId;
+    private final Value userKey;
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process cache of dedupe keys this JVM has recently seen in the deduper set. A hit means the data is a
+ * known duplicate and can be rejected without a lock or a round trip; a miss falls back to the deduper set. Every
+ * entry expires no later than the deduper record it mirrors, so the cache never rejects data the deduper set would
+ * have accepted.
+ */
+public class DeDupeNearCache {
+
+    private final Cache<String, Long> cache;
+    private final long maxTtlSeconds;
+
+    public DeDupeNearCache(final DeDupeCacheConfig config) {
+        this.maxTtlSeconds = config.getMaxTtlSeconds();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxElements())
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(final String key,
+                            final Long ttlSeconds,
+                            final long currentTime) {
+                        return TimeUnit.SECONDS.toNanos(ttlSeconds);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(final String key,
+                            final Long ttlSeconds,
+                            final long currentTime,
+                            final long currentDuration) {
+                        return TimeUnit.SECONDS.toNanos(ttlSeconds);
+                    }
+
+                    @Override
+                    public long expireAfterRead(final String key,
+                            final Long ttlSeconds,
+                            final long currentTime,
+                            final long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public boolean isKnownDuplicate(final String deDupeKey) {
+        return cache.getIfPresent(deDupeKey) != null;
+    }
+
+    /**
+     * Remember a dedupe key for the remaining lifetime of its deduper record.
+     *
+     * @param deDupeKey The dedupe key.
+     * @param recordTtlSeconds Remaining TTL of the deduper record as read from it, non-positive if it never expires.
+     */
+    public void markSeen(final String deDupeKey,
+            final long recordTtlSeconds) {
+        final long ttlSeconds = recordTtlSeconds > 0
+                ? Math.min(recordTtlSeconds, maxTtlSeconds)
+                : maxTtlSeconds;
+        cache.put(deDupeKey, ttlSeconds);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.impl.aerospike;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Skipping of runs of missing data records, left behind by expiry, deletes or failed loads, when a fire meets one.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeadRunConfig {
+
+    private boolean enabled;
+    // Pointers checked per batch read
+    @Min(1)
+    @Builder.Default
+    private int windowSize = 64;
+    // A missing record is only skipped once a later record is this old, its load may still be in flight until then
+    @Min(0)
+    @Builder.Default
+    private long loadGraceMillis = 5_000;
+}
@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.Value;
+import com.aerospike.client.cdt.MapOperation;
+import com.aerospike.client.cdt.MapOrder;
+import com.aerospike.client.cdt.MapPolicy;
+import com.aerospike.client.cdt.MapReturnType;
+import com.aerospike.client.cdt.MapWriteFlags;
+import com.aerospike.client.exp.Exp;
+import com.aerospike.client.exp.MapExp;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.WritePolicy;
+import com.github.rholder.retry.RetryException;
+import com.phonepe.magazine.common.Constants;
+import com.phonepe.magazine.exception.ErrorCode;
+import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.util.ErrorMessage;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delay buckets of the magazines of one {@link AerospikeStorage}. Data loaded with a not-before time goes to the
+ * pointer space of the bucket opening right after that time. The open times of the buckets of a magazine are kept in
+ * one ordered map in its DELAY_BUCKETS record, read for all magazines of the storage in one batch every
+ * indexRefreshMillis. Buckets about to open are handed to the active shard refresh ahead of time, so that a fire
+ * finds their active shards cached just like those of the magazine itself. A magazine has at most maxBuckets buckets
+ * in its index. Buckets leave the index retireAfterMillis after they open, once their pointers, read afresh rather
+ * than from the cached active shards, show nothing left to fire.
+ */
+class DelayBucketIndex implements AutoCloseable {
+
+    private static final MapPolicy INDEX_MAP_POLICY = new MapPolicy(MapOrder.KEY_ORDERED, MapWriteFlags.DEFAULT);
+
+    private final IAerospikeClient aerospikeClient;
+    private final AerospikeRetryerFactory<Object> retryerFactory;
+    private final ActiveShardsRefresher refresher;
+    private final ExecutorService executor;
+    private final WritePolicy writePolicy;
+    private final BatchPolicy batchPolicy;
+    private final String namespace;
+    private final String dataSetName;
+    private final String metaSetName;
+    private final int shards;
+    private final boolean trackHeads;
+    private final long bucketWidthMillis;
+    private final long indexRefreshMillis;
+    private final long retireAfterMillis;
+    private final int maxBuckets;
+    private final Clock clock;
+    private final Map<String, Buckets> magazines = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ScheduledFuture<?> periodicRefresh;
+
+    DelayBucketIndex(final IAerospikeClient aerospikeClient,
+            final MagazineRuntime runtime,
+            final WritePolicy writePolicy,
+            final BatchPolicy batchPolicy,
+            final String namespace,
+            final String dataSetName,
+            final String metaSetName,
+            final int shards,
+            final boolean trackHeads,
+            final DelayedDeliveryConfig config,
+            final long loadBudgetMillis,
+            final Clock clock) {
+        // Loads still writing into a bucket, and refreshes not showing their data yet, must not see it retired
+        final long minRetireAfterMillis = loadBudgetMillis + 2 * runtime.getActiveShardsRefresher()
+                .refreshIntervalMillis();
+        if (config.getRetireAfterMillis() <= minRetireAfterMillis) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.INVALID_CONFIG)
+                    .message(String.format(ErrorMessage.RETIRE_AFTER_TOO_SHORT, config.getRetireAfterMillis(),
+                            minRetireAfterMillis))
+                    .build();
+        }
+        this.aerospikeClient = aerospikeClient;
+        this.retryerFactory = runtime.getRetryerFactory();
+        this.refresher = runtime.getActiveShardsRefresher();
+        this.executor = runtime.getRefreshExecutor();
+        this.writePolicy = writePolicy;
+        this.batchPolicy = batchPolicy;
+        this.namespace = namespace;
+        this.dataSetName = dataSetName;
+        this.metaSetName = metaSetName;
+        this.shards = shards;
+        this.trackHeads = trackHeads;
+        this.bucketWidthMillis = config.getBucketWidthMillis();
+        this.indexRefreshMillis = config.getIndexRefreshMillis();
+        this.retireAfterMillis = config.getRetireAfterMillis();
+        this.maxBuckets = config.getMaxBuckets();
+        this.clock = clock;
+        this.periodicRefresh = runtime.getScheduler()
+                .scheduleWithFixedDelay(this::tick, indexRefreshMillis, indexRefreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Keys of the bucket that data with the given not-before time is loaded into. The bucket is added to the index
+     * the first time this process loads into it, one more write per bucket, unless the index is full.
+     *
+     * @param magazineIdentifier The magazine.
+     * @param notBeforeMillis    Epoch millis before which the data must not be fired.
+     * @return Keys of the pointer space of the bucket.
+     */
+    MagazineKeys bucketFor(final String magazineIdentifier,
+            final long notBeforeMillis) throws ExecutionException, RetryException {
+        final long openAt = -Math.floorDiv(-notBeforeMillis, bucketWidthMillis) * bucketWidthMillis;
+        final Buckets buckets = magazines.computeIfAbsent(magazineIdentifier, Buckets::new);
+        final MagazineKeys known = buckets.spaces.get(openAt);
+        if (Objects.nonNull(known)) {
+            return known;
+        }
+        // Filtered on the server, so that processes adding buckets at the same time cannot together pass the cap
+        final WritePolicy addPolicy = new WritePolicy(writePolicy);
+        addPolicy.filterExp = Exp.build(Exp.or(
+                Exp.not(Exp.binExists(Constants.DELAY_BUCKETS)),
+                Exp.gt(MapExp.getByKey(MapReturnType.COUNT, Exp.Type.INT, Exp.val(openAt),
+                        Exp.mapBin(Constants.DELAY_BUCKETS)), Exp.val(0)),
+                Exp.lt(MapExp.size(Exp.mapBin(Constants.DELAY_BUCKETS)), Exp.val(maxBuckets))));
+        addPolicy.failOnFilteredOut = false;
+        final Record added = retryerFactory.call(() -> aerospikeClient.operate(addPolicy, buckets.indexKey,
+                MapOperation.put(INDEX_MAP_POLICY, Constants.DELAY_BUCKETS, Value.get(openAt), Value.get(1))));
+        if (Objects.isNull(added)) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.TOO_MANY_DELAY_BUCKETS)
+                    .message(String.format(ErrorMessage.TOO_MANY_DELAY_BUCKETS, openAt, maxBuckets,
+                            magazineIdentifier))
+                    .build();
+        }
+        return buckets.spaces.computeIfAbsent(openAt, bucket -> spaceKeys(magazineIdentifier, bucket));
+    }
+
+    /**
+     * Buckets of the magazine whose open time has passed, oldest first. The index of a magazine is read right away
+     * the first time it is asked for, later from the periodic refresh only.
+     *
+     * @param magazineIdentifier The magazine.
+     * @return Keys of the pointer spaces of the open buckets.
+     */
+    Collection<MagazineKeys> openSpaces(final String magazineIdentifier) throws ExecutionException, RetryException {
+        return loaded(magazineIdentifier).spaces.headMap(clock.millis(), true)
+                .values();
+    }
+
+    /**
+     * Every bucket of the magazine in its index, open or not, oldest first.
+     *
+     * @param magazineIdentifier The magazine.
+     * @return Keys of the pointer spaces of the buckets.
+     */
+    Collection<MagazineKeys> allSpaces(final String magazineIdentifier) throws ExecutionException, RetryException {
+        return loaded(magazineIdentifier).spaces.values();
+    }
+
+    /**
+     * @param magazineIdentifier The magazine.
+     * @param bucket             Open time of one of its buckets, retired or not.
+     * @return Keys of the pointer space of the bucket.
+     */
+    MagazineKeys keysOf(final String magazineIdentifier,
+            final long bucket) {
+        final Buckets buckets = magazines.get(magazineIdentifier);
+        final MagazineKeys known = Objects.nonNull(buckets)
+                ? buckets.spaces.get(bucket)
+                : null;
+        return Objects.nonNull(known)
+                ? known
+                : spaceKeys(magazineIdentifier, bucket);
+    }
+
+    @Override
+    public void close() {
+        periodicRefresh.cancel(false);
+    }
+
+    private Buckets loaded(final String magazineIdentifier) throws ExecutionException, RetryException {
+        final Buckets buckets = magazines.computeIfAbsent(magazineIdentifier, Buckets::new);
+        if (!buckets.loaded) {
+            synchronized (buckets) {
+                if (!buckets.loaded) {
+                    refresh(List.of(buckets));
+                }
+            }
+        }
+        return buckets;
+    }
+
+    private void tick() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        final List<Buckets> batch = magazines.values()
+                .stream()
+                .filter(buckets -> buckets.loaded)
+                .toList();
+        if (batch.isEmpty()) {
+            refreshing.set(false);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh(batch);
+                } catch (Exception e) {
+                    // Known buckets are kept, the next interval tries again
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private void refresh(final List<Buckets> batch) throws ExecutionException, RetryException {
+        final Key[] keys = new Key[batch.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = batch.get(i).indexKey;
+        }
+        final Record[] records = retryerFactory.call(() -> aerospikeClient.get(batchPolicy, keys));
+        final long now = clock.millis();
+        for (int i = 0; i < keys.length; i++) {
+            final Buckets buckets = batch.get(i);
+            final Map<?, ?> index = Objects.nonNull(records[i])
+                    ? records[i].getMap(Constants.DELAY_BUCKETS)
+                    : null;
+            if (Objects.nonNull(index)) {
+                for (Object bucket : index.keySet()) {
+                    buckets.spaces.computeIfAbsent(((Number) bucket).longValue(),
+                            openAt -> spaceKeys(buckets.magazineIdentifier, openAt));
+                }
+            }
+            // Buckets opening before the next refresh get their active shards loaded here, off the fire path
+            final List<MagazineKeys> drained = new ArrayList<>();
+            for (Map.Entry<Long, MagazineKeys> space : buckets.spaces.headMap(now + indexRefreshMillis, true)
+                    .entrySet()) {
+                final ActiveShards activeShards = refresher.activeShards(space.getValue(), batchPolicy, trackHeads);
+                if (space.getKey() + retireAfterMillis < now && activeShards.shards().length == 0) {
+                    drained.add(space.getValue());
+                }
+            }
+            final List<Value> retired = fullyFired(drained);
+            if (!retired.isEmpty()) {
+                retryerFactory.call(() -> aerospikeClient.operate(writePolicy, buckets.indexKey,
+                        MapOperation.removeByKeyList(Constants.DELAY_BUCKETS, retired, MapReturnType.NONE)));
+                retired.forEach(bucket -> buckets.spaces.remove(bucket.toLong()));
+            }
+            buckets.loaded = true;
+        }
+    }
+
+    // Cached active shards may be stale and counters may lag, so retirement reads the pointers of the candidates
+    private List<Value> fullyFired(final List<MagazineKeys> candidates) throws ExecutionException, RetryException {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        final Key[] pointerKeys = candidates.stream()
+                .flatMap(space -> Arrays.stream(space.getPointerKeys()))
+                .toArray(Key[]::new);
+        final Record[] records = retryerFactory.call(() -> aerospikeClient.get(batchPolicy, pointerKeys,
+                Constants.LOAD_POINTER, Constants.FIRE_POINTER));
+        final List<Value> fired = new ArrayList<>();
+        int offset = 0;
+        for (MagazineKeys space : candidates) {
+            final int spaceShards = space.getPointerKeys().length;
+            boolean pending = false;
+            for (int shard = 0; shard < spaceShards; shard++) {
+                final Record record = records[offset + shard];
+                pending |= Objects.nonNull(record)
+                        && record.getLong(Constants.LOAD_POINTER) > record.getLong(Constants.FIRE_POINTER);
+            }
+            if (!pending) {
+                fired.add(Value.get(space.getBucket().longValue()));
+            }
+            offset += spaceShards;
+        }
+        return fired;
+    }
+
+    private MagazineKeys spaceKeys(final String magazineIdentifier,
+            final long bucket) {
+        return new MagazineKeys(magazineIdentifier, bucket, namespace, dataSetName, metaSetName, shards);
+    }
+
+    private class Buckets {
+
+        private final String magazineIdentifier;
+        private final Key indexKey;
+        private final ConcurrentSkipListMap<Long, MagazineKeys> spaces = new ConcurrentSkipListMap<>();
+        private volatile boolean loaded; // Index read at least once
+
+        private Buckets(final String magazineIdentifier) {
+            this.magazineIdentifier = magazineIdentifier;
+            this.indexKey = new Key(namespace, metaSetName,
+                    magazineIdentifier + Constants.KEY_DELIMITER + Constants.DELAY_BUCKETS);
+        }
+    }
+}
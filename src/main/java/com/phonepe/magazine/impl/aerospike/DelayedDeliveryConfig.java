@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.impl.aerospike;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DelayedDeliveryConfig {
+
+    private boolean enabled;
+    // Data with a not-before time opens at the end of its bucket, so it fires up to one width late, never early
+    @Min(1)
+    @Builder.Default
+    private long bucketWidthMillis = 1_000;
+    // Interval at which buckets loaded by other processes are picked up and upcoming buckets are prepared for fire
+    @Min(1)
+    @Builder.Default
+    private long indexRefreshMillis = 1_000;
+    // Drained buckets are dropped from the index this long after they open. Must exceed the longest a load may take,
+    // all retries included, plus twice the active shard refresh interval.
+    @Min(1)
+    @Builder.Default
+    private long retireAfterMillis = 60_000;
+    // Buckets per magazine in its index record, a load that would open one more is rejected. Together with the bucket
+    // width, it bounds how far ahead data can be delayed.
+    @Min(1)
+    @Builder.Default
+    private int maxBuckets = 10_000;
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import javax.validation.constraints.Min;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GlobalScopeConfig {
+
+    // Farm ids sharing a GLOBAL magazine, in the same order on every farm. Each farm owns one contiguous shard slice,
+    // a single farm owning all shards if absent.
+    private List<String> farms;
+    // A farm only fires from the slices of other farms once its own slice has looked dry for this long, which gives
+    // the owners time to see it dry and to start claiming under the cross-farm lock too. Keep it above the active
+    // shard refresh interval plus the cross-datacenter replication lag.
+    @Min(0)
+    @Builder.Default
+    private long drainGraceMillis = 15_000;
+}
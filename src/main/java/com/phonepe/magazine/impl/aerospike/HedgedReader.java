@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read on the read pool and, if it has not answered within the recent p95 latency of such reads, a second read
+ * against another replica. The calling thread returns with the first successful answer, so a fast hedge cuts a slow
+ * primary short, and rescues one that fails or times out without waiting for a retry. A read finding every thread of
+ * the pool busy runs on the calling thread instead, and then only returns once it is over. Every read adds
+ * {@code maxHedgeRatio} to a small hedge budget and every hedge spends one unit, so hedges stay below that fraction of
+ * reads even when a whole node slows down.
+ */
+public class HedgedReader {
+
+    private static final int LATENCY_SAMPLES = 1024;
+    private static final int RECOMPUTE_EVERY = 256;
+    private static final long BUDGET_UNIT = 1_000_000;
+    private static final long MAX_BUDGET = 10 * BUDGET_UNIT; // Allows a short burst of hedges
+
+    private final long minDelayNanos;
+    private final long budgetPerRead;
+    private final ScheduledExecutorService timers;
+    private final Executor readExecutor;
+
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private final AtomicLong samples = new AtomicLong();
+    private volatile long delayNanos;
+    private final AtomicLong budget = new AtomicLong();
+
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder throttledHedges = new LongAdder();
+
+    /**
+     * @param timers       Start the hedges of late reads.
+     * @param readExecutor Runs the reads, bounded and without a queue, so that a read never waits behind others.
+     */
+    public HedgedReader(final DataReadConfig config,
+            final ScheduledExecutorService timers,
+            final Executor readExecutor) {
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(config.getMinHedgeDelayMillis());
+        this.budgetPerRead = (long) (config.getMaxHedgeRatio() * BUDGET_UNIT);
+        this.delayNanos = minDelayNanos;
+        this.timers = timers;
+        this.readExecutor = readExecutor;
+    }
+
+    public <R> R read(final Supplier<R> primary,
+            final Supplier<R> hedge) throws InterruptedException {
+        reads.increment();
+        budget.getAndUpdate(current -> Math.min(MAX_BUDGET, current + budgetPerRead));
+
+        final long startNanos = System.nanoTime();
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger(1);
+        final ScheduledFuture<?> hedgeTimer = timers.schedule(
+                () -> hedge(hedge, startNanos, result, pending), delayNanos, TimeUnit.NANOSECONDS);
+        try {
+            readExecutor.execute(() -> attempt(primary, true, startNanos, result, pending));
+        } catch (RejectedExecutionException e) {
+            attempt(primary, true, startNanos, result, pending); // No read thread free, the caller waits its read out
+        }
+        try {
+            return unwrap(result);
+        } finally {
+            hedgeTimer.cancel(false);
+        }
+    }
+
+    public HedgeStats getStats() {
+        return HedgeStats.builder()
+                .reads(reads.sum())
+                .hedges(hedges.sum())
+                .hedgeWins(hedgeWins.sum())
+                .throttledHedges(throttledHedges.sum())
+                .hedgeDelayMillis(delayNanos / (double) TimeUnit.MILLISECONDS.toNanos(1))
+                .build();
+    }
+
+    private <R> void attempt(final Supplier<R> read,
+            final boolean isPrimary,
+            final long startNanos,
+            final CompletableFuture<R> result,
+            final AtomicInteger pending) {
+        try {
+            final R value = read.get();
+            if (isPrimary) {
+                recordLatency(System.nanoTime() - startNanos);
+            }
+            if (result.complete(value) && !isPrimary) {
+                hedgeWins.increment();
+            }
+        } catch (RuntimeException e) {
+            // Only the last attempt to fail decides the outcome, an earlier failure leaves the other one running
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private <R> void hedge(final Supplier<R> hedge,
+            final long startNanos,
+            final CompletableFuture<R> result,
+            final AtomicInteger pending) {
+        if (result.isDone()) {
+            return;
+        }
+        if (!tryAcquireHedge()) {
+            throttledHedges.increment();
+            return;
+        }
+        // A primary that already failed has settled the result, the hedge may only join one still running
+        if (pending.getAndUpdate(current -> current == 0
+                ? 0
+                : current + 1) == 0) {
+            budget.addAndGet(BUDGET_UNIT);
+            return;
+        }
+        hedges.increment();
+        try {
+            readExecutor.execute(() -> attempt(hedge, false, startNanos, result, pending));
+        } catch (RejectedExecutionException e) {
+            attempt(hedge, false, startNanos, result, pending); // No read thread free, the timer thread runs it
+        }
+    }
+
+    private boolean tryAcquireHedge() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < BUDGET_UNIT) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - BUDGET_UNIT));
+        return true;
+    }
+
+    // Keeps the last LATENCY_SAMPLES primary latencies and refreshes the p95 every RECOMPUTE_EVERY of them. Writers
+    // race on the ring without locking, a lost sample only nudges the estimate.
+    private void recordLatency(final long latencyNanos) {
+        final long sample = samples.getAndIncrement();
+        latencies[(int) (sample % LATENCY_SAMPLES)] = latencyNanos;
+        if (sample >= LATENCY_SAMPLES && sample % RECOMPUTE_EVERY == 0) {
+            final long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            delayNanos = Math.max(minDelayNanos, sorted[(int) (LATENCY_SAMPLES * 0.95)]);
+        }
+    }
+
+    private static <R> R unwrap(final CompletableFuture<R> result) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            // Attempts only ever fail with the RuntimeException thrown by the client
+            throw (RuntimeException) e.getCause();
+        }
+    }
+}
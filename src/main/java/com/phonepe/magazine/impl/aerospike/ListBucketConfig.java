@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.impl.aerospike;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Alternate data layout that keeps the items of each shard in map bins of bucket records instead of a record per
+ * item. A fire pops an item in one operate. Items must be small enough for {@code capacity} of them to fit a record.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ListBucketConfig {
+
+    private boolean enabled;
+    // Items per bucket record, consecutive load pointers of a shard fill one bucket before the next
+    @Min(1)
+    @Builder.Default
+    private int capacity = 64;
+    // A bucket short of items is sealed once it was last appended to this long ago, a load still in flight then fails
+    @Min(0)
+    @Builder.Default
+    private long sealGraceMillis = 5_000;
+}
@@ -0,0 +1,452 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchWrite;
+import com.aerospike.client.Bin;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.Value;
+import com.aerospike.client.cdt.MapOperation;
+import com.aerospike.client.cdt.MapOrder;
+import com.aerospike.client.cdt.MapPolicy;
+import com.aerospike.client.cdt.MapReturnType;
+import com.aerospike.client.cdt.MapWriteFlags;
+import com.aerospike.client.exp.Exp;
+import com.aerospike.client.exp.Expression;
+import com.aerospike.client.exp.MapExp;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.aerospike.client.policy.GenerationPolicy;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.RecordExistsAction;
+import com.aerospike.client.policy.WritePolicy;
+import com.github.rholder.retry.RetryException;
+import com.phonepe.magazine.common.Constants;
+import com.phonepe.magazine.exception.ErrorCode;
+import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.util.ErrorMessage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The list bucket layout. Load pointers are still claimed on the pointer record, and pointer p of a shard goes to
+ * bucket (p - 1) / capacity + 1, so a bucket rolls over to the next once its pointers are handed out. A load puts its
+ * pointer and data in the items map of its bucket, ordered by pointer, and a fire pops the lowest pointers, one
+ * operate each. The appended map of a bucket keeps every pointer ever put in it. An append whose pointers are already
+ * there is filtered out, so a retried append never delivers an item twice, and its size counts distinct pointers.
+ * FIRE_BUCKET on the pointer record is the bucket fires pop from. It moves on once the bucket is drained of all of
+ * its capacity, or once a bucket short of items has been left alone for the seal grace. Buckets left behind are sealed
+ * first, or created sealed if missing, and appends to a sealed bucket are refused, so a late load fails instead of
+ * landing where no fire looks. Each shard's fire bucket is also kept locally as a hint, so a fire does not read the
+ * pointer record until its bucket runs dry. FIRE_POINTER moves with the fire bucket, and up to the last pointer of the
+ * bucket once a pop leaves it empty with no pointer below missing, so a shard with nothing left stops being active.
+ */
+class ListBuckets {
+
+    private static final int MAX_STEPS = 2 * Constants.MAX_RETRIES;
+    private static final int SCAN_WINDOW = 16; // Buckets looked ahead in one batch read for a missing bucket
+    // Ordered by pointer, and a pointer already there is never replaced
+    private static final MapPolicy APPEND_MAP_POLICY = new MapPolicy(MapOrder.KEY_ORDERED,
+            MapWriteFlags.CREATE_ONLY | MapWriteFlags.NO_FAIL);
+    private static final Value APPENDED_MARK = Value.get(1);
+    private static final Operation[] POP_ONE = popOperations(1);
+    private static final Operation[] SEAL = {Operation.put(new Bin(Constants.SEALED, 1L))};
+
+    private final IAerospikeClient aerospikeClient;
+    private final AerospikeRetryerFactory<Object> retryerFactory;
+    private final WritePolicy appendPolicy;
+    private final WritePolicy popPolicy;
+    private final WritePolicy advancePolicy;
+    private final BatchWritePolicy sealPolicy;
+    private final BatchPolicy sealBatchPolicy;
+    private final Policy pointerReadPolicy;
+    private final BatchPolicy scanPolicy;
+    private final int capacity;
+    private final long sealGraceMillis;
+
+    ListBuckets(final IAerospikeClient aerospikeClient,
+            final AerospikeRetryerFactory<Object> retryerFactory,
+            final WritePolicy appendPolicy,
+            final WritePolicy claimWritePolicy,
+            final Policy pointerReadPolicy,
+            final BatchPolicy scanPolicy,
+            final ListBucketConfig config) {
+        this.aerospikeClient = aerospikeClient;
+        this.retryerFactory = retryerFactory;
+        this.appendPolicy = appendPolicy;
+        // Pops leave the expiry of the bucket as set by its loads, and never bring back a bucket that expired
+        this.popPolicy = new WritePolicy(claimWritePolicy);
+        this.popPolicy.recordExistsAction = RecordExistsAction.UPDATE_ONLY;
+        this.popPolicy.expiration = -2;
+        this.advancePolicy = claimWritePolicy;
+        // A bucket is only sealed while it holds no items, an append that got in first is popped instead
+        this.sealPolicy = new BatchWritePolicy();
+        this.sealPolicy.expiration = appendPolicy.expiration;
+        this.sealPolicy.filterExp = Exp.build(Exp.or(
+                Exp.not(Exp.binExists(Constants.ITEMS)),
+                Exp.eq(MapExp.size(Exp.mapBin(Constants.ITEMS)), Exp.val(0))));
+        this.sealBatchPolicy = new BatchPolicy(scanPolicy);
+        this.sealBatchPolicy.failOnFilteredOut = true;
+        this.pointerReadPolicy = pointerReadPolicy;
+        this.scanPolicy = scanPolicy;
+        this.capacity = config.getCapacity();
+        this.sealGraceMillis = config.getSealGraceMillis();
+    }
+
+    long bucketOf(final long pointer) {
+        return (pointer - 1) / capacity + 1;
+    }
+
+    /**
+     * @return False if the bucket is sealed, the data is not stored then.
+     */
+    boolean append(final MagazineKeys keys,
+            final int shard,
+            final long pointer,
+            final Object data) throws ExecutionException, RetryException {
+        final Key key = keys.listBucketKey(shard, bucketOf(pointer));
+        final WritePolicy policy = new WritePolicy(appendPolicy);
+        policy.filterExp = appendFilter(pointer, 1);
+        policy.failOnFilteredOut = true;
+        final Operation[] operations = appendOperations(pointer, List.of(data));
+        final boolean[] retried = {false};
+        final boolean appended = retryerFactory.call(() -> tryAppend(policy, key, operations), () -> {
+            retried[0] = true;
+            return tryAppend(policy, key, operations);
+        });
+        // Filtered out on a retry, the append may have gone through on an attempt that got no answer
+        return appended || (retried[0] && isAppended(key, pointer));
+    }
+
+    /**
+     * The write appending data to consecutive pointers from firstPointer, all of one bucket. Its batch policy has to
+     * fail on filtered out records: a write filtered out was refused by a sealed bucket, unless {@link #isAppended}
+     * finds that an earlier attempt of the batch went through.
+     */
+    BatchWrite appendWrite(final BatchWritePolicy batchWritePolicy,
+            final MagazineKeys keys,
+            final int shard,
+            final long firstPointer,
+            final List<?> data) {
+        final BatchWritePolicy policy = new BatchWritePolicy(batchWritePolicy);
+        policy.filterExp = appendFilter(firstPointer, data.size());
+        return new BatchWrite(policy, keys.listBucketKey(shard, bucketOf(firstPointer)),
+                appendOperations(firstPointer, data));
+    }
+
+    boolean isAppended(final Key key,
+            final long pointer) throws ExecutionException, RetryException {
+        final Record record = retryerFactory.call(() -> aerospikeClient.get(pointerReadPolicy, key,
+                Constants.APPENDED));
+        final Map<?, ?> appended = Objects.nonNull(record)
+                ? record.getMap(Constants.APPENDED)
+                : null;
+        return Objects.nonNull(appended) && appended.containsKey(pointer);
+    }
+
+    /**
+     * Pops up to maxItems of one shard from its fire bucket, moving the fire bucket on when it is done with.
+     *
+     * @return Map entries of pointer to data popped, lowest pointer first, empty if there is nothing to pop right now.
+     */
+    List<?> pop(final MagazineKeys keys,
+            final int shard,
+            final int maxItems) throws ExecutionException, RetryException {
+        long bucket = keys.getListBucketCursors().get(shard);
+        for (int step = 0; step < MAX_STEPS; step++) {
+            Record pointerRecord = null;
+            if (bucket <= 0) {
+                pointerRecord = readPointers(keys, shard);
+                bucket = fireBucket(pointerRecord);
+            }
+            final Record bucketRecord = popFrom(keys, keys.listBucketKey(shard, bucket), maxItems);
+            final List<?> items = Objects.nonNull(bucketRecord)
+                    ? (List<?>) result(bucketRecord, Constants.ITEMS, 0)
+                    : null;
+            if (Objects.nonNull(items) && !items.isEmpty()) {
+                keys.getListBucketCursors().set(shard, bucket);
+                final long lastAppended = longResult(bucketRecord, Constants.APPENDED, 1);
+                if (longResult(bucketRecord, Constants.ITEMS, 1) == 0
+                        && lastAppended - (bucket - 1) * capacity == longResult(bucketRecord, Constants.APPENDED, 0)) {
+                    catchUp(keys, shard, lastAppended);
+                }
+                return items;
+            }
+
+            // The bucket is empty or missing. Either other fires moved on, it is still filling, or it is done with.
+            if (Objects.isNull(pointerRecord)) {
+                pointerRecord = readPointers(keys, shard);
+            }
+            final long fireBucket = fireBucket(pointerRecord);
+            if (fireBucket > bucket) {
+                bucket = fireBucket;
+                continue;
+            }
+            final long loadPointer = getLong(pointerRecord, Constants.LOAD_POINTER);
+            if (loadPointer < bucket * capacity) {
+                keys.getListBucketCursors().set(shard, bucket);
+                // Loads that claimed pointers but never appended leave a gap, given up on once the bucket settles
+                if (Objects.nonNull(bucketRecord) && isSettled(bucketRecord)) {
+                    catchUp(keys, shard, loadPointer);
+                }
+                return List.of();
+            }
+            final boolean drained = Objects.nonNull(bucketRecord)
+                    && longResult(bucketRecord, Constants.APPENDED, 0) >= capacity;
+            long nextBucket = bucket + 1;
+            if (!drained && Objects.nonNull(bucketRecord) && !isSettled(bucketRecord)) {
+                return List.of();
+            }
+            if (Objects.isNull(bucketRecord)) {
+                // Never written or expired, skip ahead to the next bucket that has settled
+                nextBucket = nextSettledBucket(keys, shard, bucket, bucketOf(loadPointer));
+                if (nextBucket <= 0) {
+                    return List.of();
+                }
+            }
+            if (!seal(keys, shard, bucket, nextBucket)) {
+                continue; // Items came in, pop them first
+            }
+            if (!advance(keys.pointerKey(shard), pointerRecord, nextBucket)) {
+                bucket = 0; // Another fire moved it first
+                continue;
+            }
+            bucket = nextBucket;
+            keys.getListBucketCursors().set(shard, bucket);
+        }
+        return List.of();
+    }
+
+    // A pop whose answer is lost may have removed items on the server, so it is not retried blindly: an attempt in
+    // doubt fails the fire, and the items it may have taken are reported as possibly lost
+    private Record popFrom(final MagazineKeys keys,
+            final Key key,
+            final int maxItems) throws ExecutionException, RetryException {
+        final Operation[] operations = maxItems == 1
+                ? POP_ONE
+                : popOperations(maxItems);
+        return retryerFactory.call(() -> {
+            try {
+                return aerospikeClient.operate(popPolicy, key, operations);
+            } catch (AerospikeException e) {
+                if (e.getResultCode() == ResultCode.KEY_NOT_FOUND_ERROR) {
+                    return null;
+                }
+                if (e.getInDoubt()) {
+                    throw MagazineException.builder()
+                            .errorCode(ErrorCode.CONNECTION_ERROR)
+                            .message(String.format(ErrorMessage.LIST_BUCKET_POP_IN_DOUBT, maxItems,
+                                    keys.getMagazineIdentifier()))
+                            .cause(e)
+                            .build();
+                }
+                throw e;
+            }
+        });
+    }
+
+    // False if filtered out, because the bucket is sealed or an earlier attempt of this append went through
+    private boolean tryAppend(final WritePolicy policy,
+            final Key key,
+            final Operation[] operations) {
+        try {
+            aerospikeClient.operate(policy, key, operations);
+            return true;
+        } catch (AerospikeException e) {
+            if (e.getResultCode() == ResultCode.FILTERED_OUT) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private Record readPointers(final MagazineKeys keys,
+            final int shard) throws ExecutionException, RetryException {
+        return retryerFactory.call(() -> aerospikeClient.get(pointerReadPolicy, keys.pointerKey(shard)));
+    }
+
+    private long nextSettledBucket(final MagazineKeys keys,
+            final int shard,
+            final long bucket,
+            final long lastBucket) throws ExecutionException, RetryException {
+        final int window = (int) Math.min(SCAN_WINDOW, lastBucket - bucket);
+        if (window <= 0) {
+            return 0;
+        }
+        final Key[] bucketKeys = new Key[window];
+        for (int i = 0; i < window; i++) {
+            bucketKeys[i] = keys.listBucketKey(shard, bucket + 1 + i);
+        }
+        final Record[] records = retryerFactory.call(() -> aerospikeClient.get(scanPolicy, bucketKeys,
+                Constants.MODIFIED_AT));
+        for (int i = 0; i < window; i++) {
+            if (Objects.nonNull(records[i])) {
+                return isSettled(records[i])
+                        ? bucket + 1 + i
+                        : 0;
+            }
+        }
+        // A whole window of missing buckets below the last one is skipped, the loads of none of them can be pending
+        return bucket + window < lastBucket
+                ? bucket + window
+                : 0;
+    }
+
+    // Seals the buckets from bucket up to nextBucket, which fires are about to leave behind. False if one of them got
+    // items since it was found empty.
+    private boolean seal(final MagazineKeys keys,
+            final int shard,
+            final long bucket,
+            final long nextBucket) throws ExecutionException, RetryException {
+        return retryerFactory.call(() -> {
+            final List<BatchRecord> seals = new ArrayList<>((int) (nextBucket - bucket));
+            for (long sealed = bucket; sealed < nextBucket; sealed++) {
+                seals.add(new BatchWrite(sealPolicy, keys.listBucketKey(shard, sealed), SEAL));
+            }
+            aerospikeClient.operate(sealBatchPolicy, seals);
+            for (BatchRecord seal : seals) {
+                if (seal.resultCode == ResultCode.FILTERED_OUT) {
+                    return false;
+                }
+                if (seal.resultCode != ResultCode.OK) {
+                    throw new AerospikeException(seal.resultCode, seal.inDoubt);
+                }
+            }
+            return true;
+        });
+    }
+
+    // Generation checked, so that two fires done with the same bucket do not move the fire bucket twice. FIRE_POINTER
+    // follows to the last pointer of the buckets left behind, so that a shard whose remaining items were lost with an
+    // expired bucket stops counting as active. A retry after an attempt that went through without an answer also
+    // finds the record changed, and the caller reads it again.
+    private boolean advance(final Key pointerKey,
+            final Record pointerRecord,
+            final long nextBucket) throws ExecutionException, RetryException {
+        final WritePolicy policy = new WritePolicy(advancePolicy);
+        policy.generationPolicy = GenerationPolicy.EXPECT_GEN_EQUAL;
+        policy.generation = pointerRecord.generation;
+        final Operation[] operations = {
+                Operation.put(new Bin(Constants.FIRE_BUCKET, nextBucket)),
+                Operation.put(new Bin(Constants.FIRE_POINTER, (nextBucket - 1) * capacity))};
+        return retryerFactory.call(() -> {
+            try {
+                aerospikeClient.operate(policy, pointerKey, operations);
+                return true;
+            } catch (AerospikeException e) {
+                if (e.getResultCode() == ResultCode.GENERATION_ERROR) {
+                    return false;
+                }
+                throw e;
+            }
+        });
+    }
+
+    // Moves FIRE_POINTER up to pointer and never back, so that a shard with nothing left to pop stops being active
+    private void catchUp(final MagazineKeys keys,
+            final int shard,
+            final long pointer) throws ExecutionException, RetryException {
+        final WritePolicy policy = new WritePolicy(advancePolicy);
+        policy.filterExp = Exp.build(Exp.or(
+                Exp.not(Exp.binExists(Constants.FIRE_POINTER)),
+                Exp.lt(Exp.intBin(Constants.FIRE_POINTER), Exp.val(pointer))));
+        policy.failOnFilteredOut = false;
+        final Operation[] operations = {Operation.put(new Bin(Constants.FIRE_POINTER, pointer))};
+        retryerFactory.call(() -> aerospikeClient.operate(policy, keys.pointerKey(shard), operations));
+    }
+
+    private boolean isSettled(final Record bucketRecord) {
+        return getLong(bucketRecord, Constants.MODIFIED_AT) < System.currentTimeMillis() - sealGraceMillis;
+    }
+
+    private static long fireBucket(final Record pointerRecord) {
+        return Math.max(1, getLong(pointerRecord, Constants.FIRE_BUCKET));
+    }
+
+    private static long getLong(final Record record,
+            final String bin) {
+        return Objects.nonNull(record)
+                ? record.getLong(bin)
+                : 0L;
+    }
+
+    // Results of the operations on one bin of a pop, in order, null for a bin the bucket does not have
+    private static Object result(final Record bucketRecord,
+            final String bin,
+            final int index) {
+        final List<?> results = bucketRecord.getList(bin);
+        return Objects.nonNull(results)
+                ? results.get(index)
+                : null;
+    }
+
+    private static long longResult(final Record bucketRecord,
+            final String bin,
+            final int index) {
+        final Object result = result(bucketRecord, bin, index);
+        return Objects.nonNull(result)
+                ? ((Number) result).longValue()
+                : 0L;
+    }
+
+    // Refuses appends to a sealed bucket, and appends whose pointers are already in it
+    private static Expression appendFilter(final long firstPointer,
+            final int count) {
+        final List<Long> pointers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pointers.add(firstPointer + i);
+        }
+        return Exp.build(Exp.and(
+                Exp.not(Exp.binExists(Constants.SEALED)),
+                Exp.or(Exp.not(Exp.binExists(Constants.APPENDED)),
+                        Exp.eq(MapExp.getByKeyList(MapReturnType.COUNT, Exp.val(pointers),
+                                Exp.mapBin(Constants.APPENDED)), Exp.val(0)))));
+    }
+
+    private static Operation[] appendOperations(final long firstPointer,
+            final List<?> data) {
+        final Map<Value, Value> items = new HashMap<>();
+        final Map<Value, Value> appended = new HashMap<>();
+        for (int i = 0; i < data.size(); i++) {
+            items.put(Value.get(firstPointer + i), Value.get(data.get(i)));
+            appended.put(Value.get(firstPointer + i), APPENDED_MARK);
+        }
+        return new Operation[]{
+                MapOperation.putItems(APPEND_MAP_POLICY, Constants.ITEMS, items),
+                MapOperation.putItems(APPEND_MAP_POLICY, Constants.APPENDED, appended),
+                Operation.put(new Bin(Constants.MODIFIED_AT, System.currentTimeMillis()))};
+    }
+
+    // Pops the lowest pointers, and reads what is left: items left, distinct pointers appended and the highest of them
+    private static Operation[] popOperations(final int maxItems) {
+        return new Operation[]{
+                MapOperation.removeByIndexRange(Constants.ITEMS, 0, maxItems, MapReturnType.KEY_VALUE),
+                MapOperation.size(Constants.ITEMS),
+                MapOperation.size(Constants.APPENDED),
+                MapOperation.getByIndex(Constants.APPENDED, -1, MapReturnType.KEY),
+                Operation.get(Constants.MODIFIED_AT)};
+    }
+}
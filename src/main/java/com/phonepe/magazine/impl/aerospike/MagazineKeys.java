@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.Key;
+import com.phonepe.magazine.common.Constants;
+import com.phonepe.magazine.util.CommonUtils;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.Getter;
+
+/**
+ * Keys of one magazine, built once and reused by every operation. Shards are addressed by index; an unsharded
+ * magazine has a single entry at index 0 whose keys carry no shard. The keys of a delay bucket are those of a separate
+ * pointer space, named after the magazine and the open time of the bucket.
+ */
+@Getter
+public class MagazineKeys {
+
+    private final String magazineIdentifier;
+    private final Long bucket; // Null for the pointer space of data fired right away
+    private final String namespace;
+    private final String dataSetName;
+    private final String[] dataKeyPrefixes;
+    private final Key[] pointerKeys;
+    private final Key[] counterKeys;
+    private final AtomicLongArray listBucketCursors; // Local hint of the list bucket each shard fires from, 0 if unknown
+    private final AtomicLong ownSliceDrySince = new AtomicLong(); // When the local farm's slice was seen dry, 0 if not
+
+    public MagazineKeys(final String magazineIdentifier,
+            final String namespace,
+            final String dataSetName,
+            final String metaSetName,
+            final int shards) {
+        this(magazineIdentifier, null, namespace, dataSetName, metaSetName, shards);
+    }
+
+    public MagazineKeys(final String magazineIdentifier,
+            final Long bucket,
+            final String namespace,
+            final String dataSetName,
+            final String metaSetName,
+            final int shards) {
+        this.magazineIdentifier = magazineIdentifier;
+        this.bucket = bucket;
+        final String spaceIdentifier = CommonUtils.resolveSpaceIdentifier(magazineIdentifier, bucket);
+        this.namespace = namespace;
+        this.dataSetName = dataSetName;
+        this.dataKeyPrefixes = new String[shards];
+        this.pointerKeys = new Key[shards];
+        this.counterKeys = new Key[shards];
+        this.listBucketCursors = new AtomicLongArray(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            final String prefix = shards > 1
+                    ? spaceIdentifier + Constants.KEY_DELIMITER + Constants.SHARD_PREFIX + Constants.KEY_DELIMITER
+                    + shard + Constants.KEY_DELIMITER
+                    : spaceIdentifier + Constants.KEY_DELIMITER;
+            dataKeyPrefixes[shard] = prefix;
+            pointerKeys[shard] = new Key(namespace, metaSetName, prefix + Constants.POINTERS);
+            counterKeys[shard] = new Key(namespace, metaSetName, prefix + Constants.COUNTERS);
+        }
+    }
+
+    public String dataKeyString(final int shard,
+            final long pointer) {
+        return dataKeyPrefixes[shard] + pointer;
+    }
+
+    public Key dataKey(final int shard,
+            final long pointer) {
+        return new Key(namespace, dataSetName, dataKeyString(shard, pointer));
+    }
+
+    public Key pointerKey(final int shard) {
+        return pointerKeys[shard];
+    }
+
+    public Key counterKey(final int shard) {
+        return counterKeys[shard];
+    }
+
+    public Key listBucketKey(final int shard,
+            final long listBucket) {
+        return new Key(namespace, dataSetName, dataKeyPrefixes[shard] + Constants.LIST_BUCKET + Constants.KEY_DELIMITER
+                + listBucket);
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.IAerospikeClient;
+import com.phonepe.dlm.DistributedLockManager;
+import com.phonepe.dlm.lock.base.LockBase;
+import com.phonepe.dlm.lock.mode.LockMode;
+import com.phonepe.dlm.lock.storage.aerospike.AerospikeStore;
+import com.phonepe.magazine.common.Constants;
+import com.phonepe.magazine.util.ThreadUtils;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Resources shared by every {@link AerospikeStorage} of one client, namespace and farm: the lock manager, the
+ * retryers, the scheduler of periodic work, the active shard refresh with its executor and the pool of hedged reads.
+ * Storages borrow them, so threads and lock manager state do not grow with the number of magazines. A runtime from
+ * {@link #shared} is closed once the last storage holding it is closed.
+ */
+@Getter
+public class MagazineRuntime implements AutoCloseable {
+
+    private static final Map<RuntimeKey, MagazineRuntime> SHARED = new ConcurrentHashMap<>();
+
+    private final DistributedLockManager lockManager;
+    private final AerospikeRetryerFactory<Object> retryerFactory;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService refreshExecutor;
+    @Getter(AccessLevel.NONE)
+    private ScheduledExecutorService hedgeExecutor; // Created by the first storage that hedges, see getHedgeExecutor
+    @Getter(AccessLevel.NONE)
+    private ExecutorService hedgedReadExecutor;
+    @Getter(AccessLevel.PACKAGE)
+    private final ActiveShardsRefresher activeShardsRefresher;
+    @Getter(AccessLevel.NONE)
+    private final RuntimeKey key;
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger references = new AtomicInteger(); // Holders of a shared runtime, changed under SHARED
+
+    public MagazineRuntime(final IAerospikeClient aerospikeClient,
+            final String namespace,
+            final String farmId) {
+        this(aerospikeClient, namespace, farmId, new ActiveShardsRefreshConfig());
+    }
+
+    /**
+     * @param refreshConfig Interval, idle timeout and capacity of the active shard refresh of the magazines.
+     */
+    public MagazineRuntime(final IAerospikeClient aerospikeClient,
+            final String namespace,
+            final String farmId,
+            final ActiveShardsRefreshConfig refreshConfig) {
+        this(new RuntimeKey(aerospikeClient, namespace, farmId), refreshConfig);
+    }
+
+    private MagazineRuntime(final RuntimeKey key,
+            final ActiveShardsRefreshConfig refreshConfig) {
+        this.key = key;
+        this.retryerFactory = new AerospikeRetryerFactory<>();
+        // Several threads, so that one slow counter flush or refresh does not hold up the periodic work of the others
+        this.scheduler = Executors.newScheduledThreadPool(Constants.DEFAULT_SCHEDULER_THREADS,
+                ThreadUtils.daemonThreadFactory("magazine-scheduler-"));
+        this.refreshExecutor = Executors.newFixedThreadPool(Constants.DEFAULT_REFRESH_THREADS,
+                ThreadUtils.daemonThreadFactory("magazine-refresh-"));
+        this.lockManager = new DistributedLockManager(Constants.DLM_CLIENT_ID, key.getFarmId(),
+                LockBase.builder()
+                        .mode(LockMode.EXCLUSIVE)
+                        // Counted, so that lock events carry the calls of the lock manager too
+                        .lockStore(AerospikeStore.builder()
+                                .aerospikeClient(ClientCalls.counting(key.getAerospikeClient()))
+                                .namespace(key.getNamespace())
+                                .setSuffix(Constants.MAGAZINE_DISTRIBUTED_LOCK_SET_NAME_SUFFIX)
+                                .build())
+                        .build());
+        this.activeShardsRefresher = new ActiveShardsRefresher(key.getAerospikeClient(), retryerFactory, scheduler,
+                refreshExecutor, refreshConfig);
+        lockManager.initialize();
+    }
+
+    /**
+     * The runtime shared by all storages of the given client, namespace and farm, created on first use. Every call
+     * must be matched by a {@link #release()}.
+     *
+     * @param aerospikeClient Aerospike client of the storages.
+     * @param namespace       Namespace of the storages, which also holds the locks.
+     * @param farmId          Farm of the storages.
+     * @return The shared runtime.
+     */
+    public static MagazineRuntime shared(final IAerospikeClient aerospikeClient,
+            final String namespace,
+            final String farmId) {
+        return shared(aerospikeClient, namespace, farmId, new ActiveShardsRefreshConfig());
+    }
+
+    /**
+     * As {@link #shared(IAerospikeClient, String, String)}, with the refresh config used if the runtime is created by
+     * this call. A runtime already shared keeps the config it was created with.
+     *
+     * @param refreshConfig Interval, idle timeout and capacity of the active shard refresh of the magazines.
+     */
+    public static MagazineRuntime shared(final IAerospikeClient aerospikeClient,
+            final String namespace,
+            final String farmId,
+            final ActiveShardsRefreshConfig refreshConfig) {
+        return SHARED.compute(new RuntimeKey(aerospikeClient, namespace, farmId), (key, runtime) -> {
+            final MagazineRuntime acquired = Objects.nonNull(runtime)
+                    ? runtime
+                    : new MagazineRuntime(key, refreshConfig);
+            acquired.references.incrementAndGet();
+            return acquired;
+        });
+    }
+
+    /**
+     * Timers of the hedges of data reads, created on first use so that runtimes without hedging storages start no
+     * threads for them.
+     *
+     * @return The hedge timers.
+     */
+    public synchronized ScheduledExecutorService getHedgeExecutor() {
+        if (Objects.isNull(hedgeExecutor)) {
+            // Hedges are timers that are cancelled when the read answers in time
+            final ScheduledThreadPoolExecutor hedgeTimers = new ScheduledThreadPoolExecutor(
+                    Constants.DEFAULT_HEDGE_THREADS, ThreadUtils.daemonThreadFactory("magazine-hedge-timer-"));
+            hedgeTimers.setRemoveOnCancelPolicy(true);
+            hedgeExecutor = hedgeTimers;
+        }
+        return hedgeExecutor;
+    }
+
+    /**
+     * Pool the primary and hedge reads of hedged data reads run on, created on first use.
+     *
+     * @return The hedged read pool.
+     */
+    public synchronized ExecutorService getHedgedReadExecutor() {
+        if (Objects.isNull(hedgedReadExecutor)) {
+            // Hedged reads run off the calling thread, which returns with the first answer. Threads are started as
+            // needed up to a bound and retire when idle, and without a queue a read finding all of them busy is
+            // rejected at once.
+            hedgedReadExecutor = new ThreadPoolExecutor(0, Constants.DEFAULT_HEDGED_READ_THREADS, 60,
+                    TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    ThreadUtils.daemonThreadFactory("magazine-hedged-read-"));
+        }
+        return hedgedReadExecutor;
+    }
+
+    /**
+     * Give back a runtime obtained from {@link #shared}. The last holder to release it closes it.
+     */
+    public void release() {
+        final boolean[] last = {false};
+        SHARED.computeIfPresent(key, (runtimeKey, runtime) -> {
+            if (runtime != this || references.decrementAndGet() > 0) {
+                return runtime;
+            }
+            last[0] = true;
+            return null;
+        });
+        if (last[0]) {
+            shutdown();
+        }
+    }
+
+    /**
+     * Stop the threads and the lock manager. Storages using the runtime must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        SHARED.remove(key, this);
+        shutdown();
+    }
+
+    private void shutdown() {
+        scheduler.shutdown();
+        refreshExecutor.shutdown();
+        synchronized (this) {
+            if (Objects.nonNull(hedgeExecutor)) {
+                hedgeExecutor.shutdown();
+            }
+            if (Objects.nonNull(hedgedReadExecutor)) {
+                hedgedReadExecutor.shutdown();
+            }
+        }
+        lockManager.destroy();
+    }
+
+    // Clients are compared by identity, whatever their equals does
+    @Value
+    private static class RuntimeKey {
+
+        IAerospikeClient aerospikeClient;
+        String namespace;
+        String farmId;
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof RuntimeKey)) {
+                return false;
+            }
+            final RuntimeKey that = (RuntimeKey) other;
+            return aerospikeClient == that.aerospikeClient
+                    && Objects.equals(namespace, that.namespace)
+                    && Objects.equals(farmId, that.farmId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(aerospikeClient), namespace, farmId);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.exp.Exp;
+import com.aerospike.client.policy.ScanPolicy;
+import com.aerospike.client.query.PartitionFilter;
+import com.aerospike.client.query.RegexFlag;
+import com.phonepe.magazine.common.Constants;
+import com.phonepe.magazine.common.MagazineData;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Exports every data record of one magazine by scanning the data set. The 4096 partitions are split into contiguous
+ * ranges, one per worker, and each worker runs a partition-filtered scan. A server-side expression on the stored user
+ * key drops records of other magazines before they are sent. Records are handed to the consumer on the calling thread
+ * through a bounded queue, so a slow consumer blocks the scans instead of buffering the whole set in memory.
+ *
+ * @param <T> Type of data in the magazine.
+ */
+public class PartitionScanExporter<T> {
+
+    private static final Object END_OF_RANGE = new Object();
+    private static final String REGEX_SPECIAL_CHARACTERS = "\\.[]{}()*+?^$|";
+
+    private final IAerospikeClient aerospikeClient;
+    private final String namespace;
+    private final String dataSetName;
+    private final int shards;
+    private final Class<T> clazz;
+
+    public PartitionScanExporter(final IAerospikeClient aerospikeClient,
+            final String namespace,
+            final String dataSetName,
+            final int shards,
+            final Class<T> clazz) {
+        this.aerospikeClient = aerospikeClient;
+        this.namespace = namespace;
+        this.dataSetName = dataSetName;
+        this.shards = shards;
+        this.clazz = clazz;
+    }
+
+    /**
+     * Stream every data record of the magazine to the consumer.
+     *
+     * @param magazineIdentifier The identifier of the magazine to export.
+     * @param consumer Receives each MagazineData, always on the calling thread.
+     * @param parallelism Number of parallel partition scans.
+     * @return Number of exported records.
+     * @throws Exception The first scan failure, or whatever the consumer threw.
+     */
+    @SuppressWarnings("unchecked")
+    public long export(final String magazineIdentifier,
+            final Consumer<MagazineData<T>> consumer,
+            final int parallelism) throws Exception {
+        final int workers = Math.max(1, Math.min(parallelism, Node.PARTITIONS));
+        final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(Constants.DEFAULT_EXPORT_QUEUE_SIZE);
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final ScanPolicy scanPolicy = buildScanPolicy(magazineIdentifier);
+        final String keyPrefix = magazineIdentifier + Constants.KEY_DELIMITER;
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            final Thread thread = new Thread(runnable, "magazine-export-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final int partitionsPerWorker = (Node.PARTITIONS + workers - 1) / workers;
+            for (int begin = 0; begin < Node.PARTITIONS; begin += partitionsPerWorker) {
+                final PartitionFilter partitionFilter =
+                        PartitionFilter.range(begin, Math.min(partitionsPerWorker, Node.PARTITIONS - begin));
+                executor.execute(() -> scanRange(scanPolicy, partitionFilter, magazineIdentifier, keyPrefix, queue,
+                        failure));
+            }
+
+            long exported = 0;
+            int finishedRanges = 0;
+            final int ranges = (Node.PARTITIONS + partitionsPerWorker - 1) / partitionsPerWorker;
+            while (finishedRanges < ranges) {
+                final Object element = queue.take();
+                if (element == END_OF_RANGE) {
+                    finishedRanges++;
+                } else {
+                    consumer.accept((MagazineData<T>) element);
+                    exported++;
+                }
+            }
+            if (Objects.nonNull(failure.get())) {
+                throw failure.get();
+            }
+            return exported;
+        } finally {
+            // Interrupts scans blocked on a full queue if the consumer failed
+            executor.shutdownNow();
+        }
+    }
+
+    private void scanRange(final ScanPolicy scanPolicy,
+            final PartitionFilter partitionFilter,
+            final String magazineIdentifier,
+            final String keyPrefix,
+            final BlockingQueue<Object> queue,
+            final AtomicReference<Exception> failure) {
+        try {
+            aerospikeClient.scanPartitions(scanPolicy, partitionFilter, namespace, dataSetName,
+                    (key, record) -> {
+                        final MagazineData<T> magazineData = toMagazineData(magazineIdentifier, keyPrefix, key,
+                                record);
+                        if (Objects.nonNull(magazineData)) {
+                            try {
+                                queue.put(magazineData);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new AerospikeException.ScanTerminated(e);
+                            }
+                        }
+                    },
+                    Constants.DATA);
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            try {
+                queue.put(END_OF_RANGE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Parses bucket, shard and pointer back out of the stored user key, null if the record is not a data record of this
+    // magazine
+    private MagazineData<T> toMagazineData(final String magazineIdentifier,
+            final String keyPrefix,
+            final Key key,
+            final Record record) {
+        if (Objects.isNull(key.userKey) || Objects.isNull(record)) {
+            return null;
+        }
+        final String userKey = key.userKey.toString();
+        if (!userKey.startsWith(keyPrefix)) {
+            return null;
+        }
+        final String[] keyParts = userKey.substring(keyPrefix.length())
+                .split(Constants.KEY_DELIMITER);
+        try {
+            final boolean delayed = keyParts.length > 2 && Constants.DELAYED.equals(keyParts[0]);
+            final Long bucket = delayed
+                    ? Long.parseLong(keyParts[1])
+                    : null;
+            final String[] parts = delayed
+                    ? Arrays.copyOfRange(keyParts, 2, keyParts.length)
+                    : keyParts;
+            if (shards > 1 && parts.length == 3 && Constants.SHARD_PREFIX.equals(parts[0])) {
+                return MagazineData.<T>builder()
+                        .magazineIdentifier(magazineIdentifier)
+                        .shard(Integer.parseInt(parts[1]))
+                        .firePointer(Long.parseLong(parts[2]))
+                        .bucket(bucket)
+                        .data(clazz.cast(record.getValue(Constants.DATA)))
+                        .build();
+            }
+            if (shards <= 1 && parts.length == 1) {
+                return MagazineData.<T>builder()
+                        .magazineIdentifier(magazineIdentifier)
+                        .firePointer(Long.parseLong(parts[0]))
+                        .bucket(bucket)
+                        .data(clazz.cast(record.getValue(Constants.DATA)))
+                        .build();
+            }
+        } catch (NumberFormatException e) {
+            // Key of another magazine whose identifier starts with this one
+        }
+        return null;
+    }
+
+    private ScanPolicy buildScanPolicy(final String magazineIdentifier) {
+        final ScanPolicy scanPolicy = new ScanPolicy(aerospikeClient.getScanPolicyDefault());
+        scanPolicy.includeBinData = true;
+        scanPolicy.filterExp = Exp.build(Exp.and(
+                Exp.keyExists(),
+                Exp.regexCompare(keyRegex(magazineIdentifier), RegexFlag.EXTENDED, Exp.key(Exp.Type.STRING))));
+        return scanPolicy;
+    }
+
+    private String keyRegex(final String magazineIdentifier) {
+        final StringBuilder regex = new StringBuilder("^");
+        for (char character : magazineIdentifier.toCharArray()) {
+            if (REGEX_SPECIAL_CHARACTERS.indexOf(character) >= 0) {
+                regex.append('\\');
+            }
+            regex.append(character);
+        }
+        regex.append(Constants.KEY_DELIMITER);
+        // Data of a delay bucket carries the bucket's open time right after the magazine identifier
+        regex.append("(")
+                .append(Constants.DELAYED)
+                .append(Constants.KEY_DELIMITER)
+                .append("[0-9]+")
+                .append(Constants.KEY_DELIMITER)
+                .append(")?");
+        if (shards > 1) {
+            regex.append(Constants.SHARD_PREFIX)
+                    .append(Constants.KEY_DELIMITER)
+                    .append("[0-9]+")
+                    .append(Constants.KEY_DELIMITER);
+        }
+        return regex.append("[0-9]+$")
+                .toString();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.aerospike.client.policy.CommitLevel;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.WritePolicy;
+import java.util.Objects;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Overrides of the client default policy for one kind of operation. Unset fields keep the client default, and fields
+ * that do not apply to an operation (commit level on a read, batch concurrency on a single record call) are ignored.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PolicyProfile {
+
+    @Min(0)
+    private Integer socketTimeoutMillis;
+    @Min(0)
+    private Integer totalTimeoutMillis;
+    @Min(0)
+    private Integer maxRetries;
+    private CommitLevel commitLevel;
+    // Export needs the key stored with data records, so keep it on for load
+    private Boolean sendKey;
+    // Parallel node requests of a batch, 0 means all nodes at once
+    @Min(0)
+    private Integer batchConcurrency;
+
+    /**
+     * Apply the profile, if any, to a policy.
+     *
+     * @param profile The profile, null to keep the policy as it is.
+     * @param policy The policy to tune in place.
+     * @return The same policy.
+     */
+    public static <P extends Policy> P apply(final PolicyProfile profile,
+            final P policy) {
+        if (Objects.isNull(profile)) {
+            return policy;
+        }
+        if (Objects.nonNull(profile.socketTimeoutMillis)) {
+            policy.socketTimeout = profile.socketTimeoutMillis;
+        }
+        if (Objects.nonNull(profile.totalTimeoutMillis)) {
+            policy.totalTimeout = profile.totalTimeoutMillis;
+        }
+        if (Objects.nonNull(profile.maxRetries)) {
+            policy.maxRetries = profile.maxRetries;
+        }
+        if (Objects.nonNull(profile.sendKey)) {
+            policy.sendKey = profile.sendKey;
+        }
+        if (policy instanceof WritePolicy writePolicy && Objects.nonNull(profile.commitLevel)) {
+            writePolicy.commitLevel = profile.commitLevel;
+        }
+        if (policy instanceof BatchPolicy batchPolicy && Objects.nonNull(profile.batchConcurrency)) {
+            batchPolicy.maxConcurrentThreads = profile.batchConcurrency;
+        }
+        return policy;
+    }
+
+    /**
+     * Apply the record level settings of the profile, if any, to a batch write policy.
+     *
+     * @param profile The profile, null to keep the policy as it is.
+     * @param policy The policy to tune in place.
+     * @return The same policy.
+     */
+    public static BatchWritePolicy apply(final PolicyProfile profile,
+            final BatchWritePolicy policy) {
+        if (Objects.isNull(profile)) {
+            return policy;
+        }
+        if (Objects.nonNull(profile.sendKey)) {
+            policy.sendKey = profile.sendKey;
+        }
+        if (Objects.nonNull(profile.commitLevel)) {
+            policy.commitLevel = profile.commitLevel;
+        }
+        return policy;
+    }
+}
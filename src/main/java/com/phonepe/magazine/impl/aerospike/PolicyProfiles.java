@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+
+/**
+ * Policy profiles per kind of operation, each falling back to the client defaults when absent.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PolicyProfiles {
+
+    @Valid
+    private PolicyProfile load; // Data writes and load pointer reservation
+    @Valid
+    private PolicyProfile fireClaim; // Pointer read and fire pointer advance
+    @Valid
+    private PolicyProfile fireRead; // Data read of fire, hedges included
+    @Valid
+    private PolicyProfile metaBatch; // Pointer and counter batch reads of metadata and active shard refresh
+    @Valid
+    private PolicyProfile peek; // Data batch reads of peek and batched fire
+    @Valid
+    private PolicyProfile deDupe; // Deduper set reads and writes
+}
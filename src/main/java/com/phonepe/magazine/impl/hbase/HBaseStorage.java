@@ -19,11 +19,15 @@ package com.phonepe.magazine.impl.hbase;
 import com.phonepe.magazine.common.MagazineData;
 import com.phonepe.magazine.common.MetaData;
 import com.phonepe.magazine.core.BaseMagazineStorage;
+import com.phonepe.magazine.core.BatchLoadResult;
 import com.phonepe.magazine.core.StorageType;
 import com.phonepe.magazine.scope.MagazineScope;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public class HBaseStorage<T> extends BaseMagazineStorage<T> {
 
@@ -43,6 +47,13 @@ public class HBaseStorage<T> extends BaseMagazineStorage<T> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public boolean load(final String keyPrefix,
+            final T data,
+            final Instant notBefore) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public boolean reload(final String keyPrefix,
             final T data) {
@@ -54,6 +65,23 @@ public class HBaseStorage<T> extends BaseMagazineStorage<T> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void ack(final String keyPrefix,
+            final MagazineData<T> magazineData) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<MagazineData<T>> fireBatch(final String keyPrefix,
+            final int maxItems) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean hasDataToFire(final String keyPrefix) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Map<String, MetaData> getMetaData(final String keyPrefix) {
         throw new UnsupportedOperationException();
@@ -69,4 +97,31 @@ public class HBaseStorage<T> extends BaseMagazineStorage<T> {
             final Map<Integer, Set<Long>> shardPointersMap) {
         throw new UnsupportedOperationException();
     }
+
+    @Override
+    public List<MagazineData<T>> peekRange(final String magazineIdentifier,
+            final Integer shard,
+            final long fromPointer,
+            final long toPointer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long export(final String magazineIdentifier,
+            final Consumer<MagazineData<T>> consumer,
+            final int parallelism) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BatchLoadResult loadBatch(final String magazineIdentifier,
+            final int shard,
+            final List<T> data) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Class<T> getClazz() {
+        throw new UnsupportedOperationException();
+    }
 }
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Setter
+@Name("com.phonepe.magazine.DeDupeCheck")
+@Label("Magazine Dedupe Check")
+public class DeDupeCheckEvent extends MagazineEvent {
+
+    @Label("Duplicate")
+    private boolean duplicate;
+
+    @Label("Near Cache")
+    @Description("Answered by the local near-cache, without a round trip")
+    private boolean nearCache;
+}
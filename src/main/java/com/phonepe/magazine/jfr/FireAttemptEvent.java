@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Setter
+@Name("com.phonepe.magazine.FireAttempt")
+@Label("Magazine Fire Attempt")
+@Description("One attempt of a fire, a fire that finds nothing on its first attempt retries with more of them")
+public class FireAttemptEvent extends MagazineEvent {
+
+    public static final String FIRED = "FIRED";
+    public static final String NOTHING_TO_FIRE = "NOTHING_TO_FIRE"; // No active shard in any pointer space
+    public static final String EMPTY_SHARD = "EMPTY_SHARD"; // The selected shard was drained since the last refresh
+    public static final String MISSING_RECORD = "MISSING_RECORD"; // The claimed pointer held no data
+    public static final String LOCK_BUSY = "LOCK_BUSY"; // Another farm holds the shard of a global magazine
+    public static final String CLAIM_CONFLICT = "CLAIM_CONFLICT"; // Another claim or a load changed the pointers first
+
+    @Label("Shard")
+    private int shard = -1;
+
+    @Label("Pointer")
+    private long pointer;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Retry")
+    @Description("Attempt made by the fire retryer after the first one")
+    private boolean retry;
+}
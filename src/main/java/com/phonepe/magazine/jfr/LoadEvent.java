@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Setter
+@Name("com.phonepe.magazine.Load")
+@Label("Magazine Load")
+@Description("Load of one item, from dedupe check to counter update")
+public class LoadEvent extends MagazineEvent {
+
+    @Label("Shard")
+    private int shard = -1; // Left at -1 when nothing was written
+
+    @Label("Pointer")
+    private long pointer;
+
+    @Label("Delayed")
+    @Description("Loaded into a delay bucket")
+    private boolean delayed;
+
+    @Label("Duplicate")
+    private boolean duplicate;
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Base of the Flight Recorder events of Magazine operations. Events are created on every call, but only filled in
+ * and committed when a recording enables them. Round trips count the client calls made on the operation's thread,
+ * every attempt of a retried call included, and the event duration covers the whole operation.
+ */
+@Setter
+@Category("Magazine")
+@StackTrace(false)
+public abstract class MagazineEvent extends jdk.jfr.Event {
+
+    // Flight Recorder leaves out private fields of super classes
+    @Label("Magazine")
+    protected String magazineIdentifier;
+
+    @Label("Round Trips")
+    @Description("Client calls made by the operation, retries included")
+    protected int roundTrips;
+}
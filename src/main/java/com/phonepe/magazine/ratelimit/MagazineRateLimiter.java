@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.ratelimit;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Token-bucket limits on load, reload and fire. A limiter created on its own caps a single magazine; one held by
+ * a {@link com.phonepe.magazine.MagazineManager} caps all its magazines together, and each magazine gets a child
+ * from {@link #child(RateLimits)} that draws from both its own buckets and the shared ones.
+ */
+public class MagazineRateLimiter {
+
+    private final RefillClock clock;
+    private final Map<RateLimitedOperation, RateLimiter> limiters = new EnumMap<>(RateLimitedOperation.class);
+
+    public MagazineRateLimiter(final RateLimits rateLimits) {
+        this(rateLimits, RefillClock.SYSTEM);
+    }
+
+    public MagazineRateLimiter(final RateLimits rateLimits, final RefillClock clock) {
+        this(rateLimits, clock, null);
+    }
+
+    private MagazineRateLimiter(final RateLimits rateLimits,
+            final RefillClock clock,
+            final MagazineRateLimiter parent) {
+        this.clock = clock;
+        for (RateLimitedOperation operation : RateLimitedOperation.values()) {
+            final RateLimitConfig config = Objects.isNull(rateLimits) ? null : rateLimits.forOperation(operation);
+            final RateLimiter parentLimiter = Objects.isNull(parent) ? null : parent.limiters.get(operation);
+            if (Objects.nonNull(config)) {
+                final TokenBucket parentBucket = Objects.isNull(parentLimiter) ? null : parentLimiter.getBucket();
+                limiters.put(operation, new RateLimiter(new TokenBucket(config, clock, parentBucket), config, clock));
+            } else if (Objects.nonNull(parentLimiter)) {
+                // Only limited by the shared bucket, but counted separately for this magazine
+                limiters.put(operation,
+                        new RateLimiter(parentLimiter.getBucket(), parentLimiter.getConfig(), clock));
+            }
+        }
+    }
+
+    /**
+     * Create a limiter whose buckets also draw from this limiter's buckets, refilled by the same clock.
+     *
+     * @param rateLimits Limits of the child, null to only be limited by this limiter.
+     * @return The child limiter.
+     */
+    public MagazineRateLimiter child(final RateLimits rateLimits) {
+        return new MagazineRateLimiter(rateLimits, clock, this);
+    }
+
+    /**
+     * Take a permit for the operation, waiting or failing with RATE_LIMITED according to its mode.
+     *
+     * @param magazineIdentifier Magazine the operation is performed on, used in the error message.
+     * @param operation          The operation.
+     */
+    public void acquire(final String magazineIdentifier, final RateLimitedOperation operation) {
+        final RateLimiter limiter = limiters.get(operation);
+        if (Objects.nonNull(limiter)) {
+            limiter.acquire(magazineIdentifier, operation);
+        }
+    }
+
+    /**
+     * @return Permitted, throttled and rejected counts of every limited operation.
+     */
+    public Map<RateLimitedOperation, RateLimitStats> getStats() {
+        final Map<RateLimitedOperation, RateLimitStats> stats = new EnumMap<>(RateLimitedOperation.class);
+        limiters.forEach((operation, limiter) -> stats.put(operation, limiter.getStats()));
+        return Collections.unmodifiableMap(stats);
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RateLimitConfig {
+
+    @Min(1)
+    private long permitsPerSecond;
+    // Permits that may be taken at once after an idle period, defaults to one second worth of permits
+    @Min(0)
+    private long burst;
+    @NotNull
+    @Builder.Default
+    private RateLimitMode mode = RateLimitMode.BLOCKING;
+    // Only used in TRY_ACQUIRE mode
+    @Min(0)
+    @Builder.Default
+    private long maxWaitMillis = 100;
+}
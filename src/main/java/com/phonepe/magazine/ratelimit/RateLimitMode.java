@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.ratelimit;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public enum RateLimitMode {
+    /**
+     * Wait for as long as it takes for a permit to become available.
+     */
+    BLOCKING(RateLimitMode.BLOCKING_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitBlocking();
+        }
+    },
+    /**
+     * Wait for a permit for at most the configured maxWaitMillis, then reject.
+     */
+    TRY_ACQUIRE(RateLimitMode.TRY_ACQUIRE_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitTryAcquire();
+        }
+    },
+    /**
+     * Reject right away when no permit is available.
+     */
+    REJECT(RateLimitMode.REJECT_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitReject();
+        }
+    };
+
+    public static final String BLOCKING_TEXT = "BLOCKING";
+    public static final String TRY_ACQUIRE_TEXT = "TRY_ACQUIRE";
+    public static final String REJECT_TEXT = "REJECT";
+
+    @Getter
+    private final String value;
+
+    public abstract <T> T accept(Visitor<T> visitor);
+
+    public interface Visitor<T> {
+
+        T visitBlocking();
+
+        T visitTryAcquire();
+
+        T visitReject();
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.ratelimit;
+
+import com.phonepe.magazine.exception.ErrorCode;
+import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.util.ErrorMessage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies a {@link RateLimitMode} on top of a {@link TokenBucket} for a single operation, and counts the outcome.
+ */
+class RateLimiter {
+
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final TokenBucket bucket;
+    private final RateLimitConfig config;
+    private final RefillClock clock;
+    private final LongAdder permitted = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    RateLimiter(final TokenBucket bucket, final RateLimitConfig config, final RefillClock clock) {
+        this.bucket = bucket;
+        this.config = config;
+        this.clock = clock;
+    }
+
+    void acquire(final String magazineIdentifier, final RateLimitedOperation operation) {
+        if (bucket.tryAcquire()) {
+            permitted.increment();
+            return;
+        }
+        final long deadline = config.getMode().accept(new RateLimitMode.Visitor<Long>() {
+            @Override
+            public Long visitBlocking() {
+                return Long.MAX_VALUE;
+            }
+
+            @Override
+            public Long visitTryAcquire() {
+                return clock.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getMaxWaitMillis());
+            }
+
+            @Override
+            public Long visitReject() {
+                return Long.MIN_VALUE;
+            }
+        });
+        if (deadline == Long.MIN_VALUE) {
+            throw reject(magazineIdentifier, operation);
+        }
+        boolean waited = false;
+        while (!bucket.tryAcquire()) {
+            final long wait = Math.max(MIN_PARK_NANOS, bucket.nanosUntilAvailable());
+            if (deadline != Long.MAX_VALUE && clock.nanoTime() + wait > deadline) {
+                throw reject(magazineIdentifier, operation);
+            }
+            if (!waited) {
+                throttled.increment();
+                waited = true;
+            }
+            clock.park(wait);
+            if (Thread.currentThread().isInterrupted()) {
+                throw reject(magazineIdentifier, operation);
+            }
+        }
+        permitted.increment();
+    }
+
+    RateLimitStats getStats() {
+        return new RateLimitStats(permitted.sum(), throttled.sum(), rejected.sum());
+    }
+
+    RateLimitConfig getConfig() {
+        return config;
+    }
+
+    TokenBucket getBucket() {
+        return bucket;
+    }
+
+    private MagazineException reject(final String magazineIdentifier, final RateLimitedOperation operation) {
+        rejected.increment();
+        return MagazineException.builder()
+                .message(String.format(ErrorMessage.RATE_LIMITED, operation, magazineIdentifier))
+                .errorCode(ErrorCode.RATE_LIMITED)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+
+/**
+ * Limits per operation. An operation without a config is not limited at this level, but still draws from the
+ * shared limiter, if any. Reloads are limited separately so that retries do not starve fresh loads.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RateLimits {
+
+    @Valid
+    private RateLimitConfig load;
+    @Valid
+    private RateLimitConfig reload;
+    @Valid
+    private RateLimitConfig fire;
+
+    RateLimitConfig forOperation(final RateLimitedOperation operation) {
+        switch (operation) {
+            case LOAD:
+                return load;
+            case RELOAD:
+                return reload;
+            case FIRE:
+                return fire;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.ratelimit;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time source against which token buckets are refilled. Every bucket of a {@link MagazineRateLimiter} and of the
+ * limiters derived from it reads the same clock, so per-magazine and shared buckets refill in step.
+ */
+@FunctionalInterface
+public interface RefillClock {
+
+    RefillClock SYSTEM = System::nanoTime;
+
+    /**
+     * @return Monotonic time in nanoseconds, only meaningful relative to other readings of the same clock.
+     */
+    long nanoTime();
+
+    /**
+     * Wait for a permit to be refilled. A clock whose time is driven by hand advances it here instead of waiting.
+     *
+     * @param nanos Nanoseconds to wait for, measured on this clock.
+     */
+    default void park(final long nanos) {
+        LockSupport.parkNanos(nanos);
+    }
+}
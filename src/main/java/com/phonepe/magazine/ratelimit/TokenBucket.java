@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.ratelimit;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket refilled lazily from a {@link RefillClock}. A permit is granted only when this bucket and every
+ * parent bucket have one, and is taken from all of them, so a parent caps the combined rate of its children.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double permitsPerNano;
+    private final RefillClock clock;
+    private final TokenBucket parent;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(final RateLimitConfig config, final RefillClock clock, final TokenBucket parent) {
+        this.capacity = Math.max(1, config.getBurst() > 0 ? config.getBurst() : config.getPermitsPerSecond());
+        this.permitsPerNano = (double) Math.max(1, config.getPermitsPerSecond()) / TimeUnit.SECONDS.toNanos(1);
+        this.clock = clock;
+        this.parent = parent;
+        this.tokens = capacity;
+        this.lastRefillNanos = clock.nanoTime();
+    }
+
+    // Locks are always taken child first, then parent, so nested acquisition cannot deadlock
+    synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        if (Objects.nonNull(parent) && !parent.tryAcquire()) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * @return Nanoseconds until this bucket and all its parents should have a permit, 0 if they already do.
+     */
+    synchronized long nanosUntilAvailable() {
+        refill();
+        final long own = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / permitsPerNano);
+        return Objects.isNull(parent) ? own : Math.max(own, parent.nanosUntilAvailable());
+    }
+
+    private void refill() {
+        final long now = clock.nanoTime();
+        final long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * permitsPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.reactive;
+
+import com.phonepe.magazine.common.MagazineData;
+import com.phonepe.magazine.core.BaseMagazineStorage;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+/**
+ * Publishes the data fired from one magazine. Each subscriber gets its own subscription, which fires only what the
+ * subscriber has requested, in batched claims, and backs off exponentially while the magazine is empty. The stream
+ * never completes on its own, it ends with cancellation or with an error from the storage.
+ *
+ * @param <T> Type of data in the magazine.
+ */
+public class MagazinePublisher<T> implements Flow.Publisher<MagazineData<T>> {
+
+    private final BaseMagazineStorage<T> baseMagazineStorage;
+    private final String magazineIdentifier;
+    private final PublisherConfig config;
+
+    public MagazinePublisher(final BaseMagazineStorage<T> baseMagazineStorage,
+            final String magazineIdentifier,
+            final PublisherConfig config) {
+        this.baseMagazineStorage = baseMagazineStorage;
+        this.magazineIdentifier = magazineIdentifier;
+        this.config = config;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super MagazineData<T>> subscriber) {
+        Objects.requireNonNull(subscriber);
+        new MagazineSubscription<>(baseMagazineStorage, magazineIdentifier, config, subscriber).start();
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.reactive;
+
+import com.phonepe.magazine.common.MagazineData;
+import com.phonepe.magazine.core.BaseMagazineStorage;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns demand into claims on a dedicated single thread. All signals to the subscriber are sent from that thread, and
+ * the work-in-progress counter makes sure only one drain loop runs at a time however request and cancel race.
+ */
+class MagazineSubscription<T> implements Flow.Subscription, Runnable {
+
+    private final BaseMagazineStorage<T> baseMagazineStorage;
+    private final String magazineIdentifier;
+    private final PublisherConfig config;
+    private final Flow.Subscriber<? super MagazineData<T>> subscriber;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger workInProgress = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+
+    // Only touched from the executor thread
+    private boolean terminated;
+    private boolean retryScheduled;
+    private long backoffMillis;
+
+    MagazineSubscription(final BaseMagazineStorage<T> baseMagazineStorage,
+            final String magazineIdentifier,
+            final PublisherConfig config,
+            final Flow.Subscriber<? super MagazineData<T>> subscriber) {
+        this.baseMagazineStorage = baseMagazineStorage;
+        this.magazineIdentifier = magazineIdentifier;
+        this.config = config;
+        this.subscriber = subscriber;
+        this.backoffMillis = config.getMinBackoffMillis();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "magazine-publisher-" + magazineIdentifier);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Rule 1.3 of the reactive streams specification: onSubscribe is signalled from the executor thread as well, and
+    // runs before any drain queued by the requests it makes
+    void start() {
+        executor.execute(() -> {
+            try {
+                subscriber.onSubscribe(this);
+            } catch (RuntimeException e) {
+                // Rule 2.13: a throwing subscriber is treated as cancelled
+                cancel();
+            }
+        });
+    }
+
+    @Override
+    public void request(final long n) {
+        if (n <= 0) {
+            // Rule 3.9 of the reactive streams specification
+            invalidRequest = new IllegalArgumentException("Requested " + n + ", demand must be positive");
+            cancelled = true;
+        } else {
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0
+                    ? Long.MAX_VALUE
+                    : current + added);
+        }
+        schedule();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        schedule();
+    }
+
+    @Override
+    public void run() {
+        int missed = 1;
+        do {
+            if (terminated) {
+                return;
+            }
+            if (cancelled) {
+                terminate(invalidRequest);
+                return;
+            }
+            long requested = demand.get();
+            while (requested > 0 && !cancelled && !retryScheduled) {
+                final List<MagazineData<T>> fired;
+                try {
+                    fired = baseMagazineStorage.fireBatch(magazineIdentifier,
+                            (int) Math.min(requested, config.getMaxBatchSize()));
+                } catch (Exception e) {
+                    terminate(e);
+                    return;
+                }
+                if (fired.isEmpty()) {
+                    scheduleRetry();
+                    break;
+                }
+                backoffMillis = config.getMinBackoffMillis();
+                if (!emit(fired)) {
+                    terminate(null);
+                    return;
+                }
+                requested = demand.addAndGet(-fired.size());
+            }
+            missed = workInProgress.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    // Returns false if the subscription ended mid-batch, after putting the undelivered data back
+    private boolean emit(final List<MagazineData<T>> fired) {
+        for (int i = 0; i < fired.size(); i++) {
+            if (cancelled) {
+                reload(fired.subList(i, fired.size()));
+                return false;
+            }
+            try {
+                subscriber.onNext(fired.get(i));
+            } catch (RuntimeException e) {
+                // Rule 2.13: a throwing subscriber is treated as cancelled, its data is reloaded for someone else
+                cancelled = true;
+                reload(fired.subList(i, fired.size()));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reload(final List<MagazineData<T>> undelivered) {
+        for (MagazineData<T> magazineData : undelivered) {
+            try {
+                baseMagazineStorage.reload(magazineIdentifier, magazineData.getData());
+            } catch (Exception e) {
+                // Best effort, the subscription is already over and has nobody left to report to
+            }
+        }
+    }
+
+    private void scheduleRetry() {
+        retryScheduled = true;
+        executor.schedule(() -> {
+            retryScheduled = false;
+            schedule();
+        }, backoffMillis, TimeUnit.MILLISECONDS);
+        backoffMillis = Math.min(backoffMillis * 2, config.getMaxBackoffMillis());
+    }
+
+    private void schedule() {
+        if (workInProgress.getAndIncrement() == 0) {
+            if (executor.isShutdown()) {
+                return;
+            }
+            executor.execute(this);
+        }
+    }
+
+    private void terminate(final Throwable error) {
+        terminated = true;
+        executor.shutdownNow();
+        if (error != null) {
+            subscriber.onError(error);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.scope;
+
+import com.phonepe.magazine.exception.ErrorCode;
+import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.util.ErrorMessage;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Shards owned by the local farm. A globally scoped magazine splits its shards into one contiguous slice per farm,
+ * in the order of the farm list, so each datacenter loads and fires its own pointer records. A slice is only left
+ * when it runs dry. Adding or removing a farm moves the slice boundaries, and that is the rebalance.
+ */
+public class ShardSlice {
+
+    private final int[] ownedShards;
+    private final boolean[] owned;
+    private final int[] farmOf; // Position in the farm list of the farm owning each shard
+    private final int farms;
+    private final int localFarm;
+
+    private ShardSlice(final int shards,
+            final int farms,
+            final int localFarm) {
+        this.farms = farms;
+        this.localFarm = localFarm;
+        this.farmOf = new int[shards];
+        for (int farm = 0; farm < farms; farm++) {
+            for (int shard = farm * shards / farms; shard < (farm + 1) * shards / farms; shard++) {
+                farmOf[shard] = farm;
+            }
+        }
+        this.owned = new boolean[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            owned[shard] = farmOf[shard] == localFarm;
+        }
+        this.ownedShards = IntStream.range(0, shards)
+                .filter(shard -> owned[shard])
+                .toArray();
+    }
+
+    /**
+     * @param shards Shards of the magazine.
+     * @return A slice owning every shard.
+     */
+    public static ShardSlice all(final int shards) {
+        return new ShardSlice(shards, 1, 0);
+    }
+
+    /**
+     * @param shards Shards of the magazine.
+     * @param farms  Every farm sharing the magazine, in the same order on all of them.
+     * @param farmId The local farm.
+     * @return The slice of the local farm.
+     */
+    public static ShardSlice of(final int shards,
+            final List<String> farms,
+            final String farmId) {
+        final int index = farms.indexOf(farmId);
+        if (index < 0) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.INVALID_SCOPE)
+                    .message(String.format(ErrorMessage.FARM_NOT_IN_SLICES, farmId, farms))
+                    .build();
+        }
+        if (shards < farms.size()) {
+            throw MagazineException.builder()
+                    .errorCode(ErrorCode.INVALID_SHARDS)
+                    .message(String.format(ErrorMessage.TOO_FEW_SHARDS_FOR_FARMS, shards, farms.size()))
+                    .build();
+        }
+        return new ShardSlice(shards, farms.size(), index);
+    }
+
+    public boolean isOwned(final int shard) {
+        return owned[shard];
+    }
+
+    /**
+     * @param activeShards Shards with data to fire.
+     * @return True if one of them belongs to this farm.
+     */
+    public boolean hasOwned(final int[] activeShards) {
+        for (int shard : activeShards) {
+            if (owned[shard]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether another farm may be firing from the shards of this farm. That is the case once another farm has no
+     * active shard left in its own slice, as it then drains the active shards of the others.
+     *
+     * @param activeShards Shards with data to fire.
+     * @return True if some other farm's slice has no active shard.
+     */
+    public boolean isOpenToOtherFarms(final int[] activeShards) {
+        if (farms == 1) {
+            return false;
+        }
+        final boolean[] active = new boolean[farms];
+        for (int shard : activeShards) {
+            active[farmOf[shard]] = true;
+        }
+        for (int farm = 0; farm < farms; farm++) {
+            if (farm != localFarm && !active[farm]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int randomOwnedShard() {
+        return ownedShards.length > 1
+                ? ownedShards[ThreadLocalRandom.current().nextInt(ownedShards.length)]
+                : ownedShards[0];
+    }
+
+    /**
+     * Pick a random shard out of the active ones, preferring owned shards and falling back to any active shard
+     * when no owned shard is active.
+     *
+     * @param activeShards Non-empty array of shards with data to fire.
+     * @return Index of the selected shard.
+     */
+    public int selectIndexForFire(final int[] activeShards) {
+        int ownedActive = 0;
+        for (int shard : activeShards) {
+            if (owned[shard]) {
+                ownedActive++;
+            }
+        }
+        if (ownedActive == 0 || ownedActive == activeShards.length) {
+            return activeShards.length > 1
+                    ? ThreadLocalRandom.current().nextInt(activeShards.length)
+                    : 0;
+        }
+        int remaining = ThreadLocalRandom.current().nextInt(ownedActive);
+        for (int i = 0; i < activeShards.length; i++) {
+            if (owned[activeShards[i]] && remaining-- == 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
@@ -16,10 +16,12 @@
 package com.phonepe.magazine.util;
 
 import com.phonepe.dlm.lock.level.LockLevel;
+import com.phonepe.magazine.common.Constants;
 import com.phonepe.magazine.exception.ErrorCode;
 import com.phonepe.magazine.exception.MagazineException;
 import com.phonepe.magazine.scope.MagazineScope;
 import com.phonepe.magazine.scope.MagazineScope.Visitor;
+import java.util.Objects;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -42,10 +44,10 @@ public class CommonUtils {
     }
 
     public static void validateMagazineScope(final MagazineScope scope) {
-        if (scope == MagazineScope.GLOBAL) {
+        if (Objects.isNull(scope)) {
             throw MagazineException.builder()
-                    .errorCode(ErrorCode.NOT_IMPLEMENTED)
-                    .message("Global scope is not implemented.")
+                    .errorCode(ErrorCode.INVALID_SCOPE)
+                    .message(ErrorMessage.SCOPE_REQUIRED)
                     .build();
         }
     }
@@ -69,4 +71,17 @@ public class CommonUtils {
         });
     }
 
+    /**
+     * @param magazineIdentifier The magazine.
+     * @param bucket             Open time of a delay bucket of the magazine, null for data fired right away.
+     * @return Identifier the keys of the pointer space are built from.
+     */
+    public static String resolveSpaceIdentifier(
+            final String magazineIdentifier,
+            final Long bucket) {
+        return Objects.nonNull(bucket)
+                ? magazineIdentifier + Constants.KEY_DELIMITER + Constants.DELAYED + Constants.KEY_DELIMITER + bucket
+                : magazineIdentifier;
+    }
+
 }
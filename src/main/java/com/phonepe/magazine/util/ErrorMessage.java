@@ -32,5 +32,28 @@ public class ErrorMessage {
     public static final String ERROR_READING_COUNTERS = "Error reading counters [magazineIdentifier = %s]";
     public static final String NO_DATA_TO_FIRE = "No data to fire [magazineIdentifier = %s]";
     public static final String ERROR_DELETING_DATA = "Error deleting data [magazineIdentifier = %s]";
+    public static final String ERROR_ACKNOWLEDGING_DATA = "Error acknowledging data [magazineIdentifier = %s]";
     public static final String ERROR_PEEKING_DATA = "Error peeking data [magazineIdentifier = %s]";
+    public static final String INVALID_SHARD = "Invalid shard %d [magazineIdentifier = %s]";
+    public static final String ERROR_IMPORTING_DATA = "Error importing data [magazineIdentifier = %s]";
+    public static final String UNSUPPORTED_IMPORT_TYPE = "Bulk import is not supported for payload type %s";
+    public static final String RATE_LIMITED = "Rate limit exceeded for %s [magazineIdentifier = %s]";
+    public static final String FARM_NOT_IN_SLICES = "Farm %s is not one of the farms %s of the global scope";
+    public static final String TOO_FEW_SHARDS_FOR_FARMS = "%d shards cannot be sliced between %d farms";
+    public static final String SCOPE_REQUIRED = "Magazine scope is required";
+    public static final String ERROR_CREATING_SHARDS_RECORD = "Error creating shards record [magazineIdentifier = %s]";
+    public static final String ERROR_EXPORTING_DATA = "Error exporting data [magazineIdentifier = %s]";
+    public static final String DELAYED_DELIVERY_DISABLED = "Delayed delivery is not enabled [magazineIdentifier = %s]";
+    public static final String DEDUPE_KEY_CLAIMED =
+            "Same data is being loaded by another attempt [magazineIdentifier = %s]";
+    public static final String NOT_SUPPORTED_BY_LIST_BUCKETS = "%s is not supported by the list bucket layout";
+    public static final String LIST_BUCKET_POP_IN_DOUBT =
+            "Pop from a list bucket is in doubt, up to %d items may be lost [magazineIdentifier = %s]";
+    public static final String NOT_SUPPORTED_WITH_DELAYED_DELIVERY = "%s is not supported with delayed delivery";
+    public static final String TOO_MANY_DELAY_BUCKETS =
+            "Bucket opening at %d would exceed %d delay buckets [magazineIdentifier = %s]";
+    public static final String RETIRE_AFTER_TOO_SHORT =
+            "retireAfterMillis %d must exceed %d, the longest a load may take plus twice the refresh interval";
+    public static final String UNBOUNDED_LOAD_TIMEOUT =
+            "Delayed delivery needs a load timeout, or drained buckets could be retired under a running load";
 }
@@ -20,26 +20,75 @@ import com.aerospike.client.AerospikeClient;
 import com.aerospike.client.Host;
 import com.aerospike.client.Key;
 import com.aerospike.client.policy.ClientPolicy;
+import com.aerospike.client.policy.CommitLevel;
+import com.aerospike.client.policy.Replica;
 import com.github.rholder.retry.RetryException;
+import com.phonepe.magazine.bulk.BulkImportConfig;
+import com.phonepe.magazine.bulk.BulkImportReport;
 import com.phonepe.magazine.common.Constants;
 import com.phonepe.magazine.common.MagazineData;
 import com.phonepe.magazine.common.MetaData;
+import com.phonepe.magazine.consumer.ConsumerConfig;
+import com.phonepe.magazine.consumer.ConsumerStats;
+import com.phonepe.magazine.consumer.MagazineConsumer;
 import com.phonepe.magazine.core.BaseMagazineStorage;
+import com.phonepe.magazine.core.DeDupeKeyMode;
+import com.phonepe.magazine.core.FireOrder;
 import com.phonepe.magazine.exception.ErrorCode;
 import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.impl.aerospike.ActiveShardsRefreshConfig;
 import com.phonepe.magazine.impl.aerospike.AerospikeStorage;
 import com.phonepe.magazine.impl.aerospike.AerospikeStorageConfig;
+import com.phonepe.magazine.impl.aerospike.CounterFlushConfig;
+import com.phonepe.magazine.impl.aerospike.DataReadConfig;
+import com.phonepe.magazine.impl.aerospike.DeadRunConfig;
+import com.phonepe.magazine.impl.aerospike.DeDupeCacheConfig;
+import com.phonepe.magazine.impl.aerospike.DelayedDeliveryConfig;
+import com.phonepe.magazine.impl.aerospike.GlobalScopeConfig;
+import com.phonepe.magazine.impl.aerospike.HedgeStats;
+import com.phonepe.magazine.impl.aerospike.LeaseConfig;
+import com.phonepe.magazine.impl.aerospike.ListBucketConfig;
+import com.phonepe.magazine.impl.aerospike.MagazineRuntime;
+import com.phonepe.magazine.impl.aerospike.PolicyProfile;
+import com.phonepe.magazine.impl.aerospike.PolicyProfiles;
+import com.phonepe.magazine.ratelimit.MagazineRateLimiter;
+import com.phonepe.magazine.ratelimit.RateLimitConfig;
+import com.phonepe.magazine.ratelimit.RateLimitMode;
+import com.phonepe.magazine.ratelimit.RateLimitStats;
+import com.phonepe.magazine.ratelimit.RateLimitedOperation;
+import com.phonepe.magazine.ratelimit.RateLimits;
+import com.phonepe.magazine.ratelimit.RefillClock;
 import com.phonepe.magazine.scope.MagazineScope;
 import com.phonepe.magazine.server.AerospikeTestContainer;
 import io.appform.testcontainers.aerospike.AerospikeContainerConfiguration;
 import io.appform.testcontainers.aerospike.AerospikeWaitStrategy;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 import org.junit.*;
 import org.testcontainers.containers.GenericContainer;
@@ -173,6 +222,191 @@ public class MagazineTest {
                 .getData());
     }
 
+    @Test
+    public void peekRangeAndUnfiredIteratorTest() throws ExecutionException, RetryException {
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("UNFIRED_ITERATOR_MAGAZINE")
+                .baseMagazineStorage(buildMagazineStorage(String.class))
+                .build();
+        for (int i = 0; i < 7; i++) {
+            magazine.load("UNFIRED_DATA" + i);
+        }
+        MagazineData<String> fired = magazine.fire();
+
+        Set<String> unfired = new HashSet<>();
+        magazine.unfiredIterator(2)
+                .forEachRemaining(magazineData -> unfired.add(magazineData.getData()));
+        Assert.assertEquals(6, unfired.size());
+        Assert.assertFalse(unfired.contains(fired.getData()));
+
+        Map.Entry<String, MetaData> loadedShard = magazine.getMetaData()
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getValue().getLoadPointer() > 0)
+                .findAny()
+                .get();
+        int shard = Integer.parseInt(loadedShard.getKey()
+                .substring(loadedShard.getKey().indexOf(Constants.KEY_DELIMITER) + 1));
+        List<MagazineData<String>> range = magazine.peekRange(shard, 1, loadedShard.getValue().getLoadPointer());
+        Assert.assertFalse(range.isEmpty());
+        Assert.assertEquals(shard, range.get(0).getShard().intValue());
+        try {
+            magazine.peekRange(null, 1, 2);
+            Assert.fail("A sharded magazine needs the shard to peek from");
+        } catch (MagazineException e) {
+            Assert.assertEquals(ErrorCode.INVALID_SHARDS, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void exportTest() throws ExecutionException, RetryException {
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("EXPORT_MAGAZINE")
+                .baseMagazineStorage(buildMagazineStorage(String.class))
+                .build();
+        Magazine<String> prefixedMagazine = Magazine.<String>builder()
+                .magazineIdentifier("EXPORT_MAGAZINE_OTHER")
+                .baseMagazineStorage(buildMagazineStorage(String.class))
+                .build();
+        for (int i = 0; i < 20; i++) {
+            magazine.load("EXPORT_DATA" + i);
+            prefixedMagazine.load("OTHER_DATA" + i);
+        }
+
+        Set<String> exported = ConcurrentHashMap.newKeySet();
+        long count = magazine.export(magazineData -> {
+            Assert.assertEquals("EXPORT_MAGAZINE", magazineData.getMagazineIdentifier());
+            Assert.assertNotNull(magazineData.getShard());
+            exported.add(magazineData.getData());
+        }, 4);
+        Assert.assertEquals(20, count);
+        Assert.assertEquals(20, exported.size());
+        Assert.assertTrue(exported.contains("EXPORT_DATA7"));
+    }
+
+    @Test
+    public void bulkImportTest() throws ExecutionException, RetryException, IOException {
+        Magazine<Long> magazine = Magazine.<Long>builder()
+                .magazineIdentifier("BULK_IMPORT_MAGAZINE")
+                .baseMagazineStorage(buildMagazineStorage(Long.class))
+                .build();
+        Path file = Files.createTempFile("bulk-import", ".ndjson");
+        Path checkpointFile = Files.createTempFile("bulk-import", ".checkpoint");
+        Files.delete(checkpointFile);
+        Files.writeString(file, "1\n{\"data\": 2}\n3\nnot-a-number\n3\n4\n5\n");
+
+        BulkImportReport report = magazine.importFile(BulkImportConfig.builder()
+                .file(file)
+                .batchSize(2)
+                .checkpointFile(checkpointFile)
+                .build());
+        Assert.assertEquals(7, report.getRecordsRead());
+        Assert.assertEquals(5, report.getRecordsImported());
+        Assert.assertEquals(1, report.getDuplicateRecords());
+        Assert.assertEquals(1, report.getFailedRecords());
+        Assert.assertEquals(7, report.getCheckpointedLine());
+        Assert.assertEquals(5, collectMetaData(magazine.getMetaData()).getLoadCounter());
+
+        // Everything is checkpointed, so running again imports nothing
+        report = magazine.importFile(BulkImportConfig.builder()
+                .file(file)
+                .checkpointFile(checkpointFile)
+                .build());
+        Assert.assertEquals(0, report.getRecordsRead());
+        Assert.assertEquals(7, report.getResumedAfterLine());
+    }
+
+    @Test
+    public void subscribeTest() throws ExecutionException, RetryException, InterruptedException {
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("SUBSCRIBE_MAGAZINE")
+                .baseMagazineStorage(buildMagazineStorage(String.class))
+                .build();
+        for (int i = 0; i < 5; i++) {
+            magazine.load("SUBSCRIBE_DATA" + i);
+        }
+
+        List<String> received = new CopyOnWriteArrayList<>();
+        List<Thread> signalThreads = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        magazine.subscribe()
+                .subscribe(new Flow.Subscriber<>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        signalThreads.add(Thread.currentThread());
+                        subscription.request(3);
+                    }
+
+                    @Override
+                    public void onNext(MagazineData<String> item) {
+                        signalThreads.add(Thread.currentThread());
+                        received.add(item.getData());
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        Assert.fail(throwable.getMessage());
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        Assert.fail("Magazine stream must not complete");
+                    }
+                });
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        // Nothing beyond the requested demand is claimed
+        Assert.assertEquals(3, received.size());
+        Assert.assertEquals(3, collectMetaData(magazine.getMetaData()).getFireCounter());
+        // Every signal, onSubscribe included, comes from the subscription thread and never from the caller's
+        Assert.assertEquals(1, signalThreads.stream().distinct().count());
+        Assert.assertNotSame(Thread.currentThread(), signalThreads.get(0));
+    }
+
+    @Test
+    public void consumerTest() throws ExecutionException, RetryException, InterruptedException {
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("CONSUMER_MAGAZINE")
+                .baseMagazineStorage(buildMagazineStorage(String.class))
+                .build();
+        for (int i = 0; i < 10; i++) {
+            magazine.load("CONSUMER_DATA" + i);
+        }
+
+        Set<String> handled = ConcurrentHashMap.newKeySet();
+        List<String> deadLetters = new CopyOnWriteArrayList<>();
+        MagazineConsumer<String> consumer = MagazineConsumer.<String>builder()
+                .magazine(magazine)
+                .handler(magazineData -> {
+                    if ("CONSUMER_DATA0".equals(magazineData.getData())) {
+                        throw new IllegalStateException("Poison item");
+                    }
+                    handled.add(magazineData.getData());
+                })
+                .deadLetterHandler(magazineData -> deadLetters.add(magazineData.getData()))
+                .config(ConsumerConfig.builder()
+                        .workers(4)
+                        .maxRetries(1)
+                        .build())
+                .build();
+        consumer.start();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while ((handled.size() < 9 || deadLetters.isEmpty()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        consumer.shutdown();
+        Assert.assertTrue(consumer.awaitTermination(10, TimeUnit.SECONDS));
+
+        ConsumerStats stats = consumer.getStats();
+        Assert.assertEquals(9, handled.size());
+        Assert.assertEquals(List.of("CONSUMER_DATA0"), deadLetters);
+        Assert.assertEquals(9, stats.getProcessed());
+        Assert.assertEquals(2, stats.getFailed());
+        Assert.assertEquals(1, stats.getReloaded());
+        Assert.assertEquals(1, stats.getDeadLettered());
+    }
+
     @Test
     public void longMagazineTest() {
         Magazine<Long> magazine = magazineManager.getMagazine("MAGAZINE_ID2");
@@ -238,48 +472,937 @@ public class MagazineTest {
     }
 
     @Test
-    public void exceptionsTest() {
+    public void fireAnyTest() throws ExecutionException, RetryException {
+        Magazine<String> heavy = Magazine.<String>builder()
+                .magazineIdentifier("FIRE_ANY_HEAVY")
+                .baseMagazineStorage(buildMagazineStorage(String.class))
+                .build();
+        Magazine<String> light = Magazine.<String>builder()
+                .magazineIdentifier("FIRE_ANY_LIGHT")
+                .baseMagazineStorage(buildMagazineStorage(String.class))
+                .build();
+        Magazine<String> empty = Magazine.<String>builder()
+                .magazineIdentifier("FIRE_ANY_EMPTY")
+                .baseMagazineStorage(buildMagazineStorage(String.class))
+                .build();
+        magazineManager.refresh(List.of(heavy, light, empty));
+
+        for (int i = 0; i < 6; i++) {
+            heavy.load("HEAVY_DATA" + i);
+            light.load("LIGHT_DATA" + i);
+        }
+
+        Map<String, Integer> weights = Map.of("FIRE_ANY_HEAVY", 2, "FIRE_ANY_LIGHT", 1, "FIRE_ANY_EMPTY", 5);
+        Map<String, Integer> fired = new HashMap<>();
+        for (int i = 0; i < 6; i++) {
+            MagazineData<?> data = magazineManager.fireAny(weights);
+            Assert.assertNotNull(data.getData());
+            fired.merge(data.getMagazineIdentifier(), 1, Integer::sum);
+        }
+        Assert.assertEquals(4, fired.get("FIRE_ANY_HEAVY").intValue());
+        Assert.assertEquals(2, fired.get("FIRE_ANY_LIGHT").intValue());
+        Assert.assertFalse(fired.containsKey("FIRE_ANY_EMPTY"));
+    }
+
+    @Test
+    public void leaseTest() throws ExecutionException, RetryException, InterruptedException {
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("LEASE_MAGAZINE")
+                .baseMagazineStorage(AerospikeStorage.<String>builder()
+                        .clazz(String.class)
+                        .storageConfig(AerospikeStorageConfig.builder()
+                                .dataSetName("DATA_SET")
+                                .metaSetName("META_SET")
+                                .namespace("NAMESPACE")
+                                .shards(4)
+                                .leaseConfig(LeaseConfig.builder()
+                                        .enabled(true)
+                                        .visibilityTimeoutSeconds(10)
+                                        .build())
+                                .build())
+                        .aerospikeClient(aerospikeClient)
+                        .enableDeDupe(false)
+                        .clientId("CLIENT_ID")
+                        .scope(MagazineScope.LOCAL)
+                        .build())
+                .build();
+        magazine.load("LEASED_DATA");
+        long firedAt = System.currentTimeMillis();
+        MagazineData<String> fired = magazine.fire();
+
+        // Leased and not expired yet, so there is nothing to fire
+        assertNothingToFire(magazine);
+
+        Thread.sleep(Math.max(0, firedAt + 11_000 - System.currentTimeMillis()));
+        MagazineData<String> reoffered = magazine.fire();
+        Assert.assertEquals(fired.getData(), reoffered.getData());
+        Assert.assertEquals(fired.getFirePointer(), reoffered.getFirePointer());
+        Assert.assertEquals(fired.getShard(), reoffered.getShard());
 
+        magazine.ack(reoffered);
+        Thread.sleep(11_000);
+        assertNothingToFire(magazine);
+    }
+
+    private static void assertNothingToFire(Magazine<?> magazine) {
         try {
-            Magazine<Integer> magazine = magazineManager.getMagazine("MAGAZINE_ID1");
-            magazine.load(12);
-            Assert.fail();
+            magazine.fire();
+            Assert.fail("Expected nothing to fire");
         } catch (MagazineException e) {
-            Assert.assertEquals(ErrorCode.DATA_TYPE_MISMATCH, e.getErrorCode());
+            Assert.assertEquals(ErrorCode.NOTHING_TO_FIRE, e.getErrorCode());
         }
+    }
 
+    @Test
+    public void hedgedDataReadTest() throws ExecutionException, RetryException {
+        AerospikeStorage<String> storage = AerospikeStorage.<String>builder()
+                .clazz(String.class)
+                .storageConfig(AerospikeStorageConfig.builder()
+                        .dataSetName("DATA_SET")
+                        .metaSetName("META_SET")
+                        .namespace("NAMESPACE")
+                        .shards(4)
+                        .dataReadConfig(DataReadConfig.builder()
+                                .replica(Replica.MASTER_PROLES)
+                                .hedgingEnabled(true)
+                                .build())
+                        .build())
+                .aerospikeClient(aerospikeClient)
+                .enableDeDupe(false)
+                .clientId("CLIENT_ID")
+                .scope(MagazineScope.LOCAL)
+                .build();
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("HEDGED_READ_MAGAZINE")
+                .baseMagazineStorage(storage)
+                .build();
+        for (int i = 0; i < 5; i++) {
+            magazine.load("HEDGED_DATA" + i);
+        }
+
+        Set<String> fired = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            fired.add(magazine.fire().getData());
+        }
+        Assert.assertEquals(5, fired.size());
+        HedgeStats stats = storage.getDataReadHedgeStats();
+        Assert.assertEquals(5, stats.getReads());
+        Assert.assertTrue(stats.getHedges() <= stats.getReads());
+    }
+
+    @Test
+    public void policyProfilesTest() throws ExecutionException, RetryException {
+        PolicyProfile latencyCritical = PolicyProfile.builder()
+                .socketTimeoutMillis(200)
+                .totalTimeoutMillis(500)
+                .maxRetries(1)
+                .build();
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("POLICY_PROFILE_MAGAZINE")
+                .baseMagazineStorage(AerospikeStorage.<String>builder()
+                        .clazz(String.class)
+                        .storageConfig(AerospikeStorageConfig.builder()
+                                .dataSetName("DATA_SET")
+                                .metaSetName("META_SET")
+                                .namespace("NAMESPACE")
+                                .shards(4)
+                                .policyProfiles(PolicyProfiles.builder()
+                                        .load(PolicyProfile.builder()
+                                                .commitLevel(CommitLevel.COMMIT_MASTER)
+                                                .build())
+                                        .fireClaim(latencyCritical)
+                                        .fireRead(latencyCritical)
+                                        .metaBatch(PolicyProfile.builder()
+                                                .totalTimeoutMillis(5_000)
+                                                .batchConcurrency(1)
+                                                .build())
+                                        .build())
+                                .build())
+                        .aerospikeClient(aerospikeClient)
+                        .enableDeDupe(true)
+                        .clientId("CLIENT_ID")
+                        .scope(MagazineScope.LOCAL)
+                        .build())
+                .build();
+
+        Assert.assertTrue(magazine.load("PROFILED_DATA"));
+        Assert.assertEquals("PROFILED_DATA", magazine.fire()
+                .getData());
+        Assert.assertEquals(1, collectMetaData(magazine.getMetaData()).getFireCounter());
+    }
+
+    @Test
+    public void rateLimitTest() throws ExecutionException, RetryException {
+        MagazineManager limitedManager = new MagazineManager("CLIENT_ID", RateLimits.builder()
+                .load(RateLimitConfig.builder()
+                        .permitsPerSecond(1)
+                        .burst(3)
+                        .mode(RateLimitMode.REJECT)
+                        .build())
+                .build());
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("RATE_LIMITED_MAGAZINE")
+                .baseMagazineStorage(AerospikeStorage.<String>builder()
+                        .clazz(String.class)
+                        .storageConfig(AerospikeStorageConfig.builder()
+                                .dataSetName("DATA_SET")
+                                .metaSetName("META_SET")
+                                .namespace("NAMESPACE")
+                                .shards(4)
+                                .build())
+                        .aerospikeClient(aerospikeClient)
+                        .enableDeDupe(false)
+                        .clientId("CLIENT_ID")
+                        .scope(MagazineScope.LOCAL)
+                        .build())
+                .rateLimiter(limitedManager.rateLimiter(RateLimits.builder()
+                        .load(RateLimitConfig.builder()
+                                .permitsPerSecond(1)
+                                .burst(2)
+                                .mode(RateLimitMode.REJECT)
+                                .build())
+                        .build()))
+                .build();
+
+        Assert.assertTrue(magazine.load("RATE_LIMITED_DATA_1"));
+        Assert.assertTrue(magazine.load("RATE_LIMITED_DATA_2"));
         try {
-            magazineManager.getMagazine("MAGAZINE1234");
-            Assert.fail();
+            magazine.load("RATE_LIMITED_DATA_3");
+            Assert.fail("Load over the limit should be rejected");
         } catch (MagazineException e) {
-            Assert.assertEquals(ErrorCode.MAGAZINE_NOT_FOUND, e.getErrorCode());
+            Assert.assertEquals(ErrorCode.RATE_LIMITED, e.getErrorCode());
+        }
+        // Fire is not limited
+        Assert.assertNotNull(magazine.fire());
+        Assert.assertNotNull(magazine.fire());
+
+        RateLimitStats loadStats = magazine.getRateLimitStats()
+                .get(RateLimitedOperation.LOAD);
+        Assert.assertEquals(2, loadStats.getPermitted());
+        Assert.assertEquals(1, loadStats.getRejected());
+        Assert.assertFalse(magazine.getRateLimitStats()
+                .containsKey(RateLimitedOperation.FIRE));
+
+        // The shared bucket caps the magazines drawing from it together
+        ManualClock clock = new ManualClock();
+        MagazineRateLimiter sharedLimiter = new MagazineRateLimiter(RateLimits.builder()
+                .load(RateLimitConfig.builder()
+                        .permitsPerSecond(1)
+                        .burst(3)
+                        .mode(RateLimitMode.REJECT)
+                        .build())
+                .build(), clock);
+        Magazine<String> firstShared = buildRateLimitedMagazine("SHARED_LIMIT_MAGAZINE_1", sharedLimiter.child(null));
+        Magazine<String> secondShared = buildRateLimitedMagazine("SHARED_LIMIT_MAGAZINE_2", sharedLimiter.child(null));
+        Assert.assertTrue(firstShared.load("SHARED_LIMIT_DATA_1"));
+        Assert.assertTrue(secondShared.load("SHARED_LIMIT_DATA_2"));
+        Assert.assertTrue(firstShared.load("SHARED_LIMIT_DATA_3"));
+        assertRateLimited(() -> secondShared.load("SHARED_LIMIT_DATA_4"));
+        clock.advance(TimeUnit.SECONDS.toNanos(1));
+        Assert.assertTrue(secondShared.load("SHARED_LIMIT_DATA_4"));
+        Assert.assertEquals(2, firstShared.getRateLimitStats()
+                .get(RateLimitedOperation.LOAD)
+                .getPermitted());
+        Assert.assertEquals(1, secondShared.getRateLimitStats()
+                .get(RateLimitedOperation.LOAD)
+                .getRejected());
+
+        // BLOCKING waits for as long as the refill takes
+        Magazine<String> blocking = buildRateLimitedMagazine("BLOCKING_LIMIT_MAGAZINE",
+                new MagazineRateLimiter(RateLimits.builder()
+                        .load(RateLimitConfig.builder()
+                                .permitsPerSecond(1)
+                                .burst(1)
+                                .mode(RateLimitMode.BLOCKING)
+                                .build())
+                        .build(), clock));
+        Assert.assertTrue(blocking.load("BLOCKING_LIMIT_DATA_1"));
+        long waitStart = clock.nanoTime();
+        Assert.assertTrue(blocking.load("BLOCKING_LIMIT_DATA_2"));
+        long waited = clock.nanoTime() - waitStart;
+        Assert.assertTrue(waited >= TimeUnit.SECONDS.toNanos(1) && waited < TimeUnit.MILLISECONDS.toNanos(1001));
+        RateLimitStats blockingStats = blocking.getRateLimitStats()
+                .get(RateLimitedOperation.LOAD);
+        Assert.assertEquals(2, blockingStats.getPermitted());
+        Assert.assertEquals(1, blockingStats.getThrottled());
+        Assert.assertEquals(0, blockingStats.getRejected());
+
+        // TRY_ACQUIRE waits only when a permit is due within maxWaitMillis, and rejects right away otherwise
+        Magazine<String> tryAcquire = buildRateLimitedMagazine("TRY_ACQUIRE_LIMIT_MAGAZINE",
+                new MagazineRateLimiter(RateLimits.builder()
+                        .load(RateLimitConfig.builder()
+                                .permitsPerSecond(1)
+                                .burst(1)
+                                .mode(RateLimitMode.TRY_ACQUIRE)
+                                .maxWaitMillis(100)
+                                .build())
+                        .build(), clock));
+        Assert.assertTrue(tryAcquire.load("TRY_ACQUIRE_LIMIT_DATA_1"));
+        waitStart = clock.nanoTime();
+        assertRateLimited(() -> tryAcquire.load("TRY_ACQUIRE_LIMIT_DATA_2"));
+        Assert.assertEquals(waitStart, clock.nanoTime());
+        clock.advance(TimeUnit.MILLISECONDS.toNanos(950));
+        waitStart = clock.nanoTime();
+        Assert.assertTrue(tryAcquire.load("TRY_ACQUIRE_LIMIT_DATA_2"));
+        waited = clock.nanoTime() - waitStart;
+        Assert.assertTrue(waited >= TimeUnit.MILLISECONDS.toNanos(50) && waited < TimeUnit.MILLISECONDS.toNanos(51));
+        RateLimitStats tryAcquireStats = tryAcquire.getRateLimitStats()
+                .get(RateLimitedOperation.LOAD);
+        Assert.assertEquals(2, tryAcquireStats.getPermitted());
+        Assert.assertEquals(1, tryAcquireStats.getThrottled());
+        Assert.assertEquals(1, tryAcquireStats.getRejected());
+    }
+
+    private Magazine<String> buildRateLimitedMagazine(String magazineIdentifier,
+            MagazineRateLimiter rateLimiter) throws ExecutionException, RetryException {
+        return Magazine.<String>builder()
+                .magazineIdentifier(magazineIdentifier)
+                .baseMagazineStorage(buildMagazineStorage(String.class))
+                .rateLimiter(rateLimiter)
+                .build();
+    }
+
+    private static void assertRateLimited(Runnable operation) {
+        try {
+            operation.run();
+            Assert.fail("Operation over the limit should be rejected");
+        } catch (MagazineException e) {
+            Assert.assertEquals(ErrorCode.RATE_LIMITED, e.getErrorCode());
+        }
+    }
+
+    // Time only moves when the test or a waiting limiter moves it
+    private static class ManualClock implements RefillClock {
+
+        private final AtomicLong now = new AtomicLong();
+
+        @Override
+        public long nanoTime() {
+            return now.get();
+        }
+
+        @Override
+        public void park(long nanos) {
+            advance(nanos);
+        }
+
+        void advance(long nanos) {
+            now.addAndGet(nanos);
+        }
+    }
+
+    @Test
+    public void counterFlushTest() throws ExecutionException, RetryException {
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("COUNTER_FLUSH_MAGAZINE")
+                .baseMagazineStorage(AerospikeStorage.<String>builder()
+                        .clazz(String.class)
+                        .storageConfig(AerospikeStorageConfig.builder()
+                                .dataSetName("DATA_SET")
+                                .metaSetName("META_SET")
+                                .namespace("NAMESPACE")
+                                .shards(4)
+                                .counterFlushConfig(CounterFlushConfig.builder()
+                                        .enabled(true)
+                                        .flushIntervalMillis(60_000)
+                                        .build())
+                                .build())
+                        .aerospikeClient(aerospikeClient)
+                        .enableDeDupe(false)
+                        .clientId("CLIENT_ID")
+                        .scope(MagazineScope.LOCAL)
+                        .build())
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(magazine.load("COUNTED_DATA_" + i));
         }
+        // Active shards are refreshed after a flush, so freshly loaded shards can be fired from right away
+        Assert.assertNotNull(magazine.fire());
+
+        MetaData metaData = collectMetaData(magazine.getMetaData());
+        Assert.assertEquals(3, metaData.getLoadCounter());
+        Assert.assertEquals(1, metaData.getFireCounter());
+
+        magazine.fire();
+        magazine.close();
+        Assert.assertEquals(2, collectMetaData(magazine.getMetaData()).getFireCounter());
     }
 
     @Test
-    public void notImplementedGlobalScopeTest() throws ExecutionException, RetryException {
+    public void bulkBuilderTest() throws ExecutionException, RetryException, InterruptedException {
+        List<Magazine<?>> magazines = magazineManager.bulkBuilder()
+                .add("BULK_MAGAZINE_1", buildMagazineStorage(String.class))
+                .add("BULK_MAGAZINE_2", buildMagazineStorage(String.class))
+                .add("BULK_MAGAZINE_3", buildMagazineStorage(Long.class))
+                .warmUpParallelism(2)
+                .build();
+        Assert.assertEquals(3, magazines.size());
+
+        Magazine<String> magazine = magazineManager.getMagazine("BULK_MAGAZINE_2");
+        Assert.assertFalse(magazine.hasDataToFire());
+        Assert.assertTrue(magazine.load("BULK_DATA"));
+        Assert.assertEquals(1, collectMetaData(magazine.getMetaData()).getLoadCounter());
+
+        // SHARDS records were created by the bulk build, so a smaller shard count is rejected as before
         try {
-            Magazine.<Long>builder()
-                    .magazineIdentifier("MAGAZINE_ID")
-                    .baseMagazineStorage(AerospikeStorage.<Long>builder()
-                            .clazz(Long.class)
+            magazineManager.bulkBuilder()
+                    .add("BULK_MAGAZINE_1", AerospikeStorage.<String>builder()
+                            .clazz(String.class)
+                            .storageConfig(AerospikeStorageConfig.builder()
+                                    .dataSetName("DATA_SET")
+                                    .metaSetName("META_SET")
+                                    .namespace("NAMESPACE")
+                                    .shards(8)
+                                    .build())
+                            .aerospikeClient(aerospikeClient)
+                            .clientId("CLIENT_ID")
+                            .scope(MagazineScope.LOCAL)
+                            .build())
+                    .build();
+            Assert.fail("Decreasing shards should be rejected");
+        } catch (MagazineException e) {
+            Assert.assertEquals(ErrorCode.INVALID_SHARDS, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void sharedRuntimeTest() throws ExecutionException, RetryException {
+        AerospikeStorage<String> first = (AerospikeStorage<String>) buildMagazineStorage(String.class);
+        AerospikeStorage<String> second = (AerospikeStorage<String>) buildMagazineStorage(String.class);
+        Assert.assertSame(first.getRuntime(), second.getRuntime());
+        Assert.assertSame(first.getLockManager(), second.getLockManager());
+
+        try (MagazineRuntime dedicated = new MagazineRuntime(aerospikeClient, "NAMESPACE", null)) {
+            AerospikeStorage<String> isolated = AerospikeStorage.<String>builder()
+                    .clazz(String.class)
+                    .storageConfig(AerospikeStorageConfig.builder()
+                            .dataSetName("DATA_SET")
+                            .metaSetName("META_SET")
+                            .namespace("NAMESPACE")
+                            .shards(16)
+                            .build())
+                    .aerospikeClient(aerospikeClient)
+                    .enableDeDupe(true)
+                    .clientId("CLIENT_ID")
+                    .scope(MagazineScope.LOCAL)
+                    .runtime(dedicated)
+                    .build();
+            Assert.assertSame(dedicated, isolated.getRuntime());
+
+            Magazine<String> magazine = Magazine.<String>builder()
+                    .magazineIdentifier("DEDICATED_RUNTIME_MAGAZINE")
+                    .baseMagazineStorage(isolated)
+                    .build();
+            Assert.assertTrue(magazine.load("RUNTIME_DATA"));
+            Assert.assertEquals("RUNTIME_DATA", magazine.fire()
+                    .getData());
+        }
+    }
+
+    @Test
+    public void activeShardsRefreshTest() throws ExecutionException, RetryException, InterruptedException {
+        try (MagazineRuntime runtime = new MagazineRuntime(aerospikeClient, "NAMESPACE", null,
+                ActiveShardsRefreshConfig.builder()
+                        .refreshIntervalMillis(100)
+                        .build())) {
+            Magazine<String> magazine = Magazine.<String>builder()
+                    .magazineIdentifier("REFRESHED_MAGAZINE")
+                    .baseMagazineStorage(AerospikeStorage.<String>builder()
+                            .clazz(String.class)
+                            .storageConfig(AerospikeStorageConfig.builder()
+                                    .dataSetName("DATA_SET")
+                                    .metaSetName("META_SET")
+                                    .namespace("NAMESPACE")
+                                    .shards(4)
+                                    .build())
+                            .aerospikeClient(aerospikeClient)
+                            .clientId("CLIENT_ID")
+                            .scope(MagazineScope.LOCAL)
+                            .runtime(runtime)
+                            .build())
+                    .build();
+
+            Assert.assertFalse(magazine.hasDataToFire());
+            Assert.assertTrue(magazine.load("REFRESHED_DATA"));
+            // Picked up by the next refresh of the runtime, as the magazine was asked for recently
+            Thread.sleep(500);
+            Assert.assertTrue(magazine.hasDataToFire());
+            Assert.assertEquals("REFRESHED_DATA", magazine.fire()
+                    .getData());
+        }
+    }
+
+    @Test
+    public void fifoFireTest() throws ExecutionException, RetryException, InterruptedException {
+        AerospikeStorage<String> storage = AerospikeStorage.<String>builder()
+                .clazz(String.class)
+                .storageConfig(AerospikeStorageConfig.builder()
+                        .dataSetName("DATA_SET")
+                        .metaSetName("META_SET")
+                        .namespace("NAMESPACE")
+                        .shards(8)
+                        .fireOrder(FireOrder.APPROXIMATE_FIFO)
+                        .build())
+                .aerospikeClient(aerospikeClient)
+                .clientId("CLIENT_ID")
+                .scope(MagazineScope.LOCAL)
+                .build();
+        Assert.assertEquals(FireOrder.APPROXIMATE_FIFO, storage.getFireOrder());
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("FIFO_MAGAZINE")
+                .baseMagazineStorage(storage)
+                .build();
+
+        Set<String> loaded = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(magazine.load("FIFO_DATA_" + i));
+            loaded.add("FIFO_DATA_" + i);
+            Thread.sleep(2);
+        }
+        Set<String> fired = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(fired.add(magazine.fire()
+                    .getData()));
+        }
+        Assert.assertEquals(loaded, fired);
+    }
+
+    @Test
+    public void delayedDeliveryTest() throws ExecutionException, RetryException {
+        ManualEpochClock clock = new ManualEpochClock(System.currentTimeMillis());
+        try (MagazineRuntime runtime = new MagazineRuntime(aerospikeClient, "NAMESPACE", null,
+                ActiveShardsRefreshConfig.builder()
+                        .refreshIntervalMillis(100)
+                        .build())) {
+            Magazine<String> magazine = Magazine.<String>builder()
+                    .magazineIdentifier("DELAYED_MAGAZINE")
+                    .baseMagazineStorage(AerospikeStorage.<String>builder()
+                            .clazz(String.class)
                             .storageConfig(AerospikeStorageConfig.builder()
                                     .dataSetName("DATA_SET")
                                     .metaSetName("META_SET")
                                     .namespace("NAMESPACE")
-                                    .shards(16)
+                                    .shards(4)
+                                    .delayedDeliveryConfig(DelayedDeliveryConfig.builder()
+                                            .enabled(true)
+                                            .bucketWidthMillis(100)
+                                            .indexRefreshMillis(100)
+                                            .build())
                                     .build())
                             .aerospikeClient(aerospikeClient)
-                            .enableDeDupe(true)
                             .clientId("CLIENT_ID")
                             .scope(MagazineScope.LOCAL)
+                            .runtime(runtime)
+                            .clock(clock)
                             .build())
                     .build();
+
+            Assert.assertTrue(magazine.load("DUE_DATA", clock.instant()
+                    .minusSeconds(1)));
+            Assert.assertTrue(magazine.load("DELAYED_DATA", clock.instant()
+                    .plusMillis(500)));
+            MagazineData<String> due = magazine.fire();
+            Assert.assertEquals("DUE_DATA", due.getData());
+            Assert.assertNull(due.getBucket());
+            try {
+                magazine.fire();
+                Assert.fail("Delayed data must not be fired before its time");
+            } catch (MagazineException e) {
+                Assert.assertEquals(ErrorCode.NOTHING_TO_FIRE, e.getErrorCode());
+            }
+
+            // Metadata and export cover the bucket, peeks cannot address it and fail
+            Assert.assertEquals(1, magazine.getMetaData()
+                    .entrySet()
+                    .stream()
+                    .filter(entry -> entry.getKey()
+                            .startsWith(Constants.DELAYED))
+                    .mapToLong(entry -> entry.getValue()
+                            .getLoadPointer())
+                    .sum());
+            List<MagazineData<String>> exported = new CopyOnWriteArrayList<>();
+            Assert.assertEquals(2, magazine.export(exported::add));
+            Assert.assertTrue(exported.stream()
+                    .anyMatch(data -> "DELAYED_DATA".equals(data.getData()) && Objects.nonNull(data.getBucket())));
+            try {
+                magazine.peek(Map.of(0, Set.of(1L)));
+                Assert.fail("Peek cannot tell delay buckets apart");
+            } catch (MagazineException e) {
+                Assert.assertEquals(ErrorCode.NOT_IMPLEMENTED, e.getErrorCode());
+            }
+
+            clock.advance(1000);
+            Assert.assertTrue(magazine.hasDataToFire());
+            MagazineData<String> delayed = magazine.fire();
+            Assert.assertEquals("DELAYED_DATA", delayed.getData());
+            Assert.assertNotNull(delayed.getBucket());
+            magazine.delete(delayed);
+        }
+    }
+
+    @Test
+    public void delayedDeliveryWithCounterFlushTest() {
+        ManualEpochClock clock = new ManualEpochClock(System.currentTimeMillis());
+        try (MagazineRuntime runtime = new MagazineRuntime(aerospikeClient, "NAMESPACE", null,
+                ActiveShardsRefreshConfig.builder()
+                        .refreshIntervalMillis(100)
+                        .build())) {
+            Magazine<String> magazine = Magazine.<String>builder()
+                    .magazineIdentifier("DELAYED_COUNTED_MAGAZINE")
+                    .baseMagazineStorage(AerospikeStorage.<String>builder()
+                            .clazz(String.class)
+                            .storageConfig(AerospikeStorageConfig.builder()
+                                    .dataSetName("DATA_SET")
+                                    .metaSetName("META_SET")
+                                    .namespace("NAMESPACE")
+                                    .shards(4)
+                                    .counterFlushConfig(CounterFlushConfig.builder()
+                                            .enabled(true)
+                                            .flushIntervalMillis(60_000)
+                                            .build())
+                                    .delayedDeliveryConfig(DelayedDeliveryConfig.builder()
+                                            .enabled(true)
+                                            .bucketWidthMillis(100)
+                                            .indexRefreshMillis(100)
+                                            .build())
+                                    .build())
+                            .aerospikeClient(aerospikeClient)
+                            .enableDeDupe(false)
+                            .clientId("CLIENT_ID")
+                            .scope(MagazineScope.LOCAL)
+                            .runtime(runtime)
+                            .clock(clock)
+                            .build())
+                    .build();
+
+            Assert.assertTrue(magazine.load("DUE_COUNTED_DATA"));
+            Assert.assertTrue(magazine.load("DELAYED_COUNTED_DATA", clock.instant()
+                    .plusMillis(500)));
+            Assert.assertEquals("DUE_COUNTED_DATA", magazine.fire()
+                    .getData());
+
+            // The counters of the bucket are flushed to the bucket's own records, so it shows as active once due
+            clock.advance(1000);
+            Assert.assertTrue(magazine.hasDataToFire());
+            MagazineData<String> delayed = magazine.fire();
+            Assert.assertEquals("DELAYED_COUNTED_DATA", delayed.getData());
+            Assert.assertNotNull(delayed.getBucket());
+            magazine.close();
+            Assert.assertEquals(1, magazine.getMetaData()
+                    .entrySet()
+                    .stream()
+                    .filter(entry -> entry.getKey()
+                            .startsWith(Constants.DELAYED))
+                    .mapToLong(entry -> entry.getValue()
+                            .getLoadCounter())
+                    .sum());
+        }
+    }
+
+    // Delayed data only comes due when the test moves the clock
+    private static class ManualEpochClock extends Clock {
+
+        private final AtomicLong now;
+
+        ManualEpochClock(long millis) {
+            this.now = new AtomicLong(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(now.get());
+        }
+
+        void advance(long millis) {
+            now.addAndGet(millis);
+        }
+    }
+
+    @Test
+    public void deadRunSkipTest() throws ExecutionException, RetryException {
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("DEAD_RUN_MAGAZINE")
+                .baseMagazineStorage(AerospikeStorage.<String>builder()
+                        .clazz(String.class)
+                        .storageConfig(AerospikeStorageConfig.builder()
+                                .dataSetName("DATA_SET")
+                                .metaSetName("META_SET")
+                                .namespace("NAMESPACE")
+                                .shards(1)
+                                .deadRunConfig(DeadRunConfig.builder()
+                                        .enabled(true)
+                                        .windowSize(4)
+                                        .loadGraceMillis(0)
+                                        .build())
+                                .build())
+                        .aerospikeClient(aerospikeClient)
+                        .clientId("CLIENT_ID")
+                        .scope(MagazineScope.LOCAL)
+                        .build())
+                .build();
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(magazine.load("DEAD_RUN_DATA_" + i));
+        }
+        // Stands in for records expired by recordTtl
+        magazine.peekRange(null, 1, 18)
+                .forEach(magazine::delete);
+
+        Assert.assertEquals("DEAD_RUN_DATA_18", magazine.fire()
+                .getData());
+        Assert.assertEquals(19L, collectMetaData(magazine.getMetaData()).getFirePointer());
+    }
+
+    @Test
+    public void listBucketTest() throws ExecutionException, RetryException, InterruptedException {
+        try (MagazineRuntime runtime = new MagazineRuntime(aerospikeClient, "NAMESPACE", null,
+                ActiveShardsRefreshConfig.builder()
+                        .refreshIntervalMillis(100)
+                        .build())) {
+            Magazine<String> magazine = Magazine.<String>builder()
+                    .magazineIdentifier("LIST_BUCKET_MAGAZINE")
+                    .baseMagazineStorage(AerospikeStorage.<String>builder()
+                            .clazz(String.class)
+                            .storageConfig(AerospikeStorageConfig.builder()
+                                    .dataSetName("DATA_SET")
+                                    .metaSetName("META_SET")
+                                    .namespace("NAMESPACE")
+                                    .shards(1)
+                                    .listBucketConfig(ListBucketConfig.builder()
+                                            .enabled(true)
+                                            .capacity(4)
+                                            .build())
+                                    .build())
+                            .aerospikeClient(aerospikeClient)
+                            .clientId("CLIENT_ID")
+                            .scope(MagazineScope.LOCAL)
+                            .runtime(runtime)
+                            .build())
+                    .build();
+            for (int i = 0; i < 10; i++) {
+                Assert.assertTrue(magazine.load("LIST_BUCKET_DATA_" + i));
+            }
+            for (int i = 0; i < 10; i++) {
+                MagazineData<String> magazineData = magazine.fire();
+                Assert.assertEquals("LIST_BUCKET_DATA_" + i, magazineData.getData());
+                Assert.assertEquals(i + 1, magazineData.getFirePointer());
+            }
+            assertNothingToFire(magazine);
+            // The fire pointer catches up with the last pointer popped from the partly filled bucket
+            Assert.assertEquals(10L, collectMetaData(magazine.getMetaData()).getFirePointer());
+            // So the drained shard stops being active once the runtime refreshes
+            Thread.sleep(500);
+            Assert.assertFalse(magazine.hasDataToFire());
+            try {
+                magazine.peekRange(null, 1, 2);
+                Assert.fail("Peek needs a record per item");
+            } catch (MagazineException e) {
+                Assert.assertEquals(ErrorCode.NOT_IMPLEMENTED, e.getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    public void listBucketApproximateFifoTest() {
+        try {
+            AerospikeStorage.<String>builder()
+                    .clazz(String.class)
+                    .storageConfig(AerospikeStorageConfig.builder()
+                            .dataSetName("DATA_SET")
+                            .metaSetName("META_SET")
+                            .namespace("NAMESPACE")
+                            .fireOrder(FireOrder.APPROXIMATE_FIFO)
+                            .listBucketConfig(ListBucketConfig.builder()
+                                    .enabled(true)
+                                    .build())
+                            .build())
+                    .aerospikeClient(aerospikeClient)
+                    .clientId("CLIENT_ID")
+                    .scope(MagazineScope.LOCAL)
+                    .build();
+            Assert.fail("List buckets have no head records to order shards by");
         } catch (MagazineException e) {
             Assert.assertEquals(ErrorCode.NOT_IMPLEMENTED, e.getErrorCode());
         }
     }
 
+    @Test
+    public void flightRecorderEventsTest() throws IOException {
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("JFR_MAGAZINE")
+                .baseMagazineStorage(buildMagazineStorage(String.class))
+                .build();
+        Path dump = Files.createTempFile("magazine", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.phonepe.magazine.Load");
+            recording.enable("com.phonepe.magazine.FireAttempt");
+            recording.start();
+            Assert.assertTrue(magazine.load("JFR_DATA"));
+            Assert.assertEquals("JFR_DATA", magazine.fire()
+                    .getData());
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        RecordedEvent load = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.phonepe.magazine.Load"))
+                .findFirst()
+                .orElseThrow();
+        Assert.assertEquals("JFR_MAGAZINE", load.getString("magazineIdentifier"));
+        Assert.assertTrue(load.getInt("roundTrips") > 0);
+        Assert.assertTrue(events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.phonepe.magazine.FireAttempt"))
+                .anyMatch(event -> event.getString("outcome").equals("FIRED")
+                        && event.getInt("shard") == load.getInt("shard")
+                        && event.getLong("pointer") == load.getLong("pointer")));
+        Files.delete(dump);
+    }
+
+    @Test
+    public void deDupeNearCacheTest() throws ExecutionException, RetryException {
+        AerospikeStorage<String> storage = AerospikeStorage.<String>builder()
+                .clazz(String.class)
+                .storageConfig(AerospikeStorageConfig.builder()
+                        .dataSetName("DATA_SET")
+                        .metaSetName("META_SET")
+                        .namespace("NAMESPACE")
+                        .shards(16)
+                        .deDupeCacheConfig(DeDupeCacheConfig.builder()
+                                .enabled(true)
+                                .build())
+                        .build())
+                .aerospikeClient(aerospikeClient)
+                .enableDeDupe(true)
+                .clientId("CLIENT_ID")
+                .scope(MagazineScope.LOCAL)
+                .build();
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("DEDUPE_CACHE_MAGAZINE")
+                .baseMagazineStorage(storage)
+                .build();
+
+        Assert.assertTrue(magazine.load("DATA1"));
+        Assert.assertTrue(magazine.load("DATA1"));
+        Assert.assertTrue(magazine.load("DATA1"));
+        Assert.assertTrue(magazine.load("DATA2"));
+
+        Assert.assertEquals(2, collectMetaData(magazine.getMetaData()).getLoadCounter());
+        Assert.assertEquals(2, storage.getDeDupeCacheStats().hitCount());
+        Assert.assertEquals(2, storage.getDeDupeCacheStats().missCount());
+    }
+
+    @Test
+    public void hashedDeDupeKeyTest() throws ExecutionException, RetryException {
+        Magazine<String> magazine = Magazine.<String>builder()
+                .magazineIdentifier("HASHED_DEDUPE_MAGAZINE")
+                .baseMagazineStorage(AerospikeStorage.<String>builder()
+                        .clazz(String.class)
+                        .storageConfig(AerospikeStorageConfig.builder()
+                                .dataSetName("DATA_SET")
+                                .metaSetName("META_SET")
+                                .namespace("NAMESPACE")
+                                .shards(16)
+                                .build())
+                        .aerospikeClient(aerospikeClient)
+                        .enableDeDupe(true)
+                        .clientId("CLIENT_ID")
+                        .scope(MagazineScope.LOCAL)
+                        .deDupeKeyMode(DeDupeKeyMode.HASH)
+                        .deDupeKeyExtractor(data -> data.split(":")[0].getBytes(StandardCharsets.UTF_8))
+                        .build())
+                .build();
+
+        Assert.assertTrue(magazine.load("ORDER1:CREATED"));
+        Assert.assertTrue(magazine.load("ORDER1:UPDATED"));
+        Assert.assertTrue(magazine.load("ORDER2:CREATED"));
+
+        Assert.assertEquals(2, collectMetaData(magazine.getMetaData()).getLoadCounter());
+    }
+
+    @Test
+    public void exceptionsTest() {
+
+        try {
+            Magazine<Integer> magazine = magazineManager.getMagazine("MAGAZINE_ID1");
+            magazine.load(12);
+            Assert.fail();
+        } catch (MagazineException e) {
+            Assert.assertEquals(ErrorCode.DATA_TYPE_MISMATCH, e.getErrorCode());
+        }
+
+        try {
+            magazineManager.getMagazine("MAGAZINE1234");
+            Assert.fail();
+        } catch (MagazineException e) {
+            Assert.assertEquals(ErrorCode.MAGAZINE_NOT_FOUND, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void globalScopeTest() throws ExecutionException, RetryException {
+        Magazine<String> firstFarmMagazine = buildGlobalMagazine("FARM_1", 0);
+        Magazine<String> secondFarmMagazine = buildGlobalMagazine("FARM_2", 0);
+        Magazine<String> patientSecondFarmMagazine = buildGlobalMagazine("FARM_2", Long.MAX_VALUE);
+
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(firstFarmMagazine.load("GLOBAL_DATA_" + i));
+        }
+        // FARM_1 owns shards 0 and 1 of 4, so nothing lands in the slice of FARM_2
+        Map<String, MetaData> metaData = firstFarmMagazine.getMetaData();
+        Assert.assertEquals(0, metaData.get("SHARD_2").getLoadCounter() + metaData.get("SHARD_3").getLoadCounter());
+        Assert.assertEquals(4, collectMetaData(metaData).getLoadCounter());
+
+        // A farm whose slice has not been dry for the drain grace leaves the slices of other farms alone
+        assertNothingToFire(patientSecondFarmMagazine);
+
+        // With the slice of FARM_2 dry, FARM_1 claims its own shards under the cross-farm lock as well
+        Set<String> fired = new HashSet<>();
+        fired.add(firstFarmMagazine.fire()
+                .getData());
+        // FARM_2 runs dry and falls back to the slice of FARM_1
+        for (int i = 0; i < 3; i++) {
+            fired.add(secondFarmMagazine.fire()
+                    .getData());
+        }
+        Assert.assertEquals(Set.of("GLOBAL_DATA_0", "GLOBAL_DATA_1", "GLOBAL_DATA_2", "GLOBAL_DATA_3"), fired);
+    }
+
+    private Magazine<String> buildGlobalMagazine(String farmId,
+            long drainGraceMillis) throws ExecutionException, RetryException {
+        return Magazine.<String>builder()
+                .magazineIdentifier("GLOBAL_MAGAZINE")
+                .baseMagazineStorage(AerospikeStorage.<String>builder()
+                        .clazz(String.class)
+                        .storageConfig(AerospikeStorageConfig.builder()
+                                .dataSetName("DATA_SET")
+                                .metaSetName("META_SET")
+                                .namespace("NAMESPACE")
+                                .shards(4)
+                                .globalScopeConfig(GlobalScopeConfig.builder()
+                                        .farms(List.of("FARM_1", "FARM_2"))
+                                        .drainGraceMillis(drainGraceMillis)
+                                        .build())
+                                .build())
+                        .aerospikeClient(aerospikeClient)
+                        .enableDeDupe(false)
+                        .farmId(farmId)
+                        .clientId("CLIENT_ID")
+                        .scope(MagazineScope.GLOBAL)
+                        .build())
+                .build();
+    }
+
     private <T> BaseMagazineStorage<T> buildMagazineStorage(Class<T> clazz) {
         return AerospikeStorage.<T>builder()
                 .clazz(clazz)
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.core;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeficitRoundRobinSchedulerTest {
+
+    @Test
+    public void cursorCarriesOnWhenItsMagazineDropsOutTest() {
+        final DeficitRoundRobinScheduler scheduler = new DeficitRoundRobinScheduler();
+        final Map<String, Integer> weights = Map.of("A", 1, "B", 1, "C", 1);
+        Assert.assertEquals("A", scheduler.next(List.of("A", "B", "C"), weights));
+        // B was up next and has run dry, C follows it rather than A getting a second turn
+        Assert.assertEquals("C", scheduler.next(List.of("A", "C"), weights));
+        Assert.assertEquals("A", scheduler.next(List.of("A", "C"), weights));
+    }
+
+    @Test
+    public void weightsTest() {
+        final DeficitRoundRobinScheduler scheduler = new DeficitRoundRobinScheduler();
+        final Map<String, Integer> weights = Map.of("A", 2, "B", 1);
+        final StringBuilder picks = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            picks.append(scheduler.next(List.of("A", "B"), weights));
+        }
+        Assert.assertEquals("AABAAB", picks.toString());
+    }
+}
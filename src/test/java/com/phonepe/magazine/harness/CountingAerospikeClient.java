@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.harness;
+
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps a client and counts the calls that reach the server: those taking a key, keys or batch records. Counts are
+ * kept in total and per calling thread, so ops per item can be told apart from background refreshes.
+ */
+public class CountingAerospikeClient {
+
+    private final IAerospikeClient client;
+    private final LongAdder total = new LongAdder();
+    private final ThreadLocal<long[]> perThread = ThreadLocal.withInitial(() -> new long[1]);
+
+    public CountingAerospikeClient(final IAerospikeClient delegate) {
+        this.client = (IAerospikeClient) Proxy.newProxyInstance(IAerospikeClient.class.getClassLoader(),
+                new Class[]{IAerospikeClient.class},
+                (proxy, method, args) -> {
+                    if (isServerCall(method)) {
+                        total.increment();
+                        perThread.get()[0]++;
+                    }
+                    try {
+                        return method.invoke(delegate, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    public IAerospikeClient client() {
+        return client;
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    public long onCurrentThread() {
+        return perThread.get()[0];
+    }
+
+    private static boolean isServerCall(final Method method) {
+        for (Class<?> type : method.getParameterTypes()) {
+            if (type == Key.class || type == Key[].class || type == List.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
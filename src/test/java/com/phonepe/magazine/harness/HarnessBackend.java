@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.harness;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public enum HarnessBackend {
+    /**
+     * A real Aerospike server in the test container. Needs docker.
+     */
+    CONTAINER(HarnessBackend.CONTAINER_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitContainer();
+        }
+    },
+    /**
+     * An in-memory map behind the client interface. Measures the client-side cost of the storage alone.
+     */
+    IN_MEMORY(HarnessBackend.IN_MEMORY_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitInMemory();
+        }
+    },
+    /**
+     * The in-memory map with server-like latencies, hot key queues and injected faults.
+     */
+    SIMULATED(HarnessBackend.SIMULATED_TEXT) {
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.visitSimulated();
+        }
+    };
+
+    public static final String CONTAINER_TEXT = "CONTAINER";
+    public static final String IN_MEMORY_TEXT = "IN_MEMORY";
+    public static final String SIMULATED_TEXT = "SIMULATED";
+
+    @Getter
+    private final String value;
+
+    public abstract <T> T accept(Visitor<T> visitor);
+
+    public interface Visitor<T> {
+
+        T visitContainer();
+
+        T visitInMemory();
+
+        T visitSimulated();
+    }
+}
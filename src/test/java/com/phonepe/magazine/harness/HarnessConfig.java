@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.harness;
+
+import com.phonepe.magazine.impl.aerospike.LatencyDistribution;
+import com.phonepe.magazine.impl.aerospike.SimulatedClientConfig;
+import java.util.Objects;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HarnessConfig {
+
+    @Builder.Default
+    private HarnessBackend backend = HarnessBackend.IN_MEMORY;
+
+    @Builder.Default
+    private int producers = 4;
+
+    @Builder.Default
+    private int consumers = 4;
+
+    @Builder.Default
+    private int shards = 16;
+
+    private boolean enableDeDupe;
+
+    @Builder.Default
+    private int payloadBytes = 128;
+
+    @Builder.Default
+    private int warmupSeconds = 5;
+
+    @Builder.Default
+    private int durationSeconds = 30;
+
+    // Used by the SIMULATED backend only
+    @Builder.Default
+    private SimulatedClientConfig simulatedClientConfig = SimulatedClientConfig.builder()
+            .build();
+
+    // When set, the ops of this file are replayed on producers + consumers threads instead of the closed loop
+    private String traceFile;
+
+    /**
+     * Reads every setting from a {@code harness.} system property of the same name, e.g. {@code -Dharness.shards=32}.
+     * The simulated client takes latencies as {@code <median micros>,<p99 micros>}, e.g.
+     * {@code -Dharness.simulated.writeLatency=500,2500}.
+     */
+    public static HarnessConfig fromSystemProperties() {
+        final HarnessConfig defaults = HarnessConfig.builder()
+                .build();
+        final SimulatedClientConfig simulated = defaults.simulatedClientConfig;
+        return HarnessConfig.builder()
+                .backend(HarnessBackend.valueOf(System.getProperty("harness.backend", defaults.backend.getValue())))
+                .producers(Integer.getInteger("harness.producers", defaults.producers))
+                .consumers(Integer.getInteger("harness.consumers", defaults.consumers))
+                .shards(Integer.getInteger("harness.shards", defaults.shards))
+                .enableDeDupe(Boolean.getBoolean("harness.enableDeDupe"))
+                .payloadBytes(Integer.getInteger("harness.payloadBytes", defaults.payloadBytes))
+                .warmupSeconds(Integer.getInteger("harness.warmupSeconds", defaults.warmupSeconds))
+                .durationSeconds(Integer.getInteger("harness.durationSeconds", defaults.durationSeconds))
+                .traceFile(System.getProperty("harness.traceFile"))
+                .simulatedClientConfig(SimulatedClientConfig.builder()
+                        .readLatency(latency("harness.simulated.readLatency", simulated.getReadLatency()))
+                        .writeLatency(latency("harness.simulated.writeLatency", simulated.getWriteLatency()))
+                        .batchLatency(latency("harness.simulated.batchLatency", simulated.getBatchLatency()))
+                        .serializeWrites(Boolean.parseBoolean(System.getProperty("harness.simulated.serializeWrites",
+                                String.valueOf(simulated.isSerializeWrites()))))
+                        .transactionPendingLimit(Integer.getInteger("harness.simulated.transactionPendingLimit",
+                                simulated.getTransactionPendingLimit()))
+                        .timeoutRate(Double.parseDouble(System.getProperty("harness.simulated.timeoutRate", "0")))
+                        .keyBusyRate(Double.parseDouble(System.getProperty("harness.simulated.keyBusyRate", "0")))
+                        .seed(Long.getLong("harness.simulated.seed", simulated.getSeed()))
+                        .build())
+                .build();
+    }
+
+    private static LatencyDistribution latency(final String property,
+            final LatencyDistribution defaultLatency) {
+        final String value = System.getProperty(property);
+        if (Objects.isNull(value)) {
+            return defaultLatency;
+        }
+        final String[] micros = value.split(",");
+        return LatencyDistribution.of(Long.parseLong(micros[0].trim()), Long.parseLong(micros[1].trim()));
+    }
+}
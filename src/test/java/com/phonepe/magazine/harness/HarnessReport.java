@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.harness;
+
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HarnessReport {
+
+    private long elapsedNanos;
+    private long loads;
+    private long fires;
+    private long misses; // Fires that found nothing to fire
+    private long errors;
+    private LatencyRecorder loadLatencies;
+    private LatencyRecorder fireLatencies;
+    private long loadCalls;
+    private long fireCalls; // Includes the delete that acks every fired item
+    private long totalCalls; // Includes background calls, like active shard refreshes, of no single item
+    private boolean callsCounted; // False when the storage is not backed by a counting client
+
+    public String summary() {
+        final double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        final StringBuilder summary = new StringBuilder()
+                .append(String.format("elapsed %.1fs, %d errors, %d empty fires%n", seconds, errors, misses))
+                .append(line("load", loads, seconds, loadLatencies))
+                .append(line("fire", fires, seconds, fireLatencies));
+        if (callsCounted) {
+            summary.append(String.format("aerospike ops: %.2f per load, %.2f per fire, %.2f per item in total%n",
+                    perItem(loadCalls, loads), perItem(fireCalls, fires), perItem(totalCalls, Math.max(loads, fires))));
+        }
+        return summary.toString();
+    }
+
+    private static String line(final String name,
+            final long count,
+            final double seconds,
+            final LatencyRecorder latencies) {
+        return String.format("%s: %d ops, %.0f ops/s, latency us p50 %d p90 %d p99 %d p99.9 %d max %d%n", name, count,
+                count / seconds, micros(latencies.percentile(50)), micros(latencies.percentile(90)),
+                micros(latencies.percentile(99)), micros(latencies.percentile(99.9)),
+                micros(latencies.percentile(100)));
+    }
+
+    private static long micros(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static double perItem(final long calls,
+            final long items) {
+        return items > 0
+                ? calls / (double) items
+                : 0;
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.harness;
+
+import java.util.Arrays;
+
+/**
+ * Keeps every sample of one thread, so percentiles are exact. Not thread safe; one recorder per worker, merged at the
+ * end.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1 << 16];
+    private int size;
+    private boolean sorted;
+
+    public void record(final long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+        sorted = false;
+    }
+
+    public void merge(final LatencyRecorder other) {
+        if (size + other.size > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(size + other.size, size * 2));
+        }
+        System.arraycopy(other.samples, 0, samples, size, other.size);
+        size += other.size;
+        sorted = false;
+    }
+
+    public int count() {
+        return size;
+    }
+
+    /**
+     * @param percentile Between 0 and 100.
+     * @return Latency at the percentile in nanos, 0 when nothing was recorded.
+     */
+    public long percentile(final double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, size);
+            sorted = true;
+        }
+        final int index = (int) Math.ceil(percentile / 100 * size) - 1;
+        return samples[Math.max(0, Math.min(size - 1, index))];
+    }
+}
@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.harness;
+
+import com.phonepe.magazine.common.MagazineData;
+import com.phonepe.magazine.core.BaseMagazineStorage;
+import com.phonepe.magazine.exception.ErrorCode;
+import com.phonepe.magazine.exception.MagazineException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives producers and consumers against a storage. In the closed loop, each producer loads and each consumer fires
+ * and deletes back to back; only ops started after the warmup are measured. A trace is replayed instead on
+ * producers + consumers threads, each op started at its recorded offset or as soon as a thread is free.
+ */
+public class MagazineHarness {
+
+    public static final String MAGAZINE_IDENTIFIER = "HARNESS_MAGAZINE";
+
+    private final HarnessConfig config;
+    private final BaseMagazineStorage<String> storage;
+    private final CountingAerospikeClient countingClient; // Null when the storage does not use one
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean measuring;
+
+    public MagazineHarness(final HarnessConfig config,
+            final BaseMagazineStorage<String> storage,
+            final CountingAerospikeClient countingClient) {
+        this.config = config;
+        this.storage = storage;
+        this.countingClient = countingClient;
+    }
+
+    public HarnessReport run() throws IOException, InterruptedException {
+        return Objects.isNull(config.getTraceFile())
+                ? runClosedLoop()
+                : replay(TraceOp.read(Path.of(config.getTraceFile()), config.getPayloadBytes()));
+    }
+
+    private HarnessReport runClosedLoop() throws InterruptedException {
+        final List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < config.getProducers() + config.getConsumers(); i++) {
+            final boolean producer = i < config.getProducers();
+            workers.add(new Worker(worker -> {
+                while (running) {
+                    if (producer) {
+                        worker.load(config.getPayloadBytes());
+                    } else {
+                        worker.fire();
+                    }
+                }
+            }));
+        }
+        running = true;
+        workers.forEach(Worker::start);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.getWarmupSeconds()));
+        final long callsBefore = totalCalls();
+        final long start = System.nanoTime();
+        measuring = true;
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.getDurationSeconds()));
+        measuring = false;
+        final long elapsedNanos = System.nanoTime() - start;
+        final long calls = totalCalls() - callsBefore;
+        running = false;
+        for (Worker worker : workers) {
+            worker.join();
+        }
+        return report(workers, elapsedNanos, calls);
+    }
+
+    private HarnessReport replay(final List<TraceOp> ops) throws InterruptedException {
+        final AtomicInteger next = new AtomicInteger();
+        final long start = System.nanoTime();
+        final List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, config.getProducers() + config.getConsumers()); i++) {
+            workers.add(new Worker(worker -> {
+                for (int index = next.getAndIncrement(); index < ops.size(); index = next.getAndIncrement()) {
+                    final TraceOp op = ops.get(index);
+                    final long dueAt = start + TimeUnit.MILLISECONDS.toNanos(op.getOffsetMillis());
+                    for (long wait = dueAt - System.nanoTime(); wait > 0; wait = dueAt - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    if (op.getType() == TraceOp.Type.LOAD) {
+                        worker.load(op.getPayloadBytes());
+                    } else {
+                        worker.fire();
+                    }
+                }
+            }));
+        }
+        final long callsBefore = totalCalls();
+        measuring = true;
+        workers.forEach(Worker::start);
+        for (Worker worker : workers) {
+            worker.join();
+        }
+        measuring = false;
+        return report(workers, System.nanoTime() - start, totalCalls() - callsBefore);
+    }
+
+    private long totalCalls() {
+        return Objects.nonNull(countingClient)
+                ? countingClient.total()
+                : 0;
+    }
+
+    private long callsOnCurrentThread() {
+        return Objects.nonNull(countingClient)
+                ? countingClient.onCurrentThread()
+                : 0;
+    }
+
+    private HarnessReport report(final List<Worker> workers,
+            final long elapsedNanos,
+            final long totalCalls) {
+        final HarnessReport report = HarnessReport.builder()
+                .elapsedNanos(elapsedNanos)
+                .loadLatencies(new LatencyRecorder())
+                .fireLatencies(new LatencyRecorder())
+                .totalCalls(totalCalls)
+                .callsCounted(Objects.nonNull(countingClient))
+                .build();
+        for (Worker worker : workers) {
+            report.setLoads(report.getLoads() + worker.loadLatencies.count());
+            report.setFires(report.getFires() + worker.fireLatencies.count());
+            report.setMisses(report.getMisses() + worker.misses);
+            report.setErrors(report.getErrors() + worker.errors);
+            report.setLoadCalls(report.getLoadCalls() + worker.loadCalls);
+            report.setFireCalls(report.getFireCalls() + worker.fireCalls);
+            report.getLoadLatencies().merge(worker.loadLatencies);
+            report.getFireLatencies().merge(worker.fireLatencies);
+        }
+        return report;
+    }
+
+    private static String payload(final long sequence,
+            final int bytes) {
+        final StringBuilder payload = new StringBuilder(bytes).append(sequence)
+                .append('-');
+        while (payload.length() < bytes) {
+            payload.append('x');
+        }
+        return payload.toString();
+    }
+
+    private interface Body {
+
+        void run(Worker worker);
+    }
+
+    // Counts and latencies of one thread, read once the thread is joined
+    private class Worker {
+
+        private final Thread thread;
+        private final LatencyRecorder loadLatencies = new LatencyRecorder();
+        private final LatencyRecorder fireLatencies = new LatencyRecorder();
+        private long misses;
+        private long errors;
+        private long loadCalls;
+        private long fireCalls;
+
+        private Worker(final Body body) {
+            this.thread = new Thread(() -> body.run(this));
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        private void join() throws InterruptedException {
+            thread.join();
+        }
+
+        private void load(final int payloadBytes) {
+            final String data = payload(sequence.incrementAndGet(), payloadBytes);
+            final long calls = callsOnCurrentThread();
+            final long start = System.nanoTime();
+            try {
+                storage.load(MAGAZINE_IDENTIFIER, data);
+                if (measuring) {
+                    loadLatencies.record(System.nanoTime() - start);
+                    loadCalls += callsOnCurrentThread() - calls;
+                }
+            } catch (MagazineException e) {
+                errors += measuring
+                        ? 1
+                        : 0;
+            }
+        }
+
+        private void fire() {
+            final long calls = callsOnCurrentThread();
+            final long start = System.nanoTime();
+            try {
+                final MagazineData<String> magazineData = storage.fire(MAGAZINE_IDENTIFIER);
+                final long latency = System.nanoTime() - start;
+                storage.delete(magazineData);
+                if (measuring) {
+                    fireLatencies.record(latency);
+                    fireCalls += callsOnCurrentThread() - calls;
+                }
+            } catch (MagazineException e) {
+                if (measuring && e.getErrorCode() == ErrorCode.NOTHING_TO_FIRE) {
+                    misses++;
+                } else if (measuring) {
+                    errors++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.harness;
+
+import com.aerospike.client.AerospikeClient;
+import com.aerospike.client.Host;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.policy.ClientPolicy;
+import com.phonepe.magazine.impl.aerospike.AerospikeStorage;
+import com.phonepe.magazine.impl.aerospike.AerospikeStorageConfig;
+import com.phonepe.magazine.impl.aerospike.InMemoryAerospikeClient;
+import com.phonepe.magazine.impl.aerospike.SimulatedAerospikeClient;
+import com.phonepe.magazine.scope.MagazineScope;
+import com.phonepe.magazine.server.AerospikeTestContainer;
+import io.appform.testcontainers.aerospike.AerospikeContainerConfiguration;
+import io.appform.testcontainers.aerospike.AerospikeWaitStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Runs {@link MagazineHarness} with the {@link HarnessConfig} of the {@code harness.*} system properties and prints
+ * its report. Left out of the default build, run it with
+ * {@code mvn test -Pharness -Dharness.backend=CONTAINER -Dharness.producers=8 -Dharness.consumers=8}.
+ */
+public class ThroughputHarness {
+
+    @Test
+    public void run() throws Exception {
+        final HarnessConfig config = HarnessConfig.fromSystemProperties();
+        final CountingAerospikeClient countingClient = new CountingAerospikeClient(config.getBackend()
+                .accept(new HarnessBackend.Visitor<IAerospikeClient>() {
+                    @Override
+                    public IAerospikeClient visitContainer() {
+                        return containerClient();
+                    }
+
+                    @Override
+                    public IAerospikeClient visitInMemory() {
+                        return InMemoryAerospikeClient.create();
+                    }
+
+                    @Override
+                    public IAerospikeClient visitSimulated() {
+                        return SimulatedAerospikeClient.create(config.getSimulatedClientConfig());
+                    }
+                }));
+        try (AerospikeStorage<String> storage = AerospikeStorage.<String>builder()
+                .clazz(String.class)
+                .storageConfig(AerospikeStorageConfig.builder()
+                        .dataSetName("HARNESS_DATA_SET")
+                        .metaSetName("HARNESS_META_SET")
+                        .namespace("NAMESPACE")
+                        .shards(config.getShards())
+                        .build())
+                .aerospikeClient(countingClient.client())
+                .enableDeDupe(config.isEnableDeDupe())
+                .clientId("HARNESS")
+                .farmId("HARNESS")
+                .scope(MagazineScope.LOCAL)
+                .build()) {
+            System.out.println(config);
+            final HarnessReport report = new MagazineHarness(config, storage, countingClient).run();
+            System.out.print(report.summary());
+            Assert.assertEquals(0, report.getErrors());
+        }
+    }
+
+    private static IAerospikeClient containerClient() {
+        final AerospikeContainerConfiguration containerConfig = new AerospikeContainerConfiguration();
+        containerConfig.setNamespace("NAMESPACE");
+        containerConfig.setPort(3000);
+        final GenericContainer<?> container = AerospikeTestContainer.initServerForTesting(containerConfig,
+                new AerospikeWaitStrategy(containerConfig));
+        return new AerospikeClient(new ClientPolicy(), new Host("localhost", container.getMappedPort(3000)));
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.harness;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One operation of a recorded trace. A trace file has one operation per line, as
+ * {@code <offset millis>,<LOAD|FIRE>[,<payload bytes>]}; blank lines and lines starting with {@code #} are skipped.
+ */
+@Data
+@AllArgsConstructor
+public class TraceOp {
+
+    private final long offsetMillis;
+    private final Type type;
+    private final int payloadBytes; // Ignored for fires
+
+    public enum Type {
+        LOAD,
+        FIRE
+    }
+
+    /**
+     * @param defaultPayloadBytes Payload size of loads that leave it out.
+     * @return Operations of the file, by offset.
+     */
+    public static List<TraceOp> read(final Path path,
+            final int defaultPayloadBytes) throws IOException {
+        final List<TraceOp> ops = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            final String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            final String[] fields = trimmed.split(",");
+            ops.add(new TraceOp(Long.parseLong(fields[0].trim()),
+                    Type.valueOf(fields[1].trim()),
+                    fields.length > 2
+                            ? Integer.parseInt(fields[2].trim())
+                            : defaultPayloadBytes));
+        }
+        ops.sort(Comparator.comparingLong(TraceOp::getOffsetMillis));
+        return ops;
+    }
+}
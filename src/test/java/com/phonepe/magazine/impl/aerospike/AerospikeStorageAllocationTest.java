@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.phonepe.magazine.scope.MagazineScope;
+import java.lang.management.ManagementFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Allocation benchmark of the load and fire hot path against an in-memory client stub. Measured bytes include the
+ * stub's own records and maps, so the bound is loose; it fails if per-operation keys, policies or operations are
+ * rebuilt again.
+ */
+public class AerospikeStorageAllocationTest {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+    private static final long MAX_BYTES_PER_OPERATION = 2048;
+
+    @Test
+    public void loadAndFireAllocationTest() {
+        AerospikeStorage<String> storage = AerospikeStorage.<String>builder()
+                .clazz(String.class)
+                .storageConfig(AerospikeStorageConfig.builder()
+                        .dataSetName("DATA_SET")
+                        .metaSetName("META_SET")
+                        .namespace("NAMESPACE")
+                        .shards(16)
+                        .build())
+                .aerospikeClient(InMemoryAerospikeClient.create())
+                .clientId("CLIENT_ID")
+                .farmId("FARM_ID")
+                .scope(MagazineScope.LOCAL)
+                .build();
+
+        measure(() -> storage.load("ALLOCATION_MAGAZINE", "DATA"), WARMUP_ITERATIONS);
+        measure(() -> storage.fire("ALLOCATION_MAGAZINE"), WARMUP_ITERATIONS);
+
+        long loadBytes = measure(() -> storage.load("ALLOCATION_MAGAZINE", "DATA"), MEASURED_ITERATIONS);
+        long fireBytes = measure(() -> storage.fire("ALLOCATION_MAGAZINE"), MEASURED_ITERATIONS);
+
+        Assert.assertTrue("load allocated " + loadBytes + " bytes/op", loadBytes < MAX_BYTES_PER_OPERATION);
+        Assert.assertTrue("fire allocated " + fireBytes + " bytes/op", fireBytes < MAX_BYTES_PER_OPERATION);
+    }
+
+    private long measure(final Runnable operation,
+            final int iterations) {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / iterations;
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.ResultCode;
+import com.phonepe.magazine.core.BatchLoadResult;
+import com.phonepe.magazine.exception.ErrorCode;
+import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.scope.MagazineScope;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Dedupe claims of load, reload and loadBatch against an in-memory client stub, with data writes and claim releases
+ * failed on demand.
+ */
+public class AerospikeStorageDeDupeTest {
+
+    private static final String MAGAZINE = "DEDUPE_MAGAZINE";
+
+    private final AtomicBoolean failDataWrites = new AtomicBoolean();
+    private final AtomicBoolean failReleases = new AtomicBoolean();
+    private AerospikeStorage<String> storage;
+
+    @Before
+    public void setUp() {
+        IAerospikeClient store = InMemoryAerospikeClient.create();
+        // Data records are the only ones written with put, released claims the only ones deleted in a batch
+        IAerospikeClient client = (IAerospikeClient) Proxy.newProxyInstance(IAerospikeClient.class.getClassLoader(),
+                new Class[]{IAerospikeClient.class},
+                (proxy, method, args) -> {
+                    Class<?>[] types = method.getParameterTypes();
+                    if (("put".equals(method.getName()) && failDataWrites.get() && types[1] == Key.class)
+                            || ("delete".equals(method.getName()) && failReleases.get() && types.length == 3
+                            && types[2] == Key[].class)) {
+                        throw new AerospikeException(ResultCode.SERVER_NOT_AVAILABLE);
+                    }
+                    try {
+                        return method.invoke(store, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        storage = AerospikeStorage.<String>builder()
+                .clazz(String.class)
+                .storageConfig(AerospikeStorageConfig.builder()
+                        .dataSetName("DATA_SET")
+                        .metaSetName("META_SET")
+                        .namespace("NAMESPACE")
+                        .shards(1)
+                        .build())
+                .aerospikeClient(client)
+                .enableDeDupe(true)
+                .clientId("CLIENT_ID")
+                .scope(MagazineScope.LOCAL)
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        storage.close();
+    }
+
+    @Test
+    public void failedStoreReleasesClaimTest() {
+        failDataWrites.set(true);
+        assertFails(ErrorCode.RETRIES_EXHAUSTED, () -> storage.load(MAGAZINE, "DATA"));
+
+        // The claim was released, so the retry loads instead of being taken for a duplicate
+        failDataWrites.set(false);
+        Assert.assertTrue(storage.load(MAGAZINE, "DATA"));
+        Assert.assertEquals("DATA", storage.fire(MAGAZINE)
+                .getData());
+
+        // Committed once stored, a later load of the same data is a duplicate
+        Assert.assertTrue(storage.load(MAGAZINE, "DATA"));
+        assertFails(ErrorCode.NOTHING_TO_FIRE, () -> storage.fire(MAGAZINE));
+    }
+
+    @Test
+    public void claimInFlightTest() {
+        // As if the loading process died between its claim and its data write
+        failDataWrites.set(true);
+        failReleases.set(true);
+        assertFails(ErrorCode.RETRIES_EXHAUSTED, () -> storage.load(MAGAZINE, "DATA"));
+
+        // The claim stays until its TTL runs out, and turns other attempts away instead of reporting a duplicate
+        failDataWrites.set(false);
+        failReleases.set(false);
+        assertFails(ErrorCode.ACTION_DENIED_PARALLEL_ATTEMPT, () -> storage.load(MAGAZINE, "DATA"));
+        assertFails(ErrorCode.ACTION_DENIED_PARALLEL_ATTEMPT, () -> storage.reload(MAGAZINE, "DATA"));
+        BatchLoadResult result = storage.loadBatch(MAGAZINE, 0, List.of("DATA"));
+        Assert.assertEquals(0, result.getLoaded());
+        Assert.assertEquals(1, result.getFailed());
+    }
+
+    @Test
+    public void reloadTest() {
+        Assert.assertTrue(storage.load(MAGAZINE, "DATA"));
+        Assert.assertEquals("DATA", storage.fire(MAGAZINE)
+                .getData());
+
+        // Reloading takes over the committed key, and commits it again once stored
+        Assert.assertTrue(storage.reload(MAGAZINE, "DATA"));
+        Assert.assertTrue(storage.load(MAGAZINE, "DATA"));
+        Assert.assertEquals("DATA", storage.fire(MAGAZINE)
+                .getData());
+        assertFails(ErrorCode.NOTHING_TO_FIRE, () -> storage.fire(MAGAZINE));
+    }
+
+    @Test
+    public void repeatsWithinBatchTest() {
+        BatchLoadResult result = storage.loadBatch(MAGAZINE, 0, List.of("DATA", "OTHER_DATA", "DATA"));
+        Assert.assertEquals(2, result.getLoaded());
+        Assert.assertEquals(1, result.getDuplicates());
+        Assert.assertEquals(0, result.getFailed());
+    }
+
+    private static void assertFails(final ErrorCode errorCode,
+            final Runnable operation) {
+        try {
+            operation.run();
+            Assert.fail("Expected " + errorCode);
+        } catch (MagazineException e) {
+            Assert.assertEquals(errorCode, e.getErrorCode());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.phonepe.magazine.common.MagazineData;
+import com.phonepe.magazine.harness.CountingAerospikeClient;
+import com.phonepe.magazine.scope.MagazineScope;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Client calls of a fire over a long run of missing data records, against an in-memory client stub. Claiming the
+ * run one pointer at a time takes three calls per dead pointer; skipping it in windows takes a few per window.
+ */
+public class AerospikeStorageDeadRunTest {
+
+    private static final String MAGAZINE = "DEAD_RUN_MAGAZINE";
+    private static final int DEAD_POINTERS = 900;
+    private static final int WINDOW_SIZE = 64;
+    // About two calls per window, against three per dead pointer without skipping
+    private static final long MAX_CALLS = 100;
+
+    @Test
+    public void deadRunSkipCallsTest() {
+        CountingAerospikeClient countingClient = new CountingAerospikeClient(InMemoryAerospikeClient.create());
+        AerospikeStorage<String> storage = AerospikeStorage.<String>builder()
+                .clazz(String.class)
+                .storageConfig(AerospikeStorageConfig.builder()
+                        .dataSetName("DATA_SET")
+                        .metaSetName("META_SET")
+                        .namespace("NAMESPACE")
+                        .shards(1)
+                        .deadRunConfig(DeadRunConfig.builder()
+                                .enabled(true)
+                                .windowSize(WINDOW_SIZE)
+                                .loadGraceMillis(0)
+                                .build())
+                        .build())
+                .aerospikeClient(countingClient.client())
+                .clientId("CLIENT_ID")
+                .scope(MagazineScope.LOCAL)
+                .build();
+        try {
+            for (int i = 0; i <= DEAD_POINTERS; i++) {
+                Assert.assertTrue(storage.load(MAGAZINE, "DATA_" + i));
+            }
+            for (long pointer = 1; pointer <= DEAD_POINTERS; pointer++) {
+                storage.delete(MagazineData.<String>builder()
+                        .magazineIdentifier(MAGAZINE)
+                        .firePointer(pointer)
+                        .build());
+            }
+
+            long before = countingClient.onCurrentThread();
+            Assert.assertEquals("DATA_" + DEAD_POINTERS, storage.fire(MAGAZINE)
+                    .getData());
+            long calls = countingClient.onCurrentThread() - before;
+            Assert.assertTrue("fire took " + calls + " calls", calls <= MAX_CALLS);
+        } finally {
+            storage.close();
+        }
+    }
+}
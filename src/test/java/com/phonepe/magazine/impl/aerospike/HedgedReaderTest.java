@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Races of the primary and hedge reads of a {@link HedgedReader}, with reads that sleep or block instead of a client.
+ */
+public class HedgedReaderTest {
+
+    private final ScheduledExecutorService timers = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService readExecutor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        timers.shutdownNow();
+        readExecutor.shutdownNow();
+    }
+
+    @Test
+    public void fastHedgeCutsSlowPrimaryTest() throws InterruptedException {
+        HedgedReader reader = new HedgedReader(DataReadConfig.builder()
+                .hedgingEnabled(true)
+                .minHedgeDelayMillis(10)
+                .maxHedgeRatio(1.0)
+                .build(), timers, readExecutor);
+        CountDownLatch primaryReleased = new CountDownLatch(1);
+        long startNanos = System.nanoTime();
+        String value = reader.read(() -> {
+            try {
+                primaryReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                        .interrupt();
+            }
+            return "PRIMARY";
+        }, () -> "HEDGE");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        primaryReleased.countDown();
+
+        // The caller returns with the hedge while the primary is still blocked
+        Assert.assertEquals("HEDGE", value);
+        Assert.assertTrue("read took " + elapsedMillis + " ms", elapsedMillis < 1000);
+        Assert.assertEquals(1, reader.getStats()
+                .getHedgeWins());
+    }
+
+    @Test
+    public void fastPrimaryIsNotHedgedTest() throws InterruptedException {
+        HedgedReader reader = new HedgedReader(DataReadConfig.builder()
+                .hedgingEnabled(true)
+                .minHedgeDelayMillis(1000)
+                .maxHedgeRatio(1.0)
+                .build(), timers, readExecutor);
+        Assert.assertEquals("PRIMARY", reader.read(() -> "PRIMARY", () -> "HEDGE"));
+        Assert.assertEquals(0, reader.getStats()
+                .getHedges());
+    }
+
+    @Test
+    public void hedgeRescuesFailedPrimaryTest() throws InterruptedException {
+        HedgedReader reader = new HedgedReader(DataReadConfig.builder()
+                .hedgingEnabled(true)
+                .minHedgeDelayMillis(10)
+                .maxHedgeRatio(1.0)
+                .build(), timers, readExecutor);
+        Assert.assertEquals("HEDGE", reader.read(() -> {
+            sleep(50);
+            throw new IllegalStateException("Primary failed");
+        }, () -> "HEDGE"));
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+        }
+    }
+}
@@ -0,0 +1,357 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchDelete;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchResults;
+import com.aerospike.client.BatchWrite;
+import com.aerospike.client.Bin;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.exp.Expression;
+import com.aerospike.client.policy.BatchDeletePolicy;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.aerospike.client.policy.GenerationPolicy;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.RecordExistsAction;
+import com.aerospike.client.policy.WritePolicy;
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Just enough of a client for load and fire: single get/put/operate/exists/delete, batch get and delete, and batch
+ * operate of writes and deletes on an in-memory map. Writes honour the record exists action and the generation
+ * policy, and records carry a generation, but they never expire. Only plain bin operations are supported: CDT, bit,
+ * HLL and expression operations, and filter expressions, fail with {@link UnsupportedOperationException} rather than
+ * being ignored, so list buckets, leases and delayed delivery cannot run against this client.
+ */
+public final class InMemoryAerospikeClient {
+
+    private InMemoryAerospikeClient() {
+    }
+
+    public static IAerospikeClient create() {
+        Map<Key, StoredRecord> store = new ConcurrentHashMap<>();
+        Policy readPolicy = new Policy();
+        WritePolicy writePolicy = new WritePolicy();
+        BatchPolicy batchPolicy = new BatchPolicy();
+        BatchWritePolicy batchWritePolicy = new BatchWritePolicy();
+        BatchDeletePolicy batchDeletePolicy = new BatchDeletePolicy();
+        return (IAerospikeClient) Proxy.newProxyInstance(IAerospikeClient.class.getClassLoader(),
+                new Class[]{IAerospikeClient.class},
+                (proxy, method, args) -> {
+                    Class<?>[] types = method.getParameterTypes();
+                    if (Objects.nonNull(args) && args.length > 0 && args[0] instanceof Policy policy) {
+                        requireNoFilter(policy.filterExp);
+                    }
+                    switch (method.getName()) {
+                        case "getReadPolicyDefault":
+                            return readPolicy;
+                        case "getWritePolicyDefault":
+                            return writePolicy;
+                        case "getBatchPolicyDefault":
+                            return batchPolicy;
+                        case "getBatchWritePolicyDefault":
+                            return batchWritePolicy;
+                        case "getBatchDeletePolicyDefault":
+                            return batchDeletePolicy;
+                        case "put":
+                            if (types[1] == Key.class) {
+                                WritePolicy policy = orDefault((WritePolicy) args[0], writePolicy);
+                                store.compute((Key) args[1], (key, current) -> {
+                                    StoredRecord record = write(current, policy.recordExistsAction,
+                                            policy.generationPolicy, policy.generation);
+                                    synchronized (record) {
+                                        record.update(policy.recordExistsAction);
+                                        for (Bin bin : (Bin[]) args[2]) {
+                                            record.put(bin.name, bin.value.getObject());
+                                        }
+                                    }
+                                    return record;
+                                });
+                            }
+                            return null;
+                        case "get":
+                            if (types[1] == Key.class) {
+                                return toRecord(store.get(args[1]));
+                            }
+                            if (types[1] == Key[].class) {
+                                Key[] keys = (Key[]) args[1];
+                                Record[] records = new Record[keys.length];
+                                for (int i = 0; i < keys.length; i++) {
+                                    records[i] = toRecord(store.get(keys[i]));
+                                }
+                                return records;
+                            }
+                            return null;
+                        case "getHeader":
+                            if (types[1] == Key.class) {
+                                StoredRecord record = store.get(args[1]);
+                                return Objects.nonNull(record)
+                                        ? new Record(Map.of(), record.generation, 0)
+                                        : null;
+                            }
+                            return null;
+                        case "exists":
+                            return types[1] == Key.class && store.containsKey(args[1]);
+                        case "delete":
+                            if (types[1] == Key.class) {
+                                WritePolicy policy = orDefault((WritePolicy) args[0], writePolicy);
+                                return delete(store, (Key) args[1], policy.generationPolicy, policy.generation);
+                            }
+                            if (types[2] == Key[].class) {
+                                BatchDeletePolicy policy = orDefault((BatchDeletePolicy) args[1], batchDeletePolicy);
+                                Key[] keys = (Key[]) args[2];
+                                BatchRecord[] records = new BatchRecord[keys.length];
+                                boolean status = true;
+                                for (int i = 0; i < keys.length; i++) {
+                                    records[i] = new BatchRecord(keys[i], true);
+                                    status &= delete(store, records[i], policy);
+                                }
+                                return new BatchResults(records, status);
+                            }
+                            return null;
+                        case "operate":
+                            if (types[1] == Key.class) {
+                                WritePolicy policy = orDefault((WritePolicy) args[0], writePolicy);
+                                return operate(store, (Key) args[1], (Operation[]) args[2], policy.recordExistsAction,
+                                        policy.generationPolicy, policy.generation);
+                            }
+                            if (types[1] == List.class) {
+                                boolean status = true;
+                                for (Object batchRecord : (List<?>) args[1]) {
+                                    status &= operate(store, (BatchRecord) batchRecord, batchWritePolicy,
+                                            batchDeletePolicy);
+                                }
+                                return status;
+                            }
+                            return null;
+                        default:
+                            return method.getReturnType().isPrimitive() && method.getReturnType() != void.class
+                                    ? Array.get(Array.newInstance(method.getReturnType(), 1), 0)
+                                    : null;
+                    }
+                });
+    }
+
+    // Returns true if the batch record succeeded, with its result code set either way
+    private static boolean operate(final Map<Key, StoredRecord> store,
+            final BatchRecord batchRecord,
+            final BatchWritePolicy defaultWritePolicy,
+            final BatchDeletePolicy defaultDeletePolicy) {
+        try {
+            if (batchRecord instanceof BatchWrite batchWrite) {
+                BatchWritePolicy policy = orDefault(batchWrite.policy, defaultWritePolicy);
+                requireNoFilter(policy.filterExp);
+                batchRecord.setRecord(operate(store, batchRecord.key, batchWrite.ops, policy.recordExistsAction,
+                        policy.generationPolicy, policy.generation));
+                return true;
+            }
+            if (batchRecord instanceof BatchDelete batchDelete) {
+                return delete(store, batchRecord, orDefault(batchDelete.policy, defaultDeletePolicy));
+            }
+            throw new UnsupportedOperationException("Batch reads in batch operate are not supported");
+        } catch (AerospikeException e) {
+            batchRecord.setError(e.getResultCode(), false);
+            return false;
+        }
+    }
+
+    private static Record operate(final Map<Key, StoredRecord> store,
+            final Key key,
+            final Operation[] operations,
+            final RecordExistsAction recordExistsAction,
+            final GenerationPolicy generationPolicy,
+            final int generation) {
+        boolean writes = false;
+        for (Operation operation : operations) {
+            switch (operation.type) {
+                case READ, READ_HEADER:
+                    break;
+                case WRITE, ADD, TOUCH, DELETE:
+                    writes = true;
+                    break;
+                default:
+                    throw new UnsupportedOperationException(operation.type + " operations are not supported");
+            }
+        }
+        if (!writes) {
+            StoredRecord record = store.get(key);
+            if (Objects.isNull(record)) {
+                throw new AerospikeException(ResultCode.KEY_NOT_FOUND_ERROR);
+            }
+            synchronized (record) {
+                return read(record, operations);
+            }
+        }
+        Record[] result = new Record[1];
+        store.compute(key, (k, current) -> {
+            StoredRecord record = write(current, recordExistsAction, generationPolicy, generation);
+            boolean deleted = false;
+            synchronized (record) {
+                record.update(recordExistsAction);
+                for (Operation operation : operations) {
+                    if (operation.type == Operation.Type.ADD) {
+                        record.bins.merge(operation.binName, operation.value.toLong(),
+                                (value, delta) -> (Long) value + (Long) delta);
+                    } else if (operation.type == Operation.Type.WRITE) {
+                        record.put(operation.binName, operation.value.getObject());
+                    } else if (operation.type == Operation.Type.DELETE) {
+                        record.bins.clear();
+                        deleted = true;
+                    }
+                }
+                result[0] = read(record, operations);
+            }
+            return deleted
+                    ? null
+                    : record;
+        });
+        return result[0];
+    }
+
+    // Checks the write against the current record, and returns the record to write to
+    private static StoredRecord write(final StoredRecord current,
+            final RecordExistsAction recordExistsAction,
+            final GenerationPolicy generationPolicy,
+            final int generation) {
+        if (Objects.nonNull(current) && recordExistsAction == RecordExistsAction.CREATE_ONLY) {
+            throw new AerospikeException(ResultCode.KEY_EXISTS_ERROR);
+        }
+        if (Objects.isNull(current) && (recordExistsAction == RecordExistsAction.UPDATE_ONLY
+                || recordExistsAction == RecordExistsAction.REPLACE_ONLY)) {
+            throw new AerospikeException(ResultCode.KEY_NOT_FOUND_ERROR);
+        }
+        checkGeneration(current, generationPolicy, generation);
+        return Objects.nonNull(current)
+                ? current
+                : new StoredRecord();
+    }
+
+    private static boolean delete(final Map<Key, StoredRecord> store,
+            final BatchRecord batchRecord,
+            final BatchDeletePolicy policy) {
+        try {
+            requireNoFilter(policy.filterExp);
+            batchRecord.resultCode = delete(store, batchRecord.key, policy.generationPolicy, policy.generation)
+                    ? ResultCode.OK
+                    : ResultCode.KEY_NOT_FOUND_ERROR;
+            return batchRecord.resultCode == ResultCode.OK;
+        } catch (AerospikeException e) {
+            batchRecord.setError(e.getResultCode(), false);
+            return false;
+        }
+    }
+
+    private static boolean delete(final Map<Key, StoredRecord> store,
+            final Key key,
+            final GenerationPolicy generationPolicy,
+            final int generation) {
+        boolean[] existed = new boolean[1];
+        store.computeIfPresent(key, (k, current) -> {
+            checkGeneration(current, generationPolicy, generation);
+            existed[0] = true;
+            return null;
+        });
+        return existed[0];
+    }
+
+    private static void checkGeneration(final StoredRecord current,
+            final GenerationPolicy generationPolicy,
+            final int generation) {
+        final int currentGeneration = Objects.nonNull(current)
+                ? current.generation
+                : 0;
+        if ((generationPolicy == GenerationPolicy.EXPECT_GEN_EQUAL && currentGeneration != generation)
+                || (generationPolicy == GenerationPolicy.EXPECT_GEN_GT && currentGeneration >= generation)) {
+            throw new AerospikeException(ResultCode.GENERATION_ERROR);
+        }
+    }
+
+    private static void requireNoFilter(final Expression filterExp) {
+        if (Objects.nonNull(filterExp)) {
+            throw new UnsupportedOperationException("Filter expressions are not supported");
+        }
+    }
+
+    private static <P> P orDefault(final P policy,
+            final P defaultPolicy) {
+        return Objects.nonNull(policy)
+                ? policy
+                : defaultPolicy;
+    }
+
+    // Reads the bins the operations ask for, all of them for a get without a bin name
+    private static Record read(final StoredRecord record,
+            final Operation[] operations) {
+        Map<String, Object> result = new HashMap<>();
+        for (Operation operation : operations) {
+            if (operation.type == Operation.Type.READ) {
+                if (Objects.isNull(operation.binName)) {
+                    result.putAll(record.bins);
+                } else {
+                    result.put(operation.binName, record.bins.get(operation.binName));
+                }
+            }
+        }
+        return new Record(result, record.generation, 0);
+    }
+
+    private static Record toRecord(final StoredRecord record) {
+        if (record == null) {
+            return null;
+        }
+        synchronized (record) {
+            return new Record(new HashMap<>(record.bins), record.generation, 0);
+        }
+    }
+
+    // Bins and generation of one record. Writers hold the store's lock on its key and its monitor, readers the latter.
+    private static final class StoredRecord {
+
+        private final Map<String, Object> bins = new HashMap<>();
+        private int generation;
+
+        // Starts a write, moving the generation on
+        private void update(final RecordExistsAction recordExistsAction) {
+            if (recordExistsAction == RecordExistsAction.REPLACE
+                    || recordExistsAction == RecordExistsAction.REPLACE_ONLY) {
+                bins.clear();
+            }
+            generation++;
+        }
+
+        private void put(final String name,
+                final Object value) {
+            if (Objects.isNull(value)) {
+                bins.remove(name);
+            } else {
+                bins.put(name, value);
+            }
+        }
+    }
+}
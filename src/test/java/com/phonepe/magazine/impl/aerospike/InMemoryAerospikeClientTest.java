@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.Value;
+import com.aerospike.client.cdt.ListOperation;
+import com.aerospike.client.policy.GenerationPolicy;
+import com.aerospike.client.policy.RecordExistsAction;
+import com.aerospike.client.policy.WritePolicy;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InMemoryAerospikeClientTest {
+
+    private static final Key KEY = new Key("NAMESPACE", "SET", "KEY");
+
+    @Test
+    public void createOnlyTest() {
+        IAerospikeClient client = InMemoryAerospikeClient.create();
+        WritePolicy createOnly = new WritePolicy();
+        createOnly.recordExistsAction = RecordExistsAction.CREATE_ONLY;
+        client.put(createOnly, KEY, new Bin("BIN", 1L));
+        try {
+            client.put(createOnly, KEY, new Bin("BIN", 2L));
+            Assert.fail("second create should fail");
+        } catch (AerospikeException e) {
+            Assert.assertEquals(ResultCode.KEY_EXISTS_ERROR, e.getResultCode());
+        }
+        Assert.assertEquals(1L, client.get(null, KEY).getLong("BIN"));
+    }
+
+    @Test
+    public void generationTest() {
+        IAerospikeClient client = InMemoryAerospikeClient.create();
+        client.put(null, KEY, new Bin("BIN", 1L));
+        Record record = client.get(null, KEY);
+        Assert.assertEquals(1, record.generation);
+
+        WritePolicy expectGeneration = new WritePolicy();
+        expectGeneration.generationPolicy = GenerationPolicy.EXPECT_GEN_EQUAL;
+        expectGeneration.generation = record.generation;
+        Assert.assertEquals(3L, client.operate(expectGeneration, KEY, Operation.add(new Bin("BIN", 2L)),
+                Operation.get("BIN")).getLong("BIN"));
+        // The same generation again is a conflicting claim
+        try {
+            client.operate(expectGeneration, KEY, Operation.add(new Bin("BIN", 2L)));
+            Assert.fail("stale generation should fail");
+        } catch (AerospikeException e) {
+            Assert.assertEquals(ResultCode.GENERATION_ERROR, e.getResultCode());
+        }
+        Assert.assertEquals(2, client.get(null, KEY).generation);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void cdtOperationTest() {
+        InMemoryAerospikeClient.create()
+                .operate(null, KEY, ListOperation.append("LIST", Value.get(1L)));
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.impl.aerospike;
+
+import java.util.SplittableRandom;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Log-normal latency, fixed by its median and 99th percentile. Server latencies are skewed to the right like this.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LatencyDistribution {
+
+    private static final double Z_99 = 2.326;
+
+    @Builder.Default
+    private long medianMicros = 300;
+
+    @Builder.Default
+    private long p99Micros = 1500;
+
+    public static LatencyDistribution of(final long medianMicros,
+            final long p99Micros) {
+        return new LatencyDistribution(medianMicros, p99Micros);
+    }
+
+    public long sampleNanos(final SplittableRandom random) {
+        if (medianMicros <= 0) {
+            return 0;
+        }
+        final double sigma = Math.log(Math.max(p99Micros, medianMicros) / (double) medianMicros) / Z_99;
+        return (long) (medianMicros * 1000 * Math.exp(sigma * gaussian(random)));
+    }
+
+    // Box-Muller, SplittableRandom has no nextGaussian
+    private static double gaussian(final SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
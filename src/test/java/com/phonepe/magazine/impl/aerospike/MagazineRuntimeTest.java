@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.IAerospikeClient;
+import com.phonepe.magazine.exception.ErrorCode;
+import com.phonepe.magazine.exception.MagazineException;
+import com.phonepe.magazine.scope.MagazineScope;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MagazineRuntimeTest {
+
+    @Test
+    public void sharedRuntimeIsReleasedByItsLastStorageTest() {
+        IAerospikeClient aerospikeClient = InMemoryAerospikeClient.create();
+        AerospikeStorage<String> first = buildStorage(aerospikeClient);
+        AerospikeStorage<String> second = buildStorage(aerospikeClient);
+        Assert.assertSame(first.getRuntime(), second.getRuntime());
+
+        // Closing a storage twice releases its hold once
+        first.close();
+        first.close();
+        Assert.assertFalse(first.getRuntime()
+                .getScheduler()
+                .isShutdown());
+        second.close();
+        Assert.assertTrue(first.getRuntime()
+                .getScheduler()
+                .isShutdown());
+
+        // The next storage gets a fresh runtime
+        AerospikeStorage<String> third = buildStorage(aerospikeClient);
+        Assert.assertNotSame(first.getRuntime(), third.getRuntime());
+        third.close();
+    }
+
+    @Test
+    public void rejectedConfigDoesNotHoldSharedRuntimeTest() {
+        IAerospikeClient aerospikeClient = InMemoryAerospikeClient.create();
+        try {
+            buildStorage(aerospikeClient, AerospikeStorageConfig.builder()
+                    .dataSetName("DATA_SET")
+                    .metaSetName("META_SET")
+                    .namespace("NAMESPACE")
+                    .shards(1)
+                    .listBucketConfig(ListBucketConfig.builder()
+                            .enabled(true)
+                            .build())
+                    .leaseConfig(LeaseConfig.builder()
+                            .enabled(true)
+                            .build())
+                    .build());
+            Assert.fail("Leases with list buckets must be rejected");
+        } catch (MagazineException e) {
+            Assert.assertEquals(ErrorCode.NOT_IMPLEMENTED, e.getErrorCode());
+        }
+
+        // The rejected storage took no hold, so closing the only other one shuts the runtime down
+        AerospikeStorage<String> storage = buildStorage(aerospikeClient);
+        storage.close();
+        Assert.assertTrue(storage.getRuntime()
+                .getScheduler()
+                .isShutdown());
+    }
+
+    private static AerospikeStorage<String> buildStorage(IAerospikeClient aerospikeClient) {
+        return buildStorage(aerospikeClient, AerospikeStorageConfig.builder()
+                .dataSetName("DATA_SET")
+                .metaSetName("META_SET")
+                .namespace("NAMESPACE")
+                .shards(1)
+                .build());
+    }
+
+    private static AerospikeStorage<String> buildStorage(IAerospikeClient aerospikeClient,
+            AerospikeStorageConfig storageConfig) {
+        return AerospikeStorage.<String>builder()
+                .clazz(String.class)
+                .storageConfig(storageConfig)
+                .aerospikeClient(aerospikeClient)
+                .enableDeDupe(false)
+                .clientId("CLIENT_ID")
+                .scope(MagazineScope.LOCAL)
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.policy.Policy;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An in-process client with server-like timing over {@link InMemoryAerospikeClient}. Every get, put, operate, exists,
+ * delete and batch call sleeps for a latency drawn from its distribution. Writes to one key are serialized and fail
+ * with KEY_BUSY once too many are queued, and a call that would outlast the policy's total timeout fails with a
+ * timeout once it expires. Timeouts and KEY_BUSY can also be injected at a fixed rate. The client's own retries of
+ * a policy's maxRetries are not modelled, each call is one attempt.
+ */
+public final class SimulatedAerospikeClient {
+
+    private static final String[] WRITES = {"put", "operate", "delete", "touch", "add", "append", "prepend"};
+
+    private SimulatedAerospikeClient() {
+    }
+
+    public static IAerospikeClient create(final SimulatedClientConfig config) {
+        final IAerospikeClient store = InMemoryAerospikeClient.create();
+        final Map<Key, KeyQueue> queues = new ConcurrentHashMap<>();
+        final AtomicLong seeds = new AtomicLong(config.getSeed());
+        final ThreadLocal<SplittableRandom> randoms = ThreadLocal.withInitial(
+                () -> new SplittableRandom(seeds.getAndIncrement()));
+        return (IAerospikeClient) Proxy.newProxyInstance(IAerospikeClient.class.getClassLoader(),
+                new Class[]{IAerospikeClient.class},
+                (proxy, method, args) -> {
+                    final Class<?>[] types = method.getParameterTypes();
+                    if (types.length < 2 || !isServerCall(types[1])) {
+                        return invoke(store, method, args);
+                    }
+                    final SplittableRandom random = randoms.get();
+                    final long startedAt = System.nanoTime();
+                    final Policy policy = (Policy) args[0];
+                    final long timeoutNanos = Objects.nonNull(policy) && policy.totalTimeout > 0
+                            ? TimeUnit.MILLISECONDS.toNanos(policy.totalTimeout)
+                            : Long.MAX_VALUE;
+                    if (random.nextDouble() < config.getTimeoutRate()) {
+                        throw timeout(policy, startedAt, timeoutNanos);
+                    }
+                    if (types[1] != Key.class) {
+                        return respond(store, method, args, config.getBatchLatency()
+                                .sampleNanos(random), startedAt, timeoutNanos);
+                    }
+                    if (!isWrite(method)) {
+                        return respond(store, method, args, config.getReadLatency()
+                                .sampleNanos(random), startedAt, timeoutNanos);
+                    }
+                    if (random.nextDouble() < config.getKeyBusyRate()) {
+                        throw new AerospikeException(ResultCode.KEY_BUSY);
+                    }
+                    final long latencyNanos = config.getWriteLatency()
+                            .sampleNanos(random);
+                    if (!config.isSerializeWrites()) {
+                        return respond(store, method, args, latencyNanos, startedAt, timeoutNanos);
+                    }
+                    final KeyQueue queue = queues.computeIfAbsent((Key) args[1], key -> new KeyQueue());
+                    if (queue.pending.incrementAndGet() > config.getTransactionPendingLimit()) {
+                        queue.pending.decrementAndGet();
+                        throw new AerospikeException(ResultCode.KEY_BUSY);
+                    }
+                    try {
+                        if (!queue.lock.tryLock(remaining(startedAt, timeoutNanos), TimeUnit.NANOSECONDS)) {
+                            throw timeout(policy, startedAt, timeoutNanos);
+                        }
+                        try {
+                            return respond(store, method, args, latencyNanos, startedAt, timeoutNanos);
+                        } finally {
+                            queue.lock.unlock();
+                        }
+                    } finally {
+                        queue.pending.decrementAndGet();
+                    }
+                });
+    }
+
+    // Waits out the latency and then applies the call, or fails it if the timeout comes first
+    private static Object respond(final IAerospikeClient store,
+            final Method method,
+            final Object[] args,
+            final long latencyNanos,
+            final long startedAt,
+            final long timeoutNanos) throws Throwable {
+        if (latencyNanos >= remaining(startedAt, timeoutNanos)) {
+            throw timeout((Policy) args[0], startedAt, timeoutNanos);
+        }
+        parkUntil(System.nanoTime() + latencyNanos);
+        return invoke(store, method, args);
+    }
+
+    private static AerospikeException timeout(final Policy policy,
+            final long startedAt,
+            final long timeoutNanos) {
+        if (timeoutNanos != Long.MAX_VALUE) {
+            parkUntil(startedAt + timeoutNanos);
+        }
+        return new AerospikeException.Timeout(Objects.nonNull(policy)
+                ? policy
+                : new Policy(), true);
+    }
+
+    private static long remaining(final long startedAt,
+            final long timeoutNanos) {
+        return timeoutNanos == Long.MAX_VALUE
+                ? Long.MAX_VALUE
+                : startedAt + timeoutNanos - System.nanoTime();
+    }
+
+    private static void parkUntil(final long deadline) {
+        for (long wait = deadline - System.nanoTime(); wait > 0; wait = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private static Object invoke(final IAerospikeClient store,
+            final Method method,
+            final Object[] args) throws Throwable {
+        try {
+            return method.invoke(store, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isServerCall(final Class<?> type) {
+        return type == Key.class || type == Key[].class || type == List.class;
+    }
+
+    private static boolean isWrite(final Method method) {
+        for (String write : WRITES) {
+            if (write.equals(method.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class KeyQueue {
+
+        private final AtomicInteger pending = new AtomicInteger();
+        private final ReentrantLock lock = new ReentrantLock(true);
+    }
+}
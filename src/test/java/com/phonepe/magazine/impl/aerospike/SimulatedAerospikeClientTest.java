@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.impl.aerospike;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.WritePolicy;
+import com.phonepe.magazine.scope.MagazineScope;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SimulatedAerospikeClientTest {
+
+    private static final Key HOT_KEY = new Key("NAMESPACE", "SET", "HOT_KEY");
+
+    @Test
+    public void hotKeyTest() throws Exception {
+        IAerospikeClient client = SimulatedAerospikeClient.create(SimulatedClientConfig.builder()
+                .writeLatency(LatencyDistribution.of(100_000, 100_000))
+                .transactionPendingLimit(2)
+                .build());
+        WritePolicy writePolicy = new WritePolicy();
+        writePolicy.totalTimeout = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        int busy = 0;
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    try {
+                        client.put(writePolicy, HOT_KEY, new Bin("BIN", 1L));
+                        return ResultCode.OK;
+                    } catch (AerospikeException e) {
+                        return e.getResultCode();
+                    }
+                }));
+            }
+            for (Future<Integer> result : results) {
+                busy += result.get() == ResultCode.KEY_BUSY
+                        ? 1
+                        : 0;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Two writes hold the queue for 100ms each, so at most six can find it full. How many of them arrive while it
+        // is full depends on how the threads are scheduled.
+        Assert.assertTrue("busy writes: " + busy, busy >= 1 && busy <= 6);
+    }
+
+    @Test
+    public void timeoutTest() {
+        IAerospikeClient client = SimulatedAerospikeClient.create(SimulatedClientConfig.builder()
+                .readLatency(LatencyDistribution.of(200_000, 200_000))
+                .build());
+        Policy policy = new Policy();
+        policy.totalTimeout = 10;
+        long start = System.nanoTime();
+        try {
+            client.get(policy, HOT_KEY);
+            Assert.fail("read should time out");
+        } catch (AerospikeException.Timeout e) {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Assert.assertTrue("timed out after " + elapsedMillis + "ms", elapsedMillis >= 10 && elapsedMillis < 200);
+        }
+    }
+
+    @Test
+    public void loadAndFireUnderKeyBusyTest() {
+        try (AerospikeStorage<String> storage = AerospikeStorage.<String>builder()
+                .clazz(String.class)
+                .storageConfig(AerospikeStorageConfig.builder()
+                        .dataSetName("DATA_SET")
+                        .metaSetName("META_SET")
+                        .namespace("NAMESPACE")
+                        .shards(1)
+                        .build())
+                .aerospikeClient(SimulatedAerospikeClient.create(SimulatedClientConfig.builder()
+                        .keyBusyRate(0.1)
+                        .build()))
+                .clientId("CLIENT_ID")
+                .farmId("FARM_ID")
+                .scope(MagazineScope.LOCAL)
+                .build()) {
+            for (int i = 0; i < 20; i++) {
+                Assert.assertTrue(storage.load("SIMULATED_MAGAZINE", "DATA_" + i));
+            }
+            // Failed writes are retried, and a failed pointer claim only skips a pointer
+            Assert.assertNotNull(storage.fire("SIMULATED_MAGAZINE"));
+        }
+    }
+}
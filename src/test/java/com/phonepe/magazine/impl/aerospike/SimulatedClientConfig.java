@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2025 Original Author(s), PhonePe India Pvt. Ltd.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phonepe.magazine.impl.aerospike;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SimulatedClientConfig {
+
+    @Builder.Default
+    private LatencyDistribution readLatency = LatencyDistribution.of(300, 1500);
+
+    @Builder.Default
+    private LatencyDistribution writeLatency = LatencyDistribution.of(500, 2500);
+
+    @Builder.Default
+    private LatencyDistribution batchLatency = LatencyDistribution.of(800, 4000);
+
+    // Writes to one key run one at a time, as on the server, so a hot key queues
+    @Builder.Default
+    private boolean serializeWrites = true;
+
+    // Writes queued on one key beyond this fail with KEY_BUSY, like the server's transaction-pending-limit
+    @Builder.Default
+    private int transactionPendingLimit = 20;
+
+    // Share of calls failed with a timeout after waiting out the policy's total timeout
+    private double timeoutRate;
+
+    // Share of single-key writes failed with KEY_BUSY regardless of the queue
+    private double keyBusyRate;
+
+    @Builder.Default
+    private long seed = 42;
+}